@@ -5,12 +5,15 @@ import com.example.back.model.Product;
 import com.example.back.model.Role;
 import com.example.back.model.User;
 import com.example.back.repository.CategorieRepository;
+import com.example.back.repository.DataMigrationRepository;
+import com.example.back.repository.OrderRepository;
 import com.example.back.repository.ProductRepository;
 import com.example.back.repository.UserRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
@@ -21,23 +24,32 @@ import java.util.Set;
  * Initialise la base de données avec des données de test au démarrage de l'application
  * S'exécute uniquement si la base est vide
  */
+@Slf4j
 @Component
 public class DataInitializer implements CommandLineRunner {
 
+    private static final String ORDER_SUMMARIES_MIGRATION = "order-summary-columns";
+
     private final UserRepository userRepository;
     private final CategorieRepository categorieRepository;
     private final ProductRepository productRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final OrderRepository orderRepository;
+    private final DataMigrationRepository dataMigrationRepository;
+    private final PasswordEncoder passwordEncoder;
     private final EntityManager entityManager;
 
     public DataInitializer(UserRepository userRepository,
                            CategorieRepository categorieRepository,
                            ProductRepository productRepository,
-                           BCryptPasswordEncoder passwordEncoder,
+                           OrderRepository orderRepository,
+                           DataMigrationRepository dataMigrationRepository,
+                           PasswordEncoder passwordEncoder,
                            EntityManager entityManager) {
         this.userRepository = userRepository;
         this.categorieRepository = categorieRepository;
         this.productRepository = productRepository;
+        this.orderRepository = orderRepository;
+        this.dataMigrationRepository = dataMigrationRepository;
         this.passwordEncoder = passwordEncoder;
         this.entityManager = entityManager;
     }
@@ -45,15 +57,16 @@ public class DataInitializer implements CommandLineRunner {
     @Override
     @Transactional
     public void run(String... args) throws Exception {
+        // Renseigner les colonnes de résumé des commandes existantes
+        backfillOrderSummaries();
+
         // Vérifier si la base de données est déjà remplie
         if (userRepository.count() > 0) {
-            System.out.println("✓ Base de données déjà initialisée. Skip de l'initialisation.");
+            log.info("Base de données déjà initialisée, initialisation ignorée");
             return;
         }
 
-        System.out.println("========================================");
-        System.out.println("  INITIALISATION DES DONNÉES DE TEST");
-        System.out.println("========================================");
+        log.info("Initialisation des données de test");
 
         // Réinitialiser les auto-increments
         resetAutoIncrements();
@@ -67,17 +80,28 @@ public class DataInitializer implements CommandLineRunner {
         // 3. Créer les produits
         createProducts();
 
-        System.out.println("========================================");
-        System.out.println("  ✓ INITIALISATION TERMINÉE AVEC SUCCÈS");
-        System.out.println("========================================");
+        log.info("Initialisation terminée");
+    }
+
+    /**
+     * Calcule itemCount et distinctProductCount pour les commandes antérieures à ces colonnes
+     * Une seule fois : la requête parcourt toute la table, elle n'est pas rejouée à chaque démarrage
+     */
+    private void backfillOrderSummaries() {
+        if (dataMigrationRepository.existsById(ORDER_SUMMARIES_MIGRATION)) {
+            return;
+        }
+        int updated = orderRepository.backfillSummaryColumns();
+        dataMigrationRepository.markApplied(ORDER_SUMMARIES_MIGRATION);
+        if (updated > 0) {
+            log.atInfo().addKeyValue("orders", updated).log("Résumés des commandes existantes calculés");
+        }
     }
 
     /**
      * Réinitialise les auto-increments de toutes les tables
      */
     private void resetAutoIncrements() {
-        System.out.println("\n→ Réinitialisation des auto-increments...");
-
         try {
             // Réinitialiser l'auto-increment de chaque table
             entityManager.createNativeQuery("ALTER TABLE users AUTO_INCREMENT = 1").executeUpdate();
@@ -85,9 +109,9 @@ public class DataInitializer implements CommandLineRunner {
             entityManager.createNativeQuery("ALTER TABLE products AUTO_INCREMENT = 1").executeUpdate();
             entityManager.createNativeQuery("ALTER TABLE orders AUTO_INCREMENT = 1").executeUpdate();
 
-            System.out.println("  ✓ Auto-increments réinitialisés à 1");
+            log.info("Auto-increments réinitialisés à 1");
         } catch (Exception e) {
-            System.out.println("  ⚠ Impossible de réinitialiser les auto-increments (normal si tables vides)");
+            log.warn("Impossible de réinitialiser les auto-increments (normal si tables vides)");
         }
     }
 
@@ -95,8 +119,6 @@ public class DataInitializer implements CommandLineRunner {
      * Crée 2 utilisateurs : 1 USER et 1 ADMIN
      */
     private void createUsers() {
-        System.out.println("\n→ Création des utilisateurs...");
-
         // Utilisateur normal
         User user = User.builder()
                 .username("user")
@@ -122,17 +144,14 @@ public class DataInitializer implements CommandLineRunner {
         userRepository.save(user);
         userRepository.save(admin);
 
-        System.out.println("  ✓ 2 utilisateurs créés");
-        System.out.println("    - user@example.com / password123 (USER)");
-        System.out.println("    - admin@example.com / admin123 (ADMIN)");
+        // Les mots de passe de démonstration ne sont pas écrits dans les logs
+        log.atInfo().addKeyValue("usernames", "user, admin").log("Utilisateurs créés");
     }
 
     /**
      * Crée 5 catégories de produits
      */
     private void createCategories() {
-        System.out.println("\n→ Création des catégories...");
-
         String[] categoriesNames = {
                 "Électronique",
                 "Vêtements",
@@ -149,15 +168,13 @@ public class DataInitializer implements CommandLineRunner {
             categorieRepository.save(categorie);
         }
 
-        System.out.println("  ✓ 5 catégories créées : " + String.join(", ", categoriesNames));
+        log.atInfo().addKeyValue("categories", String.join(", ", categoriesNames)).log("Catégories créées");
     }
 
     /**
      * Crée 15 produits répartis dans différentes catégories avec de vraies images
      */
     private void createProducts() {
-        System.out.println("\n→ Création des produits...");
-
         // Récupérer les catégories
         Categorie electronique = categorieRepository.findByName("Électronique").orElseThrow();
         Categorie vetements = categorieRepository.findByName("Vêtements").orElseThrow();
@@ -295,7 +312,7 @@ public class DataInitializer implements CommandLineRunner {
                 "https://images.unsplash.com/photo-1614632537197-38a17061c2bd?w=800"
         );
 
-        System.out.println("  ✓ 15 produits créés dans 5 catégories différentes avec images");
+        log.atInfo().addKeyValue("products", 15).log("Produits créés");
     }
 
     /**
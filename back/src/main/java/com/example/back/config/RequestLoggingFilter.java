@@ -0,0 +1,70 @@
+package com.example.back.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Identifiant de corrélation et échantillonnage des logs de debug, par requête
+ * L'identifiant (repris de l'en-tête X-Correlation-Id s'il est valide, sinon généré) est placé dans le MDC
+ * et renvoyé dans la réponse. Une fraction des requêtes est tirée au sort : seules celles-ci émettent
+ * les événements DEBUG de l'application (voir SampledDebugTurboFilter)
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    public static final String CORRELATION_ID_HEADER = "X-Correlation-Id";
+    public static final String CORRELATION_ID_KEY = "correlationId";
+    public static final String SAMPLED_KEY = "sampled";
+
+    // Identifiant fourni par l'appelant : court et sans caractère capable de casser une ligne de log
+    private static final Pattern VALID_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    // 0 : aucun événement DEBUG ; 1 : toutes les requêtes
+    @Value("${app.logging.debug-sample-rate:0.01}")
+    private double debugSampleRate;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String correlationId = request.getHeader(CORRELATION_ID_HEADER);
+        if (correlationId == null || !VALID_ID.matcher(correlationId).matches()) {
+            correlationId = UUID.randomUUID().toString();
+        }
+        MDC.put(CORRELATION_ID_KEY, correlationId);
+        if (debugSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < debugSampleRate) {
+            MDC.put(SAMPLED_KEY, "true");
+        }
+        response.setHeader(CORRELATION_ID_HEADER, correlationId);
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            log.atDebug()
+                    .addKeyValue("method", request.getMethod())
+                    .addKeyValue("path", request.getRequestURI())
+                    .addKeyValue("status", response.getStatus())
+                    .addKeyValue("durationMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                    .log("Requête traitée");
+            MDC.remove(SAMPLED_KEY);
+            MDC.remove(CORRELATION_ID_KEY);
+        }
+    }
+}
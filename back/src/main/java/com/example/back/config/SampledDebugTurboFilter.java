@@ -0,0 +1,30 @@
+package com.example.back.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+/**
+ * Filtre Logback : les événements DEBUG et TRACE de l'application ne passent que pour les requêtes
+ * échantillonnées par RequestLoggingFilter. Décidé avant la création de l'événement, donc sans coût
+ * de formatage pour les autres requêtes ; les niveaux INFO et supérieurs ne sont jamais filtrés
+ */
+public class SampledDebugTurboFilter extends TurboFilter {
+
+    private String loggerPrefix = "com.example.back";
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level == null || level.isGreaterOrEqual(Level.INFO) || !logger.getName().startsWith(loggerPrefix)) {
+            return FilterReply.NEUTRAL;
+        }
+        return MDC.get(RequestLoggingFilter.SAMPLED_KEY) != null ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
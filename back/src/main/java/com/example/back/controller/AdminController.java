@@ -1,10 +1,19 @@
 package com.example.back.controller;
 
 import com.example.back.dto.*;
-import com.example.back.repository.OrderRepository;
-import com.example.back.repository.ProductRepository;
-import com.example.back.repository.UserRepository;
+import com.example.back.model.HistogramMetric;
+import com.example.back.model.RollupGranularity;
+import com.example.back.model.TopProductsWindow;
+import com.example.back.security.AuthRateLimiter;
+import com.example.back.security.VerifiedTokenCache;
+import com.example.back.service.AdminStatsStream;
+import com.example.back.service.LowStockIndex;
+import com.example.back.service.OrderHistogramService;
+import com.example.back.service.OrderEventRelay;
+import com.example.back.service.OrderStatusService;
 import com.example.back.service.ProductService;
+import com.example.back.service.SalesRollupService;
+import com.example.back.service.TopProductsService;
 import com.example.back.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -16,12 +25,17 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Tag(name = "Administration", description = "API d'administration réservée aux utilisateurs avec le rôle ADMIN")
 @RestController
@@ -32,16 +46,28 @@ public class AdminController {
 
     private final ProductService productService;
     private final UserService userService;
-    private final OrderRepository orderRepository;
-    private final UserRepository userRepository;
-    private final ProductRepository productRepository;
+    private final OrderStatusService orderStatusService;
+    private final OrderEventRelay orderEventRelay;
+    private final SalesRollupService salesRollupService;
+    private final AdminStatsStream adminStatsStream;
+    private final TopProductsService topProductsService;
+    private final LowStockIndex lowStockIndex;
+    private final OrderHistogramService orderHistogramService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final AuthRateLimiter authRateLimiter;
 
-    public AdminController(ProductService productService, UserService userService, OrderRepository orderRepository, UserRepository userRepository, ProductRepository productRepository) {
+    public AdminController(ProductService productService, UserService userService, OrderStatusService orderStatusService, OrderEventRelay orderEventRelay, SalesRollupService salesRollupService, AdminStatsStream adminStatsStream, TopProductsService topProductsService, LowStockIndex lowStockIndex, OrderHistogramService orderHistogramService, VerifiedTokenCache verifiedTokenCache, AuthRateLimiter authRateLimiter) {
         this.productService = productService;
         this.userService = userService;
-        this.orderRepository = orderRepository;
-        this.userRepository = userRepository;
-        this.productRepository = productRepository;
+        this.orderStatusService = orderStatusService;
+        this.orderEventRelay = orderEventRelay;
+        this.salesRollupService = salesRollupService;
+        this.adminStatsStream = adminStatsStream;
+        this.topProductsService = topProductsService;
+        this.lowStockIndex = lowStockIndex;
+        this.orderHistogramService = orderHistogramService;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.authRateLimiter = authRateLimiter;
     }
 
     // =======================
@@ -128,16 +154,37 @@ public class AdminController {
     @GetMapping("/stats")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<AdminStatsDTO> getStats() {
-        AdminStatsDTO stats = new AdminStatsDTO();
-        stats.setTotalProducts(productRepository.count());
-        stats.setTotalUsers(userRepository.count());
-        stats.setTotalOrders(orderRepository.count());
-        stats.setTotalRevenue(orderRepository.sumTotalAmount());
-        stats.setRecentOrders(orderRepository.countByOrderDateAfter(LocalDateTime.now().minusDays(7))); // ⬅️ CORRECTION
-        stats.setLowStockProducts(productRepository.countByStockQuantityLessThan(5));
+        return ResponseEntity.ok(productService.getAdminStats());
+    }
 
-        return ResponseEntity.ok(stats);
+    @Operation(
+            summary = "Flux temps réel des statistiques",
+            description = "Flux Server-Sent Events remplaçant le polling de /api/admin/stats. " +
+                    "Un événement 'snapshot' contient les statistiques complètes à la connexion, " +
+                    "puis des événements 'delta' ne contiennent que les champs modifiés, au plus un par intervalle."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Flux ouvert",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Non authentifié",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Accès interdit - Rôle ADMIN requis",
+                    content = @Content
+            )
+    })
+    @GetMapping(value = "/stats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStats() {
+        return adminStatsStream.subscribe();
     }
+
     @PutMapping("/products/{id}")
     public ResponseEntity<ProductResponse> updateProduct(
             @Parameter(description = "ID du produit à modifier", example = "1", required = true)
@@ -188,6 +235,103 @@ public class AdminController {
         return ResponseEntity.ok("Product deleted successfully");
     }
 
+    @Operation(
+            summary = "Lister les produits en stock faible",
+            description = "Produits dont le stock est sous le seuil de leur catégorie (ou le seuil par défaut), " +
+                    "du plus bas stock au plus haut. Lus dans un index en mémoire tenu à jour par les écritures."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Liste paginée des produits en stock faible",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = Page.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Non authentifié",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Accès interdit - Rôle ADMIN requis",
+                    content = @Content
+            )
+    })
+    @GetMapping("/products/low-stock")
+    public ResponseEntity<Page<LowStockProductResponse>> getLowStockProducts(
+            @Parameter(description = "Numéro de page (commence à 0)", example = "0")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Nombre d'éléments par page", example = "10")
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("Invalid page or size");
+        }
+        return ResponseEntity.ok(lowStockIndex.getLowStockProducts(page, size));
+    }
+
+    @Operation(
+            summary = "Flux des passages de seuil de stock (Server-Sent Events)",
+            description = "Un événement 'low-stock' quand un produit passe sous son seuil, " +
+                    "'restocked' quand il repasse au-dessus ou est supprimé."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Flux ouvert",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Non authentifié",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Accès interdit - Rôle ADMIN requis",
+                    content = @Content
+            )
+    })
+    @GetMapping(value = "/products/low-stock/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLowStock() {
+        return lowStockIndex.subscribe();
+    }
+
+    @Operation(
+            summary = "Définir le seuil de stock faible d'une catégorie",
+            description = "Sans paramètre 'threshold', la catégorie revient au seuil par défaut. " +
+                    "Les produits de la catégorie sont réévalués immédiatement."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Seuil appliqué",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Seuil invalide",
+                    content = @Content(mediaType = "text/plain")
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Catégorie non trouvée",
+                    content = @Content(mediaType = "text/plain")
+            )
+    })
+    @PutMapping("/categories/{id}/low-stock-threshold")
+    public ResponseEntity<Integer> updateLowStockThreshold(
+            @Parameter(description = "ID de la catégorie", example = "1", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Nouveau seuil (absent : seuil par défaut)", example = "10")
+            @RequestParam(required = false) Integer threshold
+    ) {
+        return ResponseEntity.ok(productService.updateLowStockThreshold(id, threshold));
+    }
+
     // =======================
     // GESTION DES UTILISATEURS
     // =======================
@@ -275,4 +419,311 @@ public class AdminController {
         UserResponse updatedUser = userService.updateUser(id, request);
         return ResponseEntity.ok(updatedUser);
     }
-}
\ No newline at end of file
+
+    // =======================
+    // GESTION DES COMMANDES
+    // =======================
+
+    @Operation(
+            summary = "Changer le statut d'un ensemble de commandes",
+            description = "Fait avancer des commandes d'un statut au suivant (PENDING → PROCESSING → SHIPPED → DELIVERED), " +
+                    "soit par identifiants (liste non vide), soit par filtre (toutes les commandes au statut précédent passées avant placedBefore, " +
+                    "ou toutes sans limite de date avec all=true). Une requête sans aucun critère est refusée. " +
+                    "Les mises à jour sont ensemblistes, par lots ; les commandes qui ne sont pas au statut précédent sont ignorées."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Transition effectuée, avec le nombre de commandes modifiées et ignorées",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = OrderStatusTransitionResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Statut cible invalide (PENDING ne peut pas être une cible)",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Non authentifié",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Accès interdit - Rôle ADMIN requis",
+                    content = @Content
+            )
+    })
+    @PostMapping("/orders/status-transitions")
+    public ResponseEntity<OrderStatusTransitionResponse> transitionOrders(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Statut cible et commandes concernées (identifiants ou filtre)",
+                    required = true,
+                    content = @Content(schema = @Schema(implementation = OrderStatusTransitionRequest.class))
+            )
+            @Valid @RequestBody OrderStatusTransitionRequest request
+    ) {
+        return ResponseEntity.ok(orderStatusService.transition(request));
+    }
+
+    @Operation(
+            summary = "Flux des changements de commandes (Server-Sent Events)",
+            description = "Pousse un événement 'order' à chaque création de commande ou changement de statut. " +
+                    "L'identifiant de chaque événement peut être renvoyé dans l'en-tête Last-Event-ID " +
+                    "(ou le paramètre lastEventId) pour reprendre le flux sans perte après une déconnexion."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Flux ouvert",
+                    content = @Content(
+                            mediaType = "text/event-stream",
+                            schema = @Schema(implementation = OrderEventResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Non authentifié",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Accès interdit - Rôle ADMIN requis",
+                    content = @Content
+            )
+    })
+    @GetMapping(value = "/orders/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderEvents(
+            @Parameter(description = "Dernier identifiant d'événement reçu", example = "42")
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+            @Parameter(description = "Alternative à l'en-tête Last-Event-ID", example = "42")
+            @RequestParam(value = "lastEventId", required = false) Long lastEventIdParam
+    ) {
+        return orderEventRelay.subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam);
+    }
+
+    // =======================
+    // STATISTIQUES DE VENTES
+    // =======================
+
+    @Operation(
+            summary = "Série temporelle des ventes",
+            description = "Nombre de commandes et chiffre d'affaires par minute, heure ou jour sur l'intervalle [from, to[, " +
+                    "lus dans les agrégats pré-calculés. Les buckets sans vente sont renvoyés à zéro."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Série renvoyée",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = SalesTimeseriesResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Intervalle invalide ou trop de points demandés",
+                    content = @Content(mediaType = "text/plain")
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Non authentifié",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Accès interdit - Rôle ADMIN requis",
+                    content = @Content
+            )
+    })
+    @GetMapping("/stats/timeseries")
+    public ResponseEntity<SalesTimeseriesResponse> getSalesTimeseries(
+            @Parameter(description = "Début de l'intervalle (inclus)", example = "2026-01-01T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Fin de l'intervalle (exclue)", example = "2026-01-02T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Granularité : MINUTE, HOUR ou DAY", example = "HOUR")
+            @RequestParam(defaultValue = "HOUR") RollupGranularity granularity
+    ) {
+        return ResponseEntity.ok(salesRollupService.getTimeseries(from, to, granularity));
+    }
+
+    @Operation(
+            summary = "Reconstruire les agrégats de ventes",
+            description = "Recalcule les agrégats minute / heure / jour depuis les commandes (actives et archivées) " +
+                    "pour les journées complètes de [from, to[. Les journées à partir d'aujourd'hui sont ignorées."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Agrégats reconstruits",
+                    content = @Content(mediaType = "text/plain")
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Intervalle invalide",
+                    content = @Content(mediaType = "text/plain")
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Non authentifié",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Accès interdit - Rôle ADMIN requis",
+                    content = @Content
+            )
+    })
+    @PostMapping("/stats/timeseries/backfill")
+    public ResponseEntity<String> backfillSalesRollups(
+            @Parameter(description = "Premier jour (inclus)", example = "2026-01-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Dernier jour (exclu)", example = "2026-02-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        int buckets = salesRollupService.backfill(from, to);
+        return ResponseEntity.ok("Sales rollups rebuilt: " + buckets + " buckets");
+    }
+
+    @Operation(
+            summary = "Meilleures ventes",
+            description = "Produits les plus vendus sur la dernière heure, le dernier jour ou la dernière semaine. " +
+                    "Les quantités sont estimées en mémoire bornée ; maxOverestimate borne la surestimation de chaque ligne."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Classement renvoyé",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Limite invalide",
+                    content = @Content(mediaType = "text/plain")
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Non authentifié",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Accès interdit - Rôle ADMIN requis",
+                    content = @Content
+            )
+    })
+    @GetMapping("/stats/top-products")
+    public ResponseEntity<List<TopProductResponse>> getTopProducts(
+            @Parameter(description = "Fenêtre : HOUR, DAY ou WEEK", example = "DAY")
+            @RequestParam(defaultValue = "DAY") TopProductsWindow window,
+            @Parameter(description = "Nombre de produits", example = "10")
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(topProductsService.getTopProducts(window, limit));
+    }
+
+    @Operation(
+            summary = "Distribution des commandes",
+            description = "Quantiles (médiane, p95, p99...) du montant des commandes ou du nombre d'articles par commande " +
+                    "sur une période, calculés en fusionnant des histogrammes journaliers. Erreur relative inférieure à 1 %."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Distribution renvoyée",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = OrderDistributionResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Période ou quantiles invalides",
+                    content = @Content(mediaType = "text/plain")
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Non authentifié",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Accès interdit - Rôle ADMIN requis",
+                    content = @Content
+            )
+    })
+    @GetMapping("/stats/order-distribution")
+    public ResponseEntity<OrderDistributionResponse> getOrderDistribution(
+            @Parameter(description = "Premier jour (inclus)", example = "2026-01-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Dernier jour (inclus)", example = "2026-01-31")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Grandeur : ORDER_AMOUNT ou ITEMS_PER_ORDER", example = "ORDER_AMOUNT")
+            @RequestParam(defaultValue = "ORDER_AMOUNT") HistogramMetric metric,
+            @Parameter(description = "Quantiles entre 0 et 1", example = "0.5,0.95,0.99")
+            @RequestParam(defaultValue = "0.5,0.95,0.99") List<Double> quantiles
+    ) {
+        return ResponseEntity.ok(orderHistogramService.getDistribution(metric, from, to, quantiles));
+    }
+
+    @Operation(
+            summary = "Statistiques du cache de tokens",
+            description = "Taille, succès, échecs, évictions et taux de succès du cache des tokens JWT déjà vérifiés."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Statistiques renvoyées",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = TokenCacheStatsResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Non authentifié",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Accès interdit - Rôle ADMIN requis",
+                    content = @Content
+            )
+    })
+    @GetMapping("/security/token-cache")
+    public ResponseEntity<TokenCacheStatsResponse> getTokenCacheStats() {
+        return ResponseEntity.ok(verifiedTokenCache.getStats());
+    }
+
+    @Operation(
+            summary = "Statistiques de limitation des tentatives d'authentification",
+            description = "Tentatives acceptées, refus par adresse IP et par nom d'utilisateur, nombre de clés suivies."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Statistiques renvoyées",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = RateLimitStatsResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Non authentifié",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Accès interdit - Rôle ADMIN requis",
+                    content = @Content
+            )
+    })
+    @GetMapping("/security/rate-limit")
+    public ResponseEntity<RateLimitStatsResponse> getRateLimitStats() {
+        return ResponseEntity.ok(authRateLimiter.getStats());
+    }
+}
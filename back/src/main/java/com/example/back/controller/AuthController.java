@@ -4,7 +4,12 @@ import com.example.back.dto.AuthResponse;
 import com.example.back.dto.LoginRequest;
 import com.example.back.dto.RegisterRequest;
 import com.example.back.exception.InvalidCredentialsException;
+import com.example.back.exception.RateLimitExceededException;
+import com.example.back.exception.ServiceOverloadedException;
 import com.example.back.exception.UserAlreadyExistsException;
+import com.example.back.security.AuthRateLimiter;
+import com.example.back.security.JwtPrincipal;
+import com.example.back.security.TokenRevocationList;
 import com.example.back.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,9 +17,12 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 @Tag(name = "Authentification", description = "API pour l'inscription, la connexion et la gestion de l'authentification JWT")
@@ -23,9 +31,13 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final UserService userService;
+    private final AuthRateLimiter authRateLimiter;
+    private final TokenRevocationList tokenRevocationList;
 
-    public AuthController(UserService userService) {
+    public AuthController(UserService userService, AuthRateLimiter authRateLimiter, TokenRevocationList tokenRevocationList) {
         this.userService = userService;
+        this.authRateLimiter = authRateLimiter;
+        this.tokenRevocationList = tokenRevocationList;
     }
 
     // =======================
@@ -50,6 +62,16 @@ public class AuthController {
                     responseCode = "500",
                     description = "Erreur serveur interne",
                     content = @Content(mediaType = "text/plain")
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Trop de tentatives - réessayer après le délai de l'en-tête Retry-After",
+                    content = @Content(mediaType = "text/plain")
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Service surchargé - réessayer après le délai de l'en-tête Retry-After",
+                    content = @Content(mediaType = "text/plain")
             )
     })
     @PostMapping("/register")
@@ -59,8 +81,10 @@ public class AuthController {
                     required = true,
                     content = @Content(schema = @Schema(implementation = RegisterRequest.class))
             )
-            @Valid @RequestBody RegisterRequest request
+            @Valid @RequestBody RegisterRequest request,
+            HttpServletRequest httpRequest
     ) {
+        authRateLimiter.check(httpRequest.getRemoteAddr(), request.getUsername());
         userService.register(request);
         return ResponseEntity.status(HttpStatus.CREATED).body("User registered successfully");
     }
@@ -90,6 +114,16 @@ public class AuthController {
                     responseCode = "400",
                     description = "Données de connexion invalides",
                     content = @Content(mediaType = "text/plain")
+            ),
+            @ApiResponse(
+                    responseCode = "429",
+                    description = "Trop de tentatives - réessayer après le délai de l'en-tête Retry-After",
+                    content = @Content(mediaType = "text/plain")
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Service surchargé - réessayer après le délai de l'en-tête Retry-After",
+                    content = @Content(mediaType = "text/plain")
             )
     })
     @PostMapping("/login")
@@ -99,12 +133,37 @@ public class AuthController {
                     required = true,
                     content = @Content(schema = @Schema(implementation = LoginRequest.class))
             )
-            @Valid @RequestBody LoginRequest request
+            @Valid @RequestBody LoginRequest request,
+            HttpServletRequest httpRequest
     ) {
+        authRateLimiter.check(httpRequest.getRemoteAddr(), request.getUsername());
         AuthResponse response = userService.authenticate(request);
         return ResponseEntity.ok(response);
     }
 
+    // =======================
+    // Endpoint Déconnexion
+    // =======================
+    @Operation(
+            summary = "Déconnexion",
+            description = "Révoque le token JWT envoyé dans l'en-tête Authorization, sur tous les nœuds. " +
+                    "Sans token valide, la requête est sans effet."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "204",
+                    description = "Token révoqué (ou absent)",
+                    content = @Content
+            )
+    })
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(Authentication authentication) {
+        if (authentication != null && authentication.getPrincipal() instanceof JwtPrincipal principal) {
+            tokenRevocationList.revokeToken(principal);
+        }
+        return ResponseEntity.noContent().build();
+    }
+
     // =======================
     // Gestion des exceptions
     // =======================
@@ -118,6 +177,20 @@ public class AuthController {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ex.getMessage());
     }
 
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<String> handleRateLimited(RateLimitExceededException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<String> handleOverloaded(ServiceOverloadedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<String> handleOtherExceptions(Exception ex) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -0,0 +1,48 @@
+package com.example.back.controller;
+
+import com.example.back.security.JwtKeyService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+@Tag(name = "Clés JWT", description = "Clés publiques de vérification des tokens, pour les services et sidecars")
+@RestController
+public class JwksController {
+
+    // Une nouvelle clé est publiée bien avant que l'ancienne ne disparaisse : un cache court suffit
+    private static final Duration MAX_AGE = Duration.ofMinutes(5);
+
+    private final JwtKeyService jwtKeyService;
+
+    public JwksController(JwtKeyService jwtKeyService) {
+        this.jwtKeyService = jwtKeyService;
+    }
+
+    @Operation(
+            summary = "Clés publiques JWKS",
+            description = "Clés publiques (ES256) acceptées pour vérifier les JWT, identifiées par le kid " +
+                    "de l'en-tête du token. Accessible sans authentification."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Jeu de clés renvoyé (RFC 7517)",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> getJwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(MAX_AGE).cachePublic())
+                .body(jwtKeyService.jwks());
+    }
+}
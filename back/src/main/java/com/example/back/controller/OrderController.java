@@ -2,10 +2,11 @@ package com.example.back.controller;
 
 import com.example.back.dto.OrderRequest;
 import com.example.back.dto.OrderResponse;
-import com.example.back.model.User;
-import com.example.back.repository.UserRepository;
+import com.example.back.dto.OrderSummaryResponse;
+import com.example.back.security.JwtPrincipal;
 import com.example.back.service.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -13,14 +14,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 
+@Slf4j
 @Tag(name = "Commandes", description = "API de gestion des commandes utilisateur (authentification requise)")
 @RestController
 @RequestMapping("/api/orders")
@@ -28,11 +30,9 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
-    private final UserRepository userRepository;
 
-    public OrderController(OrderService orderService, UserRepository userRepository) {
+    public OrderController(OrderService orderService) {
         this.orderService = orderService;
-        this.userRepository = userRepository;
     }
 
     // ========================================
@@ -76,35 +76,18 @@ public class OrderController {
                     required = true,
                     content = @Content(schema = @Schema(implementation = OrderRequest.class))
             )
-            @Valid @RequestBody OrderRequest request
+            @Valid @RequestBody OrderRequest request,
+            @AuthenticationPrincipal JwtPrincipal principal
     ) {
-        System.out.println("=== DEBUT createOrder() ===");
-
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        System.out.println("Authentication: " + auth);
-        System.out.println("Is authenticated: " + (auth != null && auth.isAuthenticated()));
-
-        if (auth == null) {
-            System.err.println("ERREUR: Authentication est null !");
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-        }
-
-        String username = auth.getName();
-        System.out.println("Username: " + username);
-        System.out.println("Authorities: " + auth.getAuthorities());
-
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-
-        System.out.println("User found: " + user.getId() + " - " + user.getUsername());
-
-        request.setUserId(user.getId());
-        System.out.println("OrderRequest items: " + request.getItems().size());
+        request.setUserId(principal.userId());
 
         OrderResponse response = orderService.createOrder(request);
 
-        System.out.println("Order created successfully: " + response);
-        System.out.println("=== FIN createOrder() ===");
+        log.atDebug()
+                .addKeyValue("userId", principal.userId())
+                .addKeyValue("orderId", response.getOrderId())
+                .addKeyValue("items", request.getItems().size())
+                .log("Commande créée");
 
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
@@ -115,8 +98,8 @@ public class OrderController {
     // ========================================
     @Operation(
             summary = "Consulter mes commandes",
-            description = "Récupère l'historique complet des commandes de l'utilisateur authentifié, " +
-                    "incluant les détails des produits, quantités, prix et statuts."
+            description = "Récupère l'historique des commandes de l'utilisateur authentifié sous forme de résumés " +
+                    "(date, statut, total, nombre d'articles). Le détail des produits est disponible via GET /api/orders/{id}."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -124,7 +107,7 @@ public class OrderController {
                     description = "Liste des commandes récupérée avec succès",
                     content = @Content(
                             mediaType = "application/json",
-                            schema = @Schema(implementation = OrderResponse.class)
+                            schema = @Schema(implementation = OrderSummaryResponse.class)
                     )
             ),
             @ApiResponse(
@@ -139,30 +122,51 @@ public class OrderController {
             )
     })
     @GetMapping("/my-orders")
-    public ResponseEntity<List<OrderResponse>> getMyOrders() {
-        System.out.println("=== DEBUT getMyOrders() ===");
-
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        System.out.println("Authentication: " + auth);
-
-        if (auth == null) {
-            System.err.println("ERREUR: Authentication est null !");
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-        }
-
-        String username = auth.getName();
-        System.out.println("Username: " + username);
+    public ResponseEntity<List<OrderSummaryResponse>> getMyOrders(@AuthenticationPrincipal JwtPrincipal principal) {
+        List<OrderSummaryResponse> orders = orderService.getOrdersByUser(principal.userId());
 
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-
-        System.out.println("User found: " + user.getId() + " - " + user.getUsername());
-
-        List<OrderResponse> orders = orderService.getOrdersByUser(user.getId());
-
-        System.out.println("Orders found: " + orders.size());
-        System.out.println("=== FIN getMyOrders() ===");
+        log.atDebug()
+                .addKeyValue("userId", principal.userId())
+                .addKeyValue("orders", orders.size())
+                .log("Commandes consultées");
 
         return ResponseEntity.ok(orders);
     }
+
+    // ========================================
+    // GET /api/orders/{id}
+    // Récupérer le détail d'une commande de l'utilisateur connecté
+    // ========================================
+    @Operation(
+            summary = "Consulter le détail d'une commande",
+            description = "Récupère une commande de l'utilisateur authentifié avec ses produits, quantités et prix unitaires."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Commande récupérée avec succès",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = OrderResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Non authentifié - Token JWT manquant ou invalide",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Commande non trouvée pour cet utilisateur",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<OrderResponse> getOrder(
+            @Parameter(description = "ID de la commande", example = "1", required = true)
+            @PathVariable Long id,
+            @AuthenticationPrincipal JwtPrincipal principal
+    ) {
+        return ResponseEntity.ok(orderService.getOrderById(id, principal.userId()));
+    }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.example.back.controller;
 
 import com.example.back.dto.ProductResponse;
 import com.example.back.exception.ProductNotFoundException;
+import com.example.back.model.TopProductsWindow;
 import com.example.back.service.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -98,6 +99,37 @@ public class ProductController {
         return ResponseEntity.ok(product);
     }
 
+    // =======================
+    // GET /api/products/top-sellers
+    // Meilleures ventes récentes
+    // =======================
+    @Operation(
+            summary = "Meilleures ventes",
+            description = "Produits les plus vendus sur la dernière heure, le dernier jour ou la dernière semaine, " +
+                    "du plus vendu au moins vendu. Classement approximatif calculé en mémoire."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Classement récupéré avec succès",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Limite invalide",
+                    content = @Content(mediaType = "text/plain")
+            )
+    })
+    @GetMapping("/top-sellers")
+    public ResponseEntity<List<ProductResponse>> getTopSellers(
+            @Parameter(description = "Fenêtre : HOUR, DAY ou WEEK", example = "DAY")
+            @RequestParam(defaultValue = "DAY") TopProductsWindow window,
+            @Parameter(description = "Nombre de produits", example = "10")
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(productService.getTopSellers(window, limit));
+    }
+
     // =======================
     // GET /api/products/categories
     // Liste toutes les catégories
@@ -127,6 +159,11 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
     }
 
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<String> handleOtherExceptions(Exception ex) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -0,0 +1,127 @@
+package com.example.back.controller;
+
+import com.example.back.dto.CategoryWeekRevenueResponse;
+import com.example.back.dto.CohortResponse;
+import com.example.back.model.OrderStatus;
+import com.example.back.service.OrderAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Tag(name = "Rapports", description = "Rapports de ventes ad hoc calculés en mémoire, sans requête sur la base")
+@RestController
+@RequestMapping("/api/admin/reports")
+@PreAuthorize("hasRole('ADMIN')")
+@SecurityRequirement(name = "bearerAuth")
+public class ReportController {
+
+    private final OrderAnalyticsService orderAnalyticsService;
+
+    public ReportController(OrderAnalyticsService orderAnalyticsService) {
+        this.orderAnalyticsService = orderAnalyticsService;
+    }
+
+    @Operation(
+            summary = "Chiffre d'affaires par catégorie et par semaine",
+            description = "Chiffre d'affaires et unités vendues par catégorie, par semaine (commençant le lundi), " +
+                    "entre deux jours inclus. Un statut optionnel restreint le calcul aux commandes dans ce statut."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Rapport renvoyé",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = CategoryWeekRevenueResponse.class))
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Période invalide",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Non authentifié",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Accès interdit - Rôle ADMIN requis",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Données en cours de chargement",
+                    content = @Content(mediaType = "text/plain")
+            )
+    })
+    @GetMapping("/revenue-by-category")
+    public ResponseEntity<List<CategoryWeekRevenueResponse>> getRevenueByCategory(
+            @Parameter(description = "Premier jour (inclus)", example = "2026-01-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Dernier jour (inclus)", example = "2026-03-31")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Statut des commandes retenues (toutes par défaut)", example = "DELIVERED")
+            @RequestParam(required = false) OrderStatus status
+    ) {
+        return ResponseEntity.ok(orderAnalyticsService.revenueByCategory(from, to, status));
+    }
+
+    @Operation(
+            summary = "Cohortes de clients",
+            description = "Clients regroupés par mois de première commande : nombre de clients, de commandes, " +
+                    "de clients ayant recommandé et de commandes répétées, chiffre d'affaires."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Cohortes renvoyées",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = CohortResponse.class))
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Non authentifié",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Accès interdit - Rôle ADMIN requis",
+                    content = @Content
+            ),
+            @ApiResponse(
+                    responseCode = "503",
+                    description = "Données en cours de chargement",
+                    content = @Content(mediaType = "text/plain")
+            )
+    })
+    @GetMapping("/cohorts")
+    public ResponseEntity<List<CohortResponse>> getCohorts() {
+        return ResponseEntity.ok(orderAnalyticsService.cohorts());
+    }
+
+    // =======================
+    // Gestion des exceptions
+    // =======================
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<String> handleNotReady(IllegalStateException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ex.getMessage());
+    }
+}
@@ -4,10 +4,12 @@ import com.example.back.dto.UpdateOwnProfileRequest;
 import com.example.back.dto.UserProfileResponse;
 import com.example.back.model.User;
 import com.example.back.repository.UserRepository;
+import com.example.back.security.AuthenticatedUser;
+import com.example.back.security.AuthenticatedUserCache;
+import io.swagger.v3.oas.annotations.Parameter;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,24 +20,20 @@ public class UserController {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AuthenticatedUserCache authenticatedUserCache;
 
     /**
      * GET /api/users/me - Récupérer le profil de l'utilisateur connecté
      */
     @GetMapping("/me")
-    public ResponseEntity<UserProfileResponse> getCurrentUser(Authentication authentication) {
-        String username = authentication.getName();
-
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
-
+    public ResponseEntity<UserProfileResponse> getCurrentUser(@Parameter(hidden = true) AuthenticatedUser user) {
         UserProfileResponse response = UserProfileResponse.builder()
-                .id(user.getId())
-                .username(user.getUsername())
-                .email(user.getEmail())
-                .roles(user.getRoles())
-                .enabled(user.isEnabled())
-                .createdAt(user.getCreatedAt())
+                .id(user.id())
+                .username(user.username())
+                .email(user.email())
+                .roles(user.roles())
+                .enabled(user.enabled())
+                .createdAt(user.createdAt())
                 .build();
 
         return ResponseEntity.ok(response);
@@ -47,11 +45,9 @@ public class UserController {
     @PutMapping("/me")
     public ResponseEntity<UserProfileResponse> updateCurrentUser(
             @Valid @RequestBody UpdateOwnProfileRequest request,
-            Authentication authentication) {
+            @Parameter(hidden = true) AuthenticatedUser currentUser) {
 
-        String currentUsername = authentication.getName();
-
-        User user = userRepository.findByUsername(currentUsername)
+        User user = userRepository.findById(currentUser.id())
                 .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
 
         // Vérifier si le nouveau username existe déjà (sauf si c'est le même)
@@ -68,11 +64,15 @@ public class UserController {
             }
         }
 
-        // Mettre à jour les informations
+        // Mettre à jour les informations ; un nouveau nom invalide les tokens émis pour l'ancien
+        if (!user.getUsername().equals(request.getUsername())) {
+            user.setAccountVersion(user.getAccountVersion() + 1);
+        }
         user.setUsername(request.getUsername());
         user.setEmail(request.getEmail());
 
         User updatedUser = userRepository.save(user);
+        authenticatedUserCache.evict(currentUser.username());
 
         UserProfileResponse response = UserProfileResponse.builder()
                 .id(updatedUser.getId())
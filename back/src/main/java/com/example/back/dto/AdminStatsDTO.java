@@ -5,6 +5,10 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -16,4 +20,13 @@ public class AdminStatsDTO {
     private Double totalRevenue;
     private Long recentOrders;
     private Long lowStockProducts;
+    // Acheteurs distincts estimés (HyperLogLog) : aujourd'hui et 7 derniers jours
+    private Long distinctBuyersToday;
+    private Long distinctBuyersLast7Days;
+    // Erreur relative type de ces estimations (≈ 0,016, soit ±1,6 % pour un écart-type)
+    private Double distinctBuyersRelativeError;
+    // Fraîcheur : dernière vérification en base de chaque compteur, et compteurs dont la dernière
+    // vérification a échoué ou dépassé l'échéance (valeur incrémentale, éventuellement dérivée)
+    private Map<String, LocalDateTime> reconciledAt;
+    private List<String> staleFields;
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.example.back.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+public class CategoryWeekRevenueResponse {
+    private Long categoryId;
+    private String categoryName;
+    // Lundi de la semaine
+    private LocalDate weekStart;
+    private double revenue;
+    private long units;
+}
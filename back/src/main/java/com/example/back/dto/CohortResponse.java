@@ -0,0 +1,17 @@
+package com.example.back.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class CohortResponse {
+    // Mois de la première commande (yyyy-MM)
+    private String cohortMonth;
+    private long customers;
+    private long orders;
+    // Clients ayant recommandé, et commandes après la première
+    private long repeatCustomers;
+    private long repeatOrders;
+    private double revenue;
+}
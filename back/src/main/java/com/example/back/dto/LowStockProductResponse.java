@@ -0,0 +1,14 @@
+package com.example.back.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class LowStockProductResponse {
+    private Long productId;
+    private String productName;
+    private String categoryName;
+    private int stockQuantity;
+    private int threshold;
+}
@@ -0,0 +1,21 @@
+package com.example.back.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@Builder
+public class OrderDistributionResponse {
+    private String metric;
+    private LocalDate from;
+    private LocalDate to;
+    private long count;
+    private double min;
+    private double max;
+    private double mean;
+    // Quantile demandé -> valeur (erreur relative < 1 %)
+    private Map<String, Double> quantiles;
+}
@@ -0,0 +1,18 @@
+package com.example.back.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class OrderEventResponse {
+    private Long id;
+    private Long orderId;
+    private Long userId;
+    private String type;
+    private String status;
+    private double totalAmount;
+    private LocalDateTime occurredAt;
+}
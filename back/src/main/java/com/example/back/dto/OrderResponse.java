@@ -14,6 +14,8 @@ public class OrderResponse {
     private LocalDateTime orderDate;
     private double totalAmount;
     private String status;
+    private int itemCount;
+    private int distinctProductCount;
     private List<OrderItemResponse> items;
 
     @Data
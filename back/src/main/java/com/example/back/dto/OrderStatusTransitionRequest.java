@@ -0,0 +1,27 @@
+package com.example.back.dto;
+
+import com.example.back.model.OrderStatus;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Transition de statut d'un ensemble de commandes
+ * Soit par identifiants (orderIds, non vide), soit par filtre : toutes les commandes au statut
+ * précédant targetStatus et passées avant placedBefore. Sans placedBefore, le filtre doit être
+ * demandé explicitement avec all = true (toutes les commandes au statut précédent)
+ */
+@Data
+public class OrderStatusTransitionRequest {
+
+    @NotNull(message = "Target status is required")
+    private OrderStatus targetStatus;
+
+    private List<Long> orderIds;
+
+    private LocalDateTime placedBefore;
+
+    private boolean all;
+}
@@ -0,0 +1,19 @@
+package com.example.back.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class OrderStatusTransitionResponse {
+    private String fromStatus;
+    private String targetStatus;
+    private long matched;
+    private long updated;
+    private long skipped;
+    private int chunks;
+    private LocalDateTime transitionedAt;
+    private long durationMs;
+}
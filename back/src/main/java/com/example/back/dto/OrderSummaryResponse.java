@@ -0,0 +1,17 @@
+package com.example.back.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class OrderSummaryResponse {
+    private Long orderId;
+    private LocalDateTime orderDate;
+    private double totalAmount;
+    private String status;
+    private int itemCount;
+    private int distinctProductCount;
+}
@@ -0,0 +1,14 @@
+package com.example.back.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class RateLimitStatsResponse {
+    private long allowed;
+    private long rejectedByIp;
+    private long rejectedByUsername;
+    private int trackedIps;
+    private int trackedUsernames;
+}
@@ -0,0 +1,24 @@
+package com.example.back.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+public class SalesTimeseriesResponse {
+    private String granularity;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<Point> points;
+
+    @Data
+    @Builder
+    public static class Point {
+        private LocalDateTime bucketStart;
+        private long orderCount;
+        private double revenue;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.back.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class TokenCacheStatsResponse {
+    private int size;
+    private int maxEntries;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private double hitRatio;
+}
@@ -0,0 +1,14 @@
+package com.example.back.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class TopProductResponse {
+    private Long productId;
+    private String productName;
+    // Quantité vendue estimée (sketch) ; la surestimation est au plus maxOverestimate
+    private long unitsSold;
+    private long maxOverestimate;
+}
@@ -1,6 +1,7 @@
 package com.example.back.exception;
 
 import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -20,6 +21,7 @@ import java.util.Map;
  * Gestionnaire global des exceptions pour l'API REST
  * Fournit des réponses d'erreur cohérentes et informatives
  */
+@Slf4j
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
@@ -183,6 +185,25 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
     }
 
+    /**
+     * Gestion de OrderNotFoundException (custom)
+     * Retourne 404 Not Found
+     */
+    @ExceptionHandler(OrderNotFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleOrderNotFound(
+            OrderNotFoundException ex,
+            HttpServletRequest request) {
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("timestamp", LocalDateTime.now());
+        response.put("status", HttpStatus.NOT_FOUND.value());
+        response.put("error", "Order Not Found");
+        response.put("message", ex.getMessage());
+        response.put("path", request.getRequestURI());
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+    }
+
     /**
      * Gestion de UserAlreadyExistsException (custom)
      * Retourne 409 Conflict
@@ -237,9 +258,7 @@ public class GlobalExceptionHandler {
         response.put("message", "Une erreur inattendue s'est produite.");
         response.put("path", request.getRequestURI());
 
-        // Log l'erreur pour le debug (en production, utilise un logger)
-        System.err.println("Erreur non gérée : " + ex.getClass().getName());
-        ex.printStackTrace();
+        log.atError().addKeyValue("path", request.getRequestURI()).setCause(ex).log("Erreur non gérée");
 
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
     }
@@ -0,0 +1,18 @@
+package com.example.back.exception;
+
+/**
+ * Trop de tentatives pour ce client ou ce compte : à réessayer après retryAfterSeconds
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.back.exception;
+
+/**
+ * Travail refusé faute de capacité : à réessayer après retryAfterSeconds
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.back.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Commande clôturée déplacée hors de la table chaude orders par l'archivage.
+ * Même colonnes que Order (plus la date d'archivage), sans clé étrangère vers users.
+ */
+@Entity
+@Table(name = "orders_archive", indexes = {
+        @Index(name = "idx_orders_archive_user", columnList = "user_id"),
+        @Index(name = "idx_orders_archive_date", columnList = "orderDate")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedOrder {
+
+    @Id
+    private Long id;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    private LocalDateTime orderDate;
+
+    private double totalAmount;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    private LocalDateTime statusChangedAt;
+
+    @Column(nullable = false)
+    private int itemCount;
+
+    @Column(nullable = false)
+    private int distinctProductCount;
+
+    private LocalDateTime archivedAt;
+
+    @ElementCollection
+    @CollectionTable(name = "order_items_archive", joinColumns = @JoinColumn(name = "order_id"))
+    private List<OrderItem> items;
+}
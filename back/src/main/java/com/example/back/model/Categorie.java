@@ -21,6 +21,9 @@ public class Categorie {
     @Column(nullable = false, unique = true)
     private String name;
 
+    // Seuil de stock faible propre à la catégorie (null : seuil par défaut)
+    private Integer lowStockThreshold;
+
     @OneToMany(mappedBy = "category")
     private Set<Product> products;
 }
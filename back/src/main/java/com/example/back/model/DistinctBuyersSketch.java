@@ -0,0 +1,27 @@
+package com.example.back.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Registres HyperLogLog des acheteurs distincts d'une journée (4 Ko par jour)
+ */
+@Entity
+@Table(name = "distinct_buyer_sketches")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DistinctBuyersSketch {
+
+    @Id
+    private LocalDate day;
+
+    @Column(nullable = false, length = 4096)
+    private byte[] registers;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,24 @@
+package com.example.back.model;
+
+/**
+ * Grandeurs suivies par les histogrammes journaliers des commandes
+ * Les montants sont enregistrés en centimes (valeurs entières)
+ */
+public enum HistogramMetric {
+    ORDER_AMOUNT(100),
+    ITEMS_PER_ORDER(1);
+
+    private final int scale;
+
+    HistogramMetric(int scale) {
+        this.scale = scale;
+    }
+
+    public long toRecorded(double value) {
+        return Math.round(value * scale);
+    }
+
+    public double fromRecorded(long value) {
+        return (double) value / scale;
+    }
+}
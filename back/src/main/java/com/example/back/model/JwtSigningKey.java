@@ -0,0 +1,39 @@
+package com.example.back.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Clé publique de signature des JWT, publiée par le nœud qui détient la clé privée (jamais stockée)
+ * Les vérificateurs la retrouvent par son kid jusqu'à expiresAt (fin de rotation + durée de vie d'un token)
+ */
+@Entity
+@Table(name = "jwt_signing_keys", indexes = {
+        @Index(name = "idx_jwt_signing_keys_expires", columnList = "expiresAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JwtSigningKey {
+
+    // Empreinte RFC 7638 de la clé publique
+    @Id
+    @Column(length = 64)
+    private String kid;
+
+    @Column(nullable = false, length = 10)
+    private String algorithm;
+
+    // Clé publique encodée X.509 (SubjectPublicKeyInfo)
+    @Column(nullable = false, length = 512)
+    private byte[] publicKey;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
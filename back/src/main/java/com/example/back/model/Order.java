@@ -7,7 +7,11 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_date", columnList = "orderDate"),
+        @Index(name = "idx_orders_status_date", columnList = "status, orderDate"),
+        @Index(name = "idx_orders_claim_token", columnList = "claimToken")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -30,6 +34,21 @@ public class Order {
     @Enumerated(EnumType.STRING)
     private OrderStatus status = OrderStatus.PENDING;
 
+    // Date du dernier changement de statut (null tant que la commande est PENDING)
+    private LocalDateTime statusChangedAt;
+
+    // Bail de traitement : jeton du lot qui a réservé la commande et date d'expiration
+    private String claimToken;
+
+    private LocalDateTime claimExpiresAt;
+
+    // Colonnes de résumé calculées à la création : les listes n'ont pas besoin de charger les items
+    @Column(nullable = false)
+    private int itemCount;
+
+    @Column(nullable = false)
+    private int distinctProductCount;
+
     // Option simple : liste de produits + quantité
     @ElementCollection
     @CollectionTable(name = "order_items", joinColumns = @JoinColumn(name = "order_id"))
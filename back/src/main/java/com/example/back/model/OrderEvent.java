@@ -0,0 +1,41 @@
+package com.example.back.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Événement de la table outbox : écrit dans la même transaction que le changement de commande,
+ * puis diffusé par le relais. L'id auto-incrémenté sert d'identifiant SSE (Last-Event-ID)
+ */
+@Entity
+@Table(name = "order_outbox", indexes = {
+        @Index(name = "idx_order_outbox_occurred", columnList = "occurredAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderEventType type;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    private double totalAmount;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+}
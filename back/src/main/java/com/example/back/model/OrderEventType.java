@@ -0,0 +1,6 @@
+package com.example.back.model;
+
+public enum OrderEventType {
+    ORDER_CREATED,
+    STATUS_CHANGED
+}
@@ -0,0 +1,38 @@
+package com.example.back.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Histogramme sérialisé d'une grandeur des commandes d'une journée (quelques centaines d'octets)
+ */
+@Entity
+@Table(name = "order_histograms", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_order_histograms_day_metric", columnNames = {"day", "metric"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderHistogram {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private HistogramMetric metric;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] data;
+
+    private LocalDateTime updatedAt;
+}
@@ -4,5 +4,13 @@ public enum OrderStatus {
     PENDING,
     PROCESSING,
     SHIPPED,
-    DELIVERED
+    DELIVERED;
+
+    /**
+     * Seul statut depuis lequel on peut passer à celui-ci (cycle de vie linéaire)
+     * Retourne null pour PENDING, qui est le statut initial
+     */
+    public OrderStatus previous() {
+        return ordinal() == 0 ? null : values()[ordinal() - 1];
+    }
 }
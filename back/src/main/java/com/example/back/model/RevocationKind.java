@@ -0,0 +1,8 @@
+package com.example.back.model;
+
+public enum RevocationKind {
+    // Un token précis (claim jti)
+    TOKEN,
+    // Tous les tokens d'un utilisateur émis avant la révocation
+    SUBJECT
+}
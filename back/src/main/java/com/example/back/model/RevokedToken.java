@@ -0,0 +1,39 @@
+package com.example.back.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Révocation de token(s) : l'id auto-incrémenté sert de version, chaque nœud lit les lignes plus récentes
+ * Une ligne peut être supprimée après expiresAt (plus aucun token concerné n'est encore valide)
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_expires", columnList = "expiresAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevokedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private RevocationKind kind;
+
+    // jti du token, ou nom d'utilisateur
+    @Column(nullable = false)
+    private String target;
+
+    @Column(nullable = false)
+    private LocalDateTime revokedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
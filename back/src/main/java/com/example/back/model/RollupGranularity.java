@@ -0,0 +1,43 @@
+package com.example.back.model;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+public enum RollupGranularity {
+    MINUTE(ChronoUnit.MINUTES, "%Y-%m-%d %H:%i:00"),
+    HOUR(ChronoUnit.HOURS, "%Y-%m-%d %H:00:00"),
+    DAY(ChronoUnit.DAYS, "%Y-%m-%d 00:00:00");
+
+    private final ChronoUnit unit;
+    private final String sqlFormat;
+
+    RollupGranularity(ChronoUnit unit, String sqlFormat) {
+        this.unit = unit;
+        this.sqlFormat = sqlFormat;
+    }
+
+    /**
+     * Début du bucket contenant cette date
+     */
+    public LocalDateTime truncate(LocalDateTime dateTime) {
+        return dateTime.truncatedTo(unit);
+    }
+
+    public LocalDateTime next(LocalDateTime bucketStart) {
+        return bucketStart.plus(1, unit);
+    }
+
+    /**
+     * Nombre de buckets entre deux débuts de bucket alignés
+     */
+    public long bucketsBetween(LocalDateTime from, LocalDateTime to) {
+        return unit.between(from, to);
+    }
+
+    /**
+     * Format MySQL DATE_FORMAT équivalent à truncate (reconstruction depuis les commandes)
+     */
+    public String sqlFormat() {
+        return sqlFormat;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.back.model;
+
+import java.time.Duration;
+
+/**
+ * Fenêtres glissantes du classement des meilleures ventes, découpées en tranches
+ */
+public enum TopProductsWindow {
+    HOUR(Duration.ofMinutes(5), 12),
+    DAY(Duration.ofHours(1), 24),
+    WEEK(Duration.ofHours(6), 28);
+
+    private final Duration bucket;
+    private final int buckets;
+
+    TopProductsWindow(Duration bucket, int buckets) {
+        this.bucket = bucket;
+        this.buckets = buckets;
+    }
+
+    public Duration bucket() {
+        return bucket;
+    }
+
+    public int buckets() {
+        return buckets;
+    }
+}
@@ -42,6 +42,10 @@ public class User {
     @Column(nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    // Incrémentée quand les tokens déjà émis ne doivent plus être acceptés (désactivation, rôles, nom modifiés)
+    @Column(nullable = false)
+    private long accountVersion;
+
     @OneToMany(mappedBy = "user")
     private Set<Order> orders;
 }
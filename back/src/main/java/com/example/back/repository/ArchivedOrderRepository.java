@@ -0,0 +1,58 @@
+package com.example.back.repository;
+
+import com.example.back.model.ArchivedOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    // Résumés des commandes archivées d'un utilisateur
+    List<OrderSummaryView> findByUserIdOrderByOrderDateDesc(Long userId);
+
+    // Détail d'une commande archivée appartenant à un utilisateur
+    Optional<ArchivedOrder> findByIdAndUserId(Long id, Long userId);
+
+    // Revenu total des commandes archivées
+    @Query("SELECT COALESCE(SUM(o.totalAmount), 0) FROM ArchivedOrder o")
+    Double sumTotalAmount();
+
+    // Couples (jour, acheteur) distincts des commandes archivées depuis une date
+    @Query(value = "SELECT DISTINCT DATE(order_date) AS day, user_id FROM orders_archive WHERE order_date >= :from",
+            nativeQuery = true)
+    List<Object[]> findBuyerDaysSince(@Param("from") LocalDateTime from);
+
+    // Montant et nombre d'articles des commandes archivées, par lots d'identifiants croissants
+    @Query(value = "SELECT id, DATE(order_date), total_amount, item_count FROM orders_archive " +
+            "WHERE id > :afterId ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Object[]> findOrderValuesAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    @Query("SELECT COALESCE(MAX(o.id), 0) FROM ArchivedOrder o")
+    long findMaxId();
+
+    // Lignes des commandes archivées d'une tranche d'identifiants ]afterId, upToId]
+    @Query(value = "SELECT o.id, o.user_id, o.order_date, o.status, o.total_amount, oi.product_id, oi.quantity, oi.unit_price " +
+            "FROM orders_archive o LEFT JOIN order_items_archive oi ON oi.order_id = o.id " +
+            "WHERE o.id > :afterId AND o.id <= :upToId ORDER BY o.id", nativeQuery = true)
+    List<Object[]> findOrderLinesInRange(@Param("afterId") long afterId, @Param("upToId") long upToId);
+
+    // Copier un lot de commandes de la table chaude vers l'archive
+    @Modifying
+    @Query(value = "INSERT INTO orders_archive " +
+            "(id, user_id, order_date, total_amount, status, status_changed_at, item_count, distinct_product_count, archived_at) " +
+            "SELECT id, user_id, order_date, total_amount, status, status_changed_at, item_count, distinct_product_count, NOW() " +
+            "FROM orders WHERE id IN (:ids)", nativeQuery = true)
+    int copyOrders(@Param("ids") List<Long> ids);
+
+    // Copier les items du même lot
+    @Modifying
+    @Query(value = "INSERT INTO order_items_archive (order_id, product_id, product_name, quantity, unit_price) " +
+            "SELECT order_id, product_id, product_name, quantity, unit_price " +
+            "FROM order_items WHERE order_id IN (:ids)", nativeQuery = true)
+    int copyOrderItems(@Param("ids") List<Long> ids);
+}
@@ -0,0 +1,15 @@
+package com.example.back.repository;
+
+import com.example.back.model.DataMigration;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface DataMigrationRepository extends JpaRepository<DataMigration, String> {
+
+    // Marquer une migration comme appliquée (sans erreur si un autre nœud l'a marquée en même temps)
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO data_migrations (name, applied_at) VALUES (:name, NOW())", nativeQuery = true)
+    int markApplied(@Param("name") String name);
+}
@@ -0,0 +1,20 @@
+package com.example.back.repository;
+
+import com.example.back.model.DistinctBuyersSketch;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface DistinctBuyersSketchRepository extends JpaRepository<DistinctBuyersSketch, LocalDate> {
+
+    // Sketches journaliers d'un intervalle (bornes incluses)
+    List<DistinctBuyersSketch> findByDayBetween(LocalDate from, LocalDate to);
+
+    // Ligne verrouillée pour y fusionner les registres locaux (plusieurs nœuds peuvent écrire le même jour)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<DistinctBuyersSketch> findByDay(LocalDate day);
+}
@@ -0,0 +1,25 @@
+package com.example.back.repository;
+
+import com.example.back.model.JwtSigningKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface JwtSigningKeyRepository extends JpaRepository<JwtSigningKey, String> {
+
+    // Clés encore utiles à la vérification
+    List<JwtSigningKey> findByExpiresAtAfter(LocalDateTime now);
+
+    // Fin de validité d'une clé retirée de la signature
+    @Modifying
+    @Query("UPDATE JwtSigningKey k SET k.expiresAt = :expiresAt WHERE k.kid = :kid")
+    int updateExpiresAt(@Param("kid") String kid, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("DELETE FROM JwtSigningKey k WHERE k.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,38 @@
+package com.example.back.repository;
+
+import com.example.back.model.OrderEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OrderEventRepository extends JpaRepository<OrderEvent, Long> {
+
+    // Dernier événement écrit (point de départ du relais)
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM OrderEvent e")
+    long findMaxId();
+
+    // Événements suivant un identifiant (lecture de la queue de l'outbox)
+    List<OrderEvent> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // Événements d'un intervalle (reprise d'un abonné après Last-Event-ID)
+    List<OrderEvent> findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(Long from, Long to, Pageable pageable);
+
+    // Écrire un événement STATUS_CHANGED pour chaque commande effectivement modifiée par un UPDATE en masse
+    @Modifying
+    @Query(value = "INSERT INTO order_outbox (order_id, user_id, type, status, total_amount, occurred_at) " +
+            "SELECT id, user_id, 'STATUS_CHANGED', status, total_amount, status_changed_at FROM orders " +
+            "WHERE id IN (:ids) AND status = :status AND status_changed_at = :changedAt", nativeQuery = true)
+    int appendStatusChanges(@Param("ids") List<Long> ids,
+                            @Param("status") String status,
+                            @Param("changedAt") LocalDateTime changedAt);
+
+    // Purger les événements anciens
+    @Modifying
+    @Query("DELETE FROM OrderEvent e WHERE e.occurredAt < :before")
+    int deleteByOccurredAtBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,24 @@
+package com.example.back.repository;
+
+import com.example.back.model.HistogramMetric;
+import com.example.back.model.OrderHistogram;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface OrderHistogramRepository extends JpaRepository<OrderHistogram, Long> {
+
+    // Histogrammes d'une grandeur sur un intervalle de jours (bornes incluses)
+    List<OrderHistogram> findByMetricAndDayBetween(HistogramMetric metric, LocalDate from, LocalDate to);
+
+    // Histogrammes de tous les jours récents (chargement au démarrage)
+    List<OrderHistogram> findByDayGreaterThanEqual(LocalDate from);
+
+    // Ligne verrouillée pour y ajouter un delta (plusieurs nœuds peuvent écrire le même jour)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<OrderHistogram> findByDayAndMetric(LocalDate day, HistogramMetric metric);
+}
@@ -1,20 +1,136 @@
 package com.example.back.repository;
 
 import com.example.back.model.Order;
+import com.example.back.model.OrderStatus;
 import com.example.back.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByUser(User user);
 
+    // Résumés des commandes d'un utilisateur (sans charger les items)
+    List<OrderSummaryView> findByUserIdOrderByOrderDateDesc(Long userId);
+
+    // Détail d'une commande appartenant à un utilisateur
+    Optional<Order> findByIdAndUserId(Long id, Long userId);
+
     // Compter les commandes après une certaine date
     long countByOrderDateAfter(LocalDateTime date);
 
+    // Nombre de commandes par jour depuis une date (réconciliation des compteurs journaliers)
+    @Query(value = "SELECT DATE(order_date) AS day, COUNT(*) AS total FROM orders " +
+            "WHERE order_date >= :from GROUP BY DATE(order_date)", nativeQuery = true)
+    List<Object[]> countByDaySince(@Param("from") LocalDateTime from);
+
+    // Quantités vendues par produit et par heure depuis une date (amorçage du classement des ventes)
+    @Query(value = "SELECT oi.product_id, DATE_FORMAT(o.order_date, '%Y-%m-%d %H:00:00') AS hour, SUM(oi.quantity) " +
+            "FROM order_items oi JOIN orders o ON o.id = oi.order_id " +
+            "WHERE o.order_date >= :from GROUP BY oi.product_id, hour", nativeQuery = true)
+    List<Object[]> sumQuantityByProductAndHourSince(@Param("from") LocalDateTime from);
+
+    // Couples (jour, acheteur) distincts depuis une date (reconstruction des sketches d'acheteurs)
+    @Query(value = "SELECT DISTINCT DATE(order_date) AS day, user_id FROM orders WHERE order_date >= :from",
+            nativeQuery = true)
+    List<Object[]> findBuyerDaysSince(@Param("from") LocalDateTime from);
+
+    // Montant et nombre d'articles des commandes, par lots d'identifiants croissants (construction des histogrammes)
+    @Query(value = "SELECT id, DATE(order_date), total_amount, item_count FROM orders " +
+            "WHERE id > :afterId ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Object[]> findOrderValuesAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    // Idem sur un intervalle de dates (réparation des histogrammes d'un jour récent)
+    @Query(value = "SELECT id, DATE(order_date), total_amount, item_count FROM orders " +
+            "WHERE order_date >= :from AND order_date < :to AND id > :afterId ORDER BY id LIMIT :limit",
+            nativeQuery = true)
+    List<Object[]> findOrderValuesBetween(@Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to,
+                                         @Param("afterId") long afterId,
+                                         @Param("limit") int limit);
+
+    // Plus grand identifiant de commande (chargement de l'analytique par tranches d'identifiants)
+    @Query("SELECT COALESCE(MAX(o.id), 0) FROM Order o")
+    long findMaxId();
+
+    // Lignes des commandes d'une tranche d'identifiants ]afterId, upToId], triées par commande
+    @Query(value = "SELECT o.id, o.user_id, o.order_date, o.status, o.total_amount, oi.product_id, oi.quantity, oi.unit_price " +
+            "FROM orders o LEFT JOIN order_items oi ON oi.order_id = o.id " +
+            "WHERE o.id > :afterId AND o.id <= :upToId ORDER BY o.id", nativeQuery = true)
+    List<Object[]> findOrderLinesInRange(@Param("afterId") long afterId, @Param("upToId") long upToId);
+
+    // Lignes de commandes données (commandes créées, reçues par le flux de l'outbox)
+    @Query(value = "SELECT o.id, o.user_id, o.order_date, o.status, o.total_amount, oi.product_id, oi.quantity, oi.unit_price " +
+            "FROM orders o LEFT JOIN order_items oi ON oi.order_id = o.id " +
+            "WHERE o.id IN (:ids) ORDER BY o.id", nativeQuery = true)
+    List<Object[]> findOrderLinesByIds(@Param("ids") List<Long> ids);
+
     // Calculer le revenu total
     @Query("SELECT COALESCE(SUM(o.totalAmount), 0) FROM Order o")
     Double sumTotalAmount();
-}
\ No newline at end of file
+
+    // Renseigner les colonnes de résumé des commandes créées avant leur ajout
+    @Modifying
+    @Query(value = "UPDATE orders o SET " +
+            "o.item_count = (SELECT COALESCE(SUM(i.quantity), 0) FROM order_items i WHERE i.order_id = o.id), " +
+            "o.distinct_product_count = (SELECT COUNT(DISTINCT i.product_id) FROM order_items i WHERE i.order_id = o.id) " +
+            "WHERE o.item_count = 0", nativeQuery = true)
+    int backfillSummaryColumns();
+
+    // Identifiants des commandes d'un statut donné plus anciennes que la date (traitements par lots)
+    @Query("SELECT o.id FROM Order o WHERE o.status = :status AND o.orderDate < :before ORDER BY o.orderDate")
+    List<Long> findIdsByStatusAndOrderDateBefore(@Param("status") OrderStatus status,
+                                                 @Param("before") LocalDateTime before,
+                                                 Pageable pageable);
+
+    // Changer le statut d'un lot de commandes, uniquement celles encore au statut attendu
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :to, o.statusChangedAt = :changedAt " +
+            "WHERE o.id IN :ids AND o.status = :from")
+    int transitionStatus(@Param("ids") List<Long> ids,
+                         @Param("from") OrderStatus from,
+                         @Param("to") OrderStatus to,
+                         @Param("changedAt") LocalDateTime changedAt);
+
+    // Réserver un lot de commandes PENDING libres (ou dont le bail a expiré) pour ce jeton
+    // UPDATE ... ORDER BY ... LIMIT est atomique : deux nœuds ne peuvent pas réserver la même commande
+    @Modifying
+    @Query(value = "UPDATE orders SET claim_token = :token, claim_expires_at = :expiresAt " +
+            "WHERE status = 'PENDING' AND (claim_expires_at IS NULL OR claim_expires_at < :now) " +
+            "ORDER BY order_date LIMIT :limit", nativeQuery = true)
+    int claimPending(@Param("token") String token,
+                     @Param("expiresAt") LocalDateTime expiresAt,
+                     @Param("now") LocalDateTime now,
+                     @Param("limit") int limit);
+
+    // Identifiants réservés par un jeton
+    @Query("SELECT o.id FROM Order o WHERE o.claimToken = :token")
+    List<Long> findIdsByClaimToken(@Param("token") String token);
+
+    // Passer une commande réservée en PROCESSING et libérer le bail
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :to, o.statusChangedAt = :changedAt, " +
+            "o.claimToken = null, o.claimExpiresAt = null " +
+            "WHERE o.id = :id AND o.claimToken = :token AND o.status = :from")
+    int completeClaim(@Param("id") Long id,
+                      @Param("token") String token,
+                      @Param("from") OrderStatus from,
+                      @Param("to") OrderStatus to,
+                      @Param("changedAt") LocalDateTime changedAt);
+
+    // Supprimer les items d'un lot archivé
+    @Modifying
+    @Query(value = "DELETE FROM order_items WHERE order_id IN (:ids)", nativeQuery = true)
+    int deleteItemsByOrderIds(@Param("ids") List<Long> ids);
+
+    // Supprimer les commandes d'un lot archivé
+    @Modifying
+    @Query(value = "DELETE FROM orders WHERE id IN (:ids)", nativeQuery = true)
+    int deleteByIds(@Param("ids") List<Long> ids);
+}
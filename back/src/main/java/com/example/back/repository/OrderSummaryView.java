@@ -0,0 +1,23 @@
+package com.example.back.repository;
+
+import com.example.back.model.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection fermée d'une commande : uniquement les colonnes de la table orders,
+ * sans jointure sur order_items
+ */
+public interface OrderSummaryView {
+    Long getId();
+
+    LocalDateTime getOrderDate();
+
+    OrderStatus getStatus();
+
+    double getTotalAmount();
+
+    int getItemCount();
+
+    int getDistinctProductCount();
+}
@@ -4,8 +4,12 @@ import com.example.back.model.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
@@ -20,4 +24,25 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
 
     // Compter les produits avec un stock faible
     long countByStockQuantityLessThan(int stockQuantity);
+
+    // Produits sous le seuil de leur catégorie (reconstruction de l'index de stock faible)
+    @Query("SELECT p FROM Product p LEFT JOIN p.category c " +
+            "WHERE p.stockQuantity < COALESCE(c.lowStockThreshold, :defaultThreshold)")
+    List<Product> findLowStock(@Param("defaultThreshold") int defaultThreshold);
+
+    // Empreinte de ces mêmes produits (nombre, somme des id, somme des stocks) : détection d'écart sans les charger
+    @Query("SELECT COUNT(p), COALESCE(SUM(p.id), 0), COALESCE(SUM(p.stockQuantity), 0) " +
+            "FROM Product p LEFT JOIN p.category c " +
+            "WHERE p.stockQuantity < COALESCE(c.lowStockThreshold, :defaultThreshold)")
+    List<Object[]> lowStockFingerprint(@Param("defaultThreshold") int defaultThreshold);
+
+    // Produits d'une catégorie (changement de seuil)
+    List<Product> findByCategoryId(Long categoryId);
+
+    // Catégorie de chaque produit : (produit, catégorie, nom de catégorie)
+    @Query("SELECT p.id, c.id, c.name FROM Product p LEFT JOIN p.category c")
+    List<Object[]> findProductCategories();
+
+    @Query("SELECT p.id, c.id, c.name FROM Product p LEFT JOIN p.category c WHERE p.id IN :ids")
+    List<Object[]> findProductCategories(@Param("ids") List<Long> ids);
 }
\ No newline at end of file
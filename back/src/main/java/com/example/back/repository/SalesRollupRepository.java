@@ -0,0 +1,65 @@
+package com.example.back.repository;
+
+import com.example.back.model.RollupGranularity;
+import com.example.back.model.SalesRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, Long> {
+
+    // Buckets d'une granularité sur un intervalle [from, to[
+    List<SalesRollup> findByGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStart(
+            RollupGranularity granularity, LocalDateTime from, LocalDateTime to);
+
+    // Ajouter un delta à un bucket (créé s'il n'existe pas)
+    @Modifying
+    @Query(value = "INSERT INTO sales_rollups (granularity, bucket_start, order_count, revenue) " +
+            "VALUES (:granularity, :bucketStart, :orderCount, :revenue) " +
+            "ON DUPLICATE KEY UPDATE order_count = order_count + :orderCount, revenue = revenue + :revenue",
+            nativeQuery = true)
+    int addToBucket(@Param("granularity") String granularity,
+                    @Param("bucketStart") LocalDateTime bucketStart,
+                    @Param("orderCount") long orderCount,
+                    @Param("revenue") double revenue);
+
+    // Supprimer les buckets d'un intervalle avant reconstruction
+    @Modifying
+    @Query("DELETE FROM SalesRollup r WHERE r.granularity = :granularity " +
+            "AND r.bucketStart >= :from AND r.bucketStart < :to")
+    int deleteRange(@Param("granularity") RollupGranularity granularity,
+                    @Param("from") LocalDateTime from,
+                    @Param("to") LocalDateTime to);
+
+    // Reconstruire les buckets d'un intervalle depuis les commandes (table chaude + archive)
+    @Modifying
+    @Query(value = "INSERT INTO sales_rollups (granularity, bucket_start, order_count, revenue) " +
+            "SELECT :granularity, o.bucket, COUNT(*), SUM(o.total_amount) FROM (" +
+            "  SELECT DATE_FORMAT(order_date, :format) AS bucket, total_amount FROM orders " +
+            "  WHERE order_date >= :from AND order_date < :to " +
+            "  UNION ALL " +
+            "  SELECT DATE_FORMAT(order_date, :format) AS bucket, total_amount FROM orders_archive " +
+            "  WHERE order_date >= :from AND order_date < :to" +
+            ") o GROUP BY o.bucket", nativeQuery = true)
+    int rebuildRange(@Param("granularity") String granularity,
+                     @Param("format") String format,
+                     @Param("from") LocalDateTime from,
+                     @Param("to") LocalDateTime to);
+
+    // Recalculer (sans addition) les buckets d'une granularité depuis les buckets minute d'un intervalle
+    @Modifying
+    @Query(value = "INSERT INTO sales_rollups (granularity, bucket_start, order_count, revenue) " +
+            "SELECT :granularity, DATE_FORMAT(bucket_start, :format), SUM(order_count), SUM(revenue) " +
+            "FROM sales_rollups WHERE granularity = 'MINUTE' AND bucket_start >= :from AND bucket_start < :to " +
+            "GROUP BY DATE_FORMAT(bucket_start, :format) " +
+            "ON DUPLICATE KEY UPDATE order_count = VALUES(order_count), revenue = VALUES(revenue)",
+            nativeQuery = true)
+    int recomputeFromMinutes(@Param("granularity") String granularity,
+                             @Param("format") String format,
+                             @Param("from") LocalDateTime from,
+                             @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,46 @@
+package com.example.back.scheduler;
+
+import com.example.back.service.OrderArchiveService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tâche planifiée d'archivage des commandes clôturées
+ * Chaque lot est une transaction courte pour ne pas bloquer la table orders
+ */
+@Slf4j
+@Component
+public class OrderArchiveJob {
+
+    private final OrderArchiveService orderArchiveService;
+
+    @Value("${app.orders.archive.enabled:true}")
+    private boolean enabled;
+
+    public OrderArchiveJob(OrderArchiveService orderArchiveService) {
+        this.orderArchiveService = orderArchiveService;
+    }
+
+    @Scheduled(cron = "${app.orders.archive.cron:0 30 3 * * *}")
+    public void archiveClosedOrders() {
+        if (!enabled) {
+            return;
+        }
+
+        LocalDateTime cutoff = orderArchiveService.cutoff();
+        int total = 0;
+        int moved;
+        do {
+            moved = orderArchiveService.archiveBatch(cutoff);
+            total += moved;
+        } while (moved > 0);
+
+        if (total > 0) {
+            log.atInfo().addKeyValue("orders", total).addKeyValue("cutoff", cutoff).log("Commandes archivées");
+        }
+    }
+}
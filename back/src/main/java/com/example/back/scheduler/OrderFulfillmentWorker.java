@@ -0,0 +1,86 @@
+package com.example.back.scheduler;
+
+import com.example.back.service.OrderFulfillmentService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Travailleur de fond qui fait avancer les commandes PENDING, hors des threads de requête
+ * Chaque passage réserve un lot puis le traite sur un pool borné (app.orders.fulfillment.concurrency)
+ */
+@Slf4j
+@Component
+public class OrderFulfillmentWorker {
+
+    private final OrderFulfillmentService orderFulfillmentService;
+    private final ExecutorService executor;
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName();
+
+    @Value("${app.orders.fulfillment.enabled:true}")
+    private boolean enabled;
+
+    public OrderFulfillmentWorker(OrderFulfillmentService orderFulfillmentService,
+                                  @Value("${app.orders.fulfillment.concurrency:4}") int concurrency) {
+        this.orderFulfillmentService = orderFulfillmentService;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "fulfillment-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.fulfillment.poll-interval-ms:5000}")
+    public void processPendingOrders() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+
+        // Un jeton par lot : le bail identifie ce passage précis sur ce nœud
+        String claimToken = nodeId + ":" + UUID.randomUUID();
+        List<Long> orderIds = orderFulfillmentService.claimBatch(claimToken);
+        if (orderIds.isEmpty()) {
+            return;
+        }
+
+        List<Callable<Boolean>> tasks = orderIds.stream()
+                .<Callable<Boolean>>map(id -> () -> orderFulfillmentService.fulfill(id, claimToken))
+                .toList();
+
+        // Attendre la fin du lot avant le prochain passage (fixedDelay)
+        int processed = 0;
+        List<Future<Boolean>> results = executor.invokeAll(tasks);
+        for (int i = 0; i < results.size(); i++) {
+            try {
+                if (results.get(i).get()) {
+                    processed++;
+                }
+            } catch (Exception e) {
+                // La commande reste réservée jusqu'à l'expiration du bail, puis sera reprise
+                log.atWarn().addKeyValue("orderId", orderIds.get(i)).setCause(e).log("Erreur traitement commande");
+            }
+        }
+
+        log.atInfo()
+                .addKeyValue("processed", processed)
+                .addKeyValue("claimed", orderIds.size())
+                .log("Commandes passées en PROCESSING");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
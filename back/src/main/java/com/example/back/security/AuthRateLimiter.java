@@ -0,0 +1,124 @@
+package com.example.back.security;
+
+import com.example.back.dto.RateLimitStatsResponse;
+import com.example.back.exception.RateLimitExceededException;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limitation des tentatives sur /api/auth (connexion, inscription), par adresse IP et par nom d'utilisateur
+ * Vérifiée avant UserService : une rafale refusée ne coûte ni BCrypt ni requête en base
+ */
+@Component
+public class AuthRateLimiter {
+
+    @Value("${app.security.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.security.rate-limit.ip.capacity:20}")
+    private long ipCapacity;
+
+    @Value("${app.security.rate-limit.ip.refill-per-minute:10}")
+    private long ipRefillPerMinute;
+
+    @Value("${app.security.rate-limit.username.capacity:5}")
+    private long usernameCapacity;
+
+    @Value("${app.security.rate-limit.username.refill-per-minute:5}")
+    private long usernameRefillPerMinute;
+
+    @Value("${app.security.rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    private TokenBucketMap ipBuckets;
+    private TokenBucketMap usernameBuckets;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejectedByIp = new LongAdder();
+    private final LongAdder rejectedByUsername = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        ipBuckets = new TokenBucketMap(ipCapacity, TimeUnit.MINUTES.toNanos(1) / ipRefillPerMinute, maxKeys);
+        usernameBuckets = new TokenBucketMap(usernameCapacity,
+                TimeUnit.MINUTES.toNanos(1) / usernameRefillPerMinute, maxKeys);
+    }
+
+    /**
+     * Consommer une tentative pour l'IP puis pour le nom d'utilisateur
+     * @throws RateLimitExceededException si l'une des deux limites est atteinte
+     */
+    public void check(String clientIp, String username) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        long waitNanos = ipBuckets.tryAcquire(clientKey(clientIp), now);
+        if (waitNanos > 0) {
+            rejectedByIp.increment();
+            throw rejected(waitNanos);
+        }
+        if (username != null && !username.isBlank()) {
+            waitNanos = usernameBuckets.tryAcquire(username.trim().toLowerCase(Locale.ROOT), now);
+            if (waitNanos > 0) {
+                rejectedByUsername.increment();
+                throw rejected(waitNanos);
+            }
+        }
+        allowed.increment();
+    }
+
+    public RateLimitStatsResponse getStats() {
+        return RateLimitStatsResponse.builder()
+                .allowed(allowed.sum())
+                .rejectedByIp(rejectedByIp.sum())
+                .rejectedByUsername(rejectedByUsername.sum())
+                .trackedIps(ipBuckets.size())
+                .trackedUsernames(usernameBuckets.size())
+                .build();
+    }
+
+    /**
+     * Retirer les seaux redevenus pleins (clients inactifs)
+     */
+    @Scheduled(fixedDelayString = "${app.security.rate-limit.purge-interval-ms:60000}")
+    public void purge() {
+        long now = System.nanoTime();
+        ipBuckets.purgeFull(now);
+        usernameBuckets.purgeFull(now);
+    }
+
+    /**
+     * Clé de limitation d'une adresse : l'IPv4 telle quelle, le préfixe /64 pour l'IPv6
+     * (un client dispose en général de tout un /64 et pourrait changer d'adresse à chaque tentative)
+     */
+    static String clientKey(String clientIp) {
+        if (clientIp == null || clientIp.indexOf(':') < 0) {
+            return clientIp;
+        }
+        try {
+            // Littéral IPv6 : analysé sans résolution DNS
+            if (InetAddress.getByName(clientIp) instanceof Inet6Address address) {
+                return HexFormat.of().formatHex(address.getAddress(), 0, 8) + "/64";
+            }
+            return clientIp;
+        } catch (UnknownHostException e) {
+            return clientIp;
+        }
+    }
+
+    private RateLimitExceededException rejected(long waitNanos) {
+        long retryAfter = Math.max(1, (long) Math.ceil(waitNanos / 1_000_000_000.0));
+        return new RateLimitExceededException("Too many authentication attempts, please retry later", retryAfter);
+    }
+}
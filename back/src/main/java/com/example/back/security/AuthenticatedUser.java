@@ -0,0 +1,24 @@
+package com.example.back.security;
+
+import com.example.back.model.Role;
+import com.example.back.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Instantané immuable de l'utilisateur connecté, injecté dans les contrôleurs à la place d'une requête findByUsername
+ * Ne contient ni le mot de passe ni les commandes
+ */
+public record AuthenticatedUser(Long id, String username, String email, Set<Role> roles, boolean enabled,
+                                long accountVersion, LocalDateTime createdAt) {
+
+    public AuthenticatedUser {
+        roles = Set.copyOf(roles);
+    }
+
+    public static AuthenticatedUser of(User user) {
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getEmail(), user.getRoles(),
+                user.isEnabled(), user.getAccountVersion(), user.getCreatedAt());
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.back.security;
+
+import com.example.back.exception.InvalidCredentialsException;
+import com.example.back.model.User;
+import com.example.back.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Utilisateurs connectés : nom d'utilisateur -> instantané (id, rôles, statut, version du compte...)
+ * Évite un findByUsername (et le chargement des rôles) à chaque requête authentifiée
+ * Invalidé par UserService et par la mise à jour du profil ; la durée de vie bornée couvre les autres nœuds
+ */
+@Component
+public class AuthenticatedUserCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.security.user-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${app.security.user-cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    // Incrémenté à chaque invalidation : un chargement commencé avant ne remet pas son résultat en cache
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Instantané de l'utilisateur : depuis le cache si possible, sinon chargé depuis la base
+     * @throws InvalidCredentialsException si l'utilisateur n'existe plus ou est désactivé
+     */
+    public AuthenticatedUser get(String username) {
+        AuthenticatedUser user = find(username);
+        if (user == null) {
+            throw new InvalidCredentialsException("User not found");
+        }
+        if (!user.enabled()) {
+            throw new InvalidCredentialsException("Account is disabled");
+        }
+        return user;
+    }
+
+    /**
+     * Le token correspond-il toujours au compte : même id, même version, compte actif
+     * Une version différente (rôles, statut ou nom modifiés depuis l'émission) impose une reconnexion
+     */
+    public boolean isCurrent(JwtPrincipal principal) {
+        AuthenticatedUser user = find(principal.subject());
+        return user != null
+                && user.enabled()
+                && user.id().equals(principal.userId())
+                && user.accountVersion() == principal.accountVersion();
+    }
+
+    /**
+     * Oublier un utilisateur (compte ou profil modifié) : la prochaine requête le rechargera
+     */
+    public void evict(String username) {
+        invalidations.incrementAndGet();
+        entries.remove(username);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Retirer les entrées expirées
+     */
+    @Scheduled(fixedDelayString = "${app.security.user-cache.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+    }
+
+    // =======================
+    // MÉTHODES PRIVÉES
+    // =======================
+
+    /**
+     * Instantané depuis le cache, ou chargé depuis la base ; null si l'utilisateur n'existe pas (non mis en cache)
+     */
+    private AuthenticatedUser find(String username) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(username);
+        if (entry != null && entry.expiresAtMillis() > now) {
+            return entry.user();
+        }
+        long invalidationsBefore = invalidations.get();
+        User user = userRepository.findByUsername(username).orElse(null);
+        if (user == null) {
+            return null;
+        }
+        entry = new Entry(AuthenticatedUser.of(user), now + ttlMs);
+        if (entries.size() >= maxEntries) {
+            makeRoom();
+        }
+        if (invalidations.get() == invalidationsBefore) {
+            entries.put(username, entry);
+        }
+        return entry.user();
+    }
+
+    /**
+     * Cache plein : retirer les entrées expirées, puis au besoin un dixième des entrées
+     */
+    private void makeRoom() {
+        purgeExpired();
+        int toRemove = entries.size() - maxEntries + Math.max(1, maxEntries / 10);
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (toRemove-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private record Entry(AuthenticatedUser user, long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.back.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.util.function.IntToLongFunction;
+
+/**
+ * Choix du coût BCrypt d'après le matériel : mesure d'un hachage au coût minimal, puis coût le plus élevé
+ * dont la durée estimée (doublée à chaque +1) reste sous la cible. Même latence de connexion sur chaque nœud,
+ * quelle que soit sa puissance, sans descendre sous le minimum de sécurité
+ */
+@Slf4j
+public final class BCryptCostCalibrator {
+
+    // Mesures au coût minimal ; la plus rapide est retenue (la première sert aussi à chauffer le JIT)
+    private static final int SAMPLES = 3;
+
+    private BCryptCostCalibrator() {
+    }
+
+    public static int calibrate(long targetMs, int minCost, int maxCost) {
+        return calibrate(targetMs, minCost, maxCost, BCryptCostCalibrator::measureMs);
+    }
+
+    static int calibrate(long targetMs, int minCost, int maxCost, IntToLongFunction measureMs) {
+        if (minCost < 4 || maxCost > 31 || minCost > maxCost) {
+            throw new IllegalArgumentException("Invalid BCrypt cost range: " + minCost + ".." + maxCost);
+        }
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            fastest = Math.min(fastest, measureMs.applyAsLong(minCost));
+        }
+        double estimateMs = Math.max(fastest, 1);
+        int cost = minCost;
+        while (cost < maxCost && estimateMs * 2 <= targetMs) {
+            estimateMs *= 2;
+            cost++;
+        }
+        log.atInfo()
+                .addKeyValue("cost", cost)
+                .addKeyValue("estimatedMs", (long) estimateMs)
+                .addKeyValue("targetMs", targetMs)
+                .log("Coût BCrypt calibré");
+        return cost;
+    }
+
+    private static long measureMs(int cost) {
+        String salt = BCrypt.gensalt(cost);
+        long start = System.nanoTime();
+        BCrypt.hashpw("calibration-password", salt);
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
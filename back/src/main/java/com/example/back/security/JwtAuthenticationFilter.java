@@ -4,81 +4,62 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.List;
-import java.util.stream.Collectors;
 
+@Slf4j
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private AuthenticatedUserCache authenticatedUserCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
-        System.out.println("=== DEBUT DU FILTRE JWT ===");
-        System.out.println("URL demandée: " + request.getRequestURI());
-
         String authHeader = request.getHeader("Authorization");
-        System.out.println("Authorization header: " + authHeader);
 
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+        // Le token n'est jamais écrit dans les logs, seulement le sujet et le motif de refus
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
             String token = authHeader.substring(7);
-            System.out.println("Token extrait: " + token);
 
             try {
-                String username = jwtUtil.extractUsername(token);
-                System.out.println("Username extrait: " + username);
-
-                if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-
-                    if (jwtUtil.validateToken(token, username)) {
-                        System.out.println("Token validé ✓");
-
-                        // Extraire les rôles du token
-                        String rolesString = jwtUtil.extractRoles(token);
-                        System.out.println("Rôles extraits du token: " + rolesString);
-
-                        // AJOUT DE CETTE VÉRIFICATION
-                        if (rolesString != null && !rolesString.isEmpty()) {
-                            List<SimpleGrantedAuthority> authorities = Arrays.stream(rolesString.split(","))
-                                    .map(SimpleGrantedAuthority::new)
-                                    .collect(Collectors.toList());
-
-                            System.out.println("Authorities créées: " + authorities);
-
-                            UsernamePasswordAuthenticationToken authToken =
-                                    new UsernamePasswordAuthenticationToken(username, null, authorities);
-                            SecurityContextHolder.getContext().setAuthentication(authToken);
-
-                            System.out.println("Authentication définie dans SecurityContext ✓");
-                        } else {
-                            System.out.println("Aucun rôle trouvé dans le token");
-                        }
-                    } else {
-                        System.out.println("Token invalide ✗");
-                    }
+                // Cache consulté avant toute cryptographie ; sinon une seule vérification
+                JwtPrincipal principal = verifiedTokenCache.verify(token);
+
+                if (tokenRevocationList.isRevoked(principal)) {
+                    // Token révoqué ou utilisateur désactivé depuis son émission
+                    log.atDebug().addKeyValue("subject", principal.subject()).log("Token révoqué");
+                } else if (!authenticatedUserCache.isCurrent(principal)) {
+                    // Compte modifié depuis l'émission (version différente), désactivé ou supprimé
+                    log.atDebug().addKeyValue("subject", principal.subject()).log("Version du compte périmée");
+                } else if (!principal.roles().isEmpty()) {
+                    UsernamePasswordAuthenticationToken authToken =
+                            new UsernamePasswordAuthenticationToken(principal, null, principal.authorities());
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                } else {
+                    log.atDebug().addKeyValue("subject", principal.subject()).log("Aucun rôle dans le token");
                 }
             } catch (Exception e) {
-                System.err.println("ERREUR JWT: " + e.getMessage());
-                e.printStackTrace();
-                // NE PAS bloquer la requête, juste logger l'erreur
+                // NE PAS bloquer la requête : elle reste anonyme (le message JJWT ne contient pas le token)
+                log.atDebug().addKeyValue("reason", e.getClass().getSimpleName()).log("Token refusé");
             }
-        } else {
-            System.out.println("Pas de header Authorization ou format incorrect");
         }
 
-        System.out.println("=== FIN DU FILTRE JWT ===\n");
         filterChain.doFilter(request, response);  // TOUJOURS continuer le filtre
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,215 @@
+package com.example.back.security;
+
+import com.example.back.model.JwtSigningKey;
+import com.example.back.repository.JwtSigningKeyRepository;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.Jwks;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Clés de signature des JWT (ECDSA P-256, ES256) identifiées par kid
+ * Chaque nœud émetteur génère sa clé privée, qui ne quitte jamais sa mémoire, et publie la clé publique
+ * dans jwt_signing_keys ; la clé tourne périodiquement. Les vérificateurs (tout nœud, répliques en lecture
+ * seule, sidecars via /.well-known/jwks.json) n'ont besoin que des clés publiques, gardées en cache
+ */
+@Slf4j
+@Component
+public class JwtKeyService {
+
+    public static final String ALGORITHM = "ES256";
+
+    @Autowired
+    private JwtSigningKeyRepository jwtSigningKeyRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // false : nœud vérificateur seulement (pas de clé privée, pas d'émission de tokens)
+    @Value("${app.security.jwt.signing-enabled:true}")
+    private boolean signingEnabled;
+
+    @Value("${app.security.jwt.rotation-interval-ms:86400000}")
+    private long rotationIntervalMs;
+
+    // Relecture des clés au plus une fois par intervalle quand un kid est inconnu (tokens forgés)
+    @Value("${app.security.jwt.unknown-kid-refresh-ms:5000}")
+    private long unknownKidRefreshMs;
+
+    private volatile ActiveKey active;
+    private volatile Map<String, PublicKey> publicKeys = Map.of();
+    private final AtomicLong lastRefresh = new AtomicLong();
+
+    /**
+     * Clé privée courante de ce nœud ; créée ou renouvelée si besoin
+     * @throws IllegalStateException sur un nœud vérificateur seulement
+     */
+    public ActiveKey signingKey() {
+        if (!signingEnabled) {
+            throw new IllegalStateException("Token signing is disabled on this node");
+        }
+        ActiveKey key = active;
+        if (key == null || isDue(key)) {
+            key = rotateIfDue();
+        }
+        return key;
+    }
+
+    /**
+     * Clé publique d'un kid, depuis le cache ; un kid inconnu provoque au plus une relecture par intervalle
+     */
+    public PublicKey publicKey(String kid) {
+        PublicKey key = publicKeys.get(kid);
+        if (key != null) {
+            return key;
+        }
+        long now = System.currentTimeMillis();
+        long last = lastRefresh.get();
+        if (now - last >= unknownKidRefreshMs && lastRefresh.compareAndSet(last, now)) {
+            refresh();
+        }
+        return publicKeys.get(kid);
+    }
+
+    /**
+     * Clés publiques valides au format JWKS (RFC 7517)
+     */
+    public Map<String, Object> jwks() {
+        List<Map<String, ?>> keys = new ArrayList<>();
+        publicKeys.forEach((kid, key) -> keys.add(toJwk(kid, key)));
+        return Map.of("keys", keys);
+    }
+
+    // =======================
+    // ROTATION ET CACHE
+    // =======================
+
+    /**
+     * Faire tourner la clé de ce nœud si elle est trop ancienne ; rien à faire sur un nœud vérificateur
+     */
+    @Scheduled(fixedDelayString = "${app.security.jwt.rotation-check-ms:60000}")
+    public void rotate() {
+        if (!signingEnabled) {
+            return;
+        }
+        rotateIfDue();
+    }
+
+    /**
+     * Recharger les clés publiques valides (celles des autres nœuds comprises) et oublier les expirées
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.security.jwt.key-refresh-ms:60000}")
+    public void refresh() {
+        Map<String, PublicKey> keys = new HashMap<>();
+        for (JwtSigningKey row : jwtSigningKeyRepository.findByExpiresAtAfter(LocalDateTime.now())) {
+            keys.put(row.getKid(), decode(row.getPublicKey()));
+        }
+        ActiveKey current = active;
+        if (current != null && !keys.containsKey(current.kid())) {
+            // Clé tout juste créée, pas encore visible de cette lecture
+            keys.put(current.kid(), publicKeys.get(current.kid()));
+        }
+        publicKeys = keys;
+        lastRefresh.set(System.currentTimeMillis());
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.jwt.prune-interval-ms:3600000}")
+    public void prune() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                jwtSigningKeyRepository.deleteExpired(LocalDateTime.now()));
+    }
+
+    // =======================
+    // MÉTHODES PRIVÉES
+    // =======================
+
+    /**
+     * Générer une nouvelle clé si la clé courante est absente ou trop ancienne
+     * L'ancienne clé reste publiée le temps que ses tokens expirent
+     */
+    private synchronized ActiveKey rotateIfDue() {
+        ActiveKey previous = active;
+        if (previous != null && !isDue(previous)) {
+            return previous;
+        }
+
+        KeyPair pair = generateKeyPair();
+        String kid = Jwks.builder().key(pair.getPublic()).idFromThumbprint().build().getId();
+        LocalDateTime now = LocalDateTime.now();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jwtSigningKeyRepository.save(JwtSigningKey.builder()
+                    .kid(kid)
+                    .algorithm(ALGORITHM)
+                    .publicKey(pair.getPublic().getEncoded())
+                    .createdAt(now)
+                    // Borne si le nœud s'arrête sans faire tourner sa clé
+                    .expiresAt(now.plusNanos(rotationIntervalMs * 1_000_000).plus(JwtUtil.TOKEN_LIFETIME))
+                    .build());
+            if (previous != null) {
+                jwtSigningKeyRepository.updateExpiresAt(previous.kid(), now.plus(JwtUtil.TOKEN_LIFETIME));
+            }
+        });
+
+        Map<String, PublicKey> keys = new HashMap<>(publicKeys);
+        keys.put(kid, pair.getPublic());
+        publicKeys = keys;
+        active = new ActiveKey(kid, pair.getPrivate(), System.currentTimeMillis());
+        log.atInfo().addKeyValue("kid", kid).log("Nouvelle clé de signature JWT");
+        return active;
+    }
+
+    private boolean isDue(ActiveKey key) {
+        return System.currentTimeMillis() - key.createdAtMillis() >= rotationIntervalMs;
+    }
+
+    private static KeyPair generateKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            return generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot generate signing key", e);
+        }
+    }
+
+    private static PublicKey decode(byte[] encoded) {
+        try {
+            return KeyFactory.getInstance("EC").generatePublic(new X509EncodedKeySpec(encoded));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid public key", e);
+        }
+    }
+
+    private static Jwk<?> toJwk(String kid, PublicKey key) {
+        return Jwks.builder().key(key).id(kid).algorithm(ALGORITHM).publicKeyUse("sig").build();
+    }
+
+    /**
+     * Clé privée de signature de ce nœud
+     */
+    public record ActiveKey(String kid, PrivateKey privateKey, long createdAtMillis) {
+    }
+}
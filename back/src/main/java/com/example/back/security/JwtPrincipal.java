@@ -0,0 +1,28 @@
+package com.example.back.security;
+
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Résultat immuable de la vérification d'un token : sujet, id et version du compte, rôles, identifiant (jti),
+ * émission et expiration. Sert de principal à l'authentification (authentication.getName() renvoie le sujet)
+ */
+public record JwtPrincipal(String subject, Long userId, long accountVersion, List<String> roles, String tokenId,
+                           Instant issuedAt, Instant expiresAt) implements Principal {
+
+    public JwtPrincipal {
+        roles = List.copyOf(roles);
+    }
+
+    @Override
+    public String getName() {
+        return subject;
+    }
+
+    public List<SimpleGrantedAuthority> authorities() {
+        return roles.stream().map(SimpleGrantedAuthority::new).toList();
+    }
+}
@@ -1,68 +1,100 @@
 package com.example.back.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.LocatorAdapter;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
+import java.security.Key;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Component
 public class JwtUtil {
 
-    private static final String SECRET_KEY = "wzUpGa9k4LTV3SHuY8qVrt6wOENkfdes5vLHVc1ex6581Iiq";
+    // Durée de validité des tokens émis
+    public static final Duration TOKEN_LIFETIME = Duration.ofHours(24);
 
-    // Modifiez cette méthode pour accepter les authorities
-    public String generateToken(String username, Collection<? extends GrantedAuthority> authorities) {
-        long expirationMillis = 1000 * 60 * 60 * 24; // 24h
+    @Autowired
+    private JwtKeyService jwtKeyService;
+
+    // Parser JJWT immuable et partagé entre les threads ; la clé publique est choisie par le kid de l'en-tête
+    private final JwtParser parser = Jwts.parser()
+            .keyLocator(new LocatorAdapter<Key>() {
+                @Override
+                protected Key locate(JwsHeader header) {
+                    String kid = header.getKeyId();
+                    PublicKey key = kid == null ? null : jwtKeyService.publicKey(kid);
+                    if (key == null) {
+                        throw new JwtException("Unknown signing key: " + kid);
+                    }
+                    return key;
+                }
+            })
+            .build();
 
-        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
+    // Claims portant l'id et la version du compte : les contrôleurs n'ont plus besoin de charger l'utilisateur
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ACCOUNT_VERSION_CLAIM = "ver";
+
+    // Modifiez cette méthode pour accepter les authorities
+    public String generateToken(Long userId, String username, long accountVersion,
+                                Collection<? extends GrantedAuthority> authorities) {
+        long expirationMillis = TOKEN_LIFETIME.toMillis();
 
         // Extraire les noms des rôles
         String roles = authorities.stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.joining(","));
 
+        JwtKeyService.ActiveKey signingKey = jwtKeyService.signingKey();
+
         return Jwts.builder()
+                .header().keyId(signingKey.kid()).and()
+                .id(UUID.randomUUID().toString())
                 .subject(username)
+                .claim(USER_ID_CLAIM, userId)
+                .claim(ACCOUNT_VERSION_CLAIM, accountVersion)
                 .claim("roles", roles)  // AJOUT DES RÔLES
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + expirationMillis))
-                .signWith(key)
+                .signWith(signingKey.privateKey(), Jwts.SIG.ES256)
                 .compact();
     }
 
-    public String extractUsername(String token) {
-        return getClaims(token).getSubject();
-    }
-
-    public String extractRoles(String token) {
-        try {
-            return getClaims(token).get("roles", String.class);
-        } catch (Exception e) {
-            return null;  // Retourner null au lieu de planter
+    /**
+     * Vérifier la signature et l'expiration du token en une seule analyse
+     * @throws JwtException si le token est invalide, expiré, sans sujet ou sans id de compte
+     */
+    public JwtPrincipal verify(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        if (claims.getSubject() == null) {
+            throw new JwtException("Token has no subject");
         }
+        Long userId = claims.get(USER_ID_CLAIM, Long.class);
+        Long accountVersion = claims.get(ACCOUNT_VERSION_CLAIM, Long.class);
+        if (userId == null || accountVersion == null) {
+            // Token émis avant l'ajout de ces claims : reconnexion nécessaire
+            throw new JwtException("Token has no account claims");
+        }
+        String roles = claims.get("roles", String.class);
+        List<String> roleList = roles == null || roles.isEmpty()
+                ? List.of()
+                : Arrays.asList(roles.split(","));
+        Instant issuedAt = claims.getIssuedAt() == null ? null : claims.getIssuedAt().toInstant();
+        return new JwtPrincipal(claims.getSubject(), userId, accountVersion, roleList, claims.getId(), issuedAt,
+                claims.getExpiration().toInstant());
     }
-
-    public boolean validateToken(String token, String username) {
-        return extractUsername(token).equals(username) && !isTokenExpired(token);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return getClaims(token).getExpiration().before(new Date());
-    }
-
-    private Claims getClaims(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-}
\ No newline at end of file
+}
@@ -1,5 +1,7 @@
 package com.example.back.security;
 
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -10,27 +12,59 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.*;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 @Configuration
 @EnableMethodSecurity
 public class SecurityConfig {
 
+    // Identifiant de l'algorithme des nouveaux hachages (préfixe {bcrypt} en base)
+    public static final String PASSWORD_ENCODING_ID = "bcrypt";
+
     private final JwtAuthenticationFilter jwtFilter;
     private final CustomUserDetailsService userDetailsService;
 
+    // 0 : coût calibré au démarrage pour atteindre target-ms ; sinon coût imposé (flotte homogène)
+    @Value("${app.security.password.bcrypt-cost:0}")
+    private int bcryptCost;
+
+    @Value("${app.security.password.target-ms:100}")
+    private long targetMs;
+
+    @Value("${app.security.password.min-cost:10}")
+    private int minCost;
+
+    @Value("${app.security.password.max-cost:16}")
+    private int maxCost;
+
     public SecurityConfig(JwtAuthenticationFilter jwtFilter, CustomUserDetailsService userDetailsService) {
         this.jwtFilter = jwtFilter;
         this.userDetailsService = userDetailsService;
     }
 
+    /**
+     * Encodeur délégant : les nouveaux hachages sont préfixés par leur algorithme ({bcrypt}), ce qui permet
+     * d'en ajouter d'autres (Argon2...) sans invalider l'existant. Les hachages sans préfixe, antérieurs,
+     * sont vérifiés en BCrypt et remplacés à la connexion suivante (voir UserService.authenticate)
+     */
     @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder() {
+        int cost = bcryptCost > 0 ? bcryptCost : BCryptCostCalibrator.calibrate(targetMs, minCost, maxCost);
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(cost);
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(PASSWORD_ENCODING_ID, bcrypt);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(PASSWORD_ENCODING_ID, encoders);
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
     }
 
     @Bean
@@ -52,6 +86,8 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Fin des réponses asynchrones (flux SSE) : déjà autorisées à l'ouverture
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers(
                                 "/swagger-ui/**",
                                 "/swagger-ui.html",
@@ -60,6 +96,8 @@ public class SecurityConfig {
                                 "/webjars/**"
                         ).permitAll()
                         .requestMatchers("/", "/api/auth/**", "/images/**").permitAll()
+                        // Clés publiques de vérification des JWT (JWKS)
+                        .requestMatchers("/.well-known/jwks.json").permitAll()
                         .requestMatchers("/api/products/**").permitAll()
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .requestMatchers("/api/user/**").authenticated()
@@ -78,7 +116,9 @@ public class SecurityConfig {
         CorsConfiguration config = new CorsConfiguration();
         config.setAllowedOrigins(Arrays.asList("http://localhost:5173")); // Autorisation REACT
         config.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-        config.setAllowedHeaders(Arrays.asList("Origin", "Content-Type", "Accept", "Authorization"));
+        config.setAllowedHeaders(Arrays.asList("Origin", "Content-Type", "Accept", "Authorization", "X-Correlation-Id"));
+        // Identifiant de corrélation lisible par le front (à citer dans un rapport d'erreur)
+        config.setExposedHeaders(Arrays.asList("X-Correlation-Id"));
         config.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,99 @@
+package com.example.back.security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Un seau à jetons par clé, sans verrou : l'état d'un seau tient dans un seul AtomicLong,
+ * l'instant (nanosecondes) où il serait plein de nouveau. Prendre un jeton repousse cet instant
+ * d'un intervalle de recharge ; c'est refusé s'il dépasserait maintenant + capacité × intervalle
+ * Un seau redevenu plein équivaut à un seau absent : il peut être retiré, ce qui borne la table.
+ * Un seau entamé n'est jamais retiré (sinon une rafale de clés nouvelles remettrait à zéro les
+ * clients bloqués) : table saturée, les nouvelles clés partagent un seau de débordement commun
+ */
+public class TokenBucketMap {
+
+    private final long capacity;
+    private final long refillIntervalNanos;
+    private final int maxKeys;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    // Marque d'un seau retiré par la purge : qui la lit doit reprendre la clé dans la table
+    private static final long REMOVED = Long.MAX_VALUE;
+
+    // Seau de débordement, initialement plein
+    private final AtomicLong overflow = new AtomicLong(Long.MIN_VALUE);
+
+    // Table saturée : au plus un parcours de purge par intervalle de recharge
+    private final AtomicLong nextPurgeAt = new AtomicLong(Long.MIN_VALUE);
+
+    public TokenBucketMap(long capacity, long refillIntervalNanos, int maxKeys) {
+        if (capacity < 1 || refillIntervalNanos < 1 || maxKeys < 1) {
+            throw new IllegalArgumentException("Capacity, refill interval and max keys must be positive");
+        }
+        this.capacity = capacity;
+        this.refillIntervalNanos = refillIntervalNanos;
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Prendre un jeton pour la clé
+     * @return 0 si accepté, sinon le délai (nanosecondes) avant qu'un jeton soit disponible
+     */
+    public long tryAcquire(String key, long nowNanos) {
+        long limit = nowNanos + capacity * refillIntervalNanos;
+        while (true) {
+            AtomicLong bucket = bucketFor(key, nowNanos);
+            long fullAt = bucket.get();
+            if (fullAt == REMOVED) {
+                // Retiré entre la lecture de la table et la prise du jeton : reprendre la clé
+                buckets.remove(key, bucket);
+                continue;
+            }
+            long next = Math.max(fullAt, nowNanos) + refillIntervalNanos;
+            if (next > limit) {
+                return next - limit;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Retirer les seaux redevenus pleins.
+     * Le seau est d'abord marqué par CAS : un tryAcquire concurrent qui le tenait déjà échoue
+     * son propre CAS et relit la table, au lieu de consommer un jeton sur un seau orphelin
+     */
+    public void purgeFull(long nowNanos) {
+        buckets.forEach((key, bucket) -> {
+            long fullAt = bucket.get();
+            if (fullAt <= nowNanos && bucket.compareAndSet(fullAt, REMOVED)) {
+                buckets.remove(key, bucket);
+            }
+        });
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    // =======================
+    // MÉTHODES PRIVÉES
+    // =======================
+
+    private AtomicLong bucketFor(String key, long nowNanos) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        long purgeAt = nextPurgeAt.get();
+        if (buckets.size() >= maxKeys && nowNanos >= purgeAt
+                && nextPurgeAt.compareAndSet(purgeAt, nowNanos + refillIntervalNanos)) {
+            purgeFull(nowNanos);
+        }
+        return buckets.size() < maxKeys
+                ? buckets.computeIfAbsent(key, k -> new AtomicLong(nowNanos))
+                : overflow;
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.back.security;
+
+import com.example.back.model.RevocationKind;
+import com.example.back.model.RevokedToken;
+import com.example.back.repository.RevokedTokenRepository;
+import com.example.back.stats.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Liste de révocation des tokens : table revoked_tokens, répliquée sur chaque nœud par lecture
+ * des versions (id) plus récentes. En mémoire, un filtre de Bloom répond "non révoqué" dans le cas
+ * courant sans autre accès ; un positif est confirmé dans les ensembles exacts
+ */
+@Slf4j
+@Component
+public class TokenRevocationList {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.security.revocation.expected-entries:100000}")
+    private int expectedEntries;
+
+    @Value("${app.security.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // Délai après lequel un trou dans les versions (transaction annulée) est ignoré
+    @Value("${app.security.revocation.gap-timeout-ms:10000}")
+    private long gapTimeoutMs;
+
+    private volatile State state;
+    private long version;
+    private long gapSince;
+
+    /**
+     * Token refusé s'il est révoqué, ou si son utilisateur l'a été après son émission
+     */
+    public boolean isRevoked(JwtPrincipal principal) {
+        State current = state;
+        if (current == null) {
+            return false;
+        }
+        String tokenId = principal.tokenId();
+        if (tokenId != null && current.bloom().mightContain(tokenKey(tokenId))
+                && current.tokens().containsKey(tokenId)) {
+            return true;
+        }
+        if (current.bloom().mightContain(subjectKey(principal.subject()))) {
+            Instant revokedAt = current.subjects().get(principal.subject());
+            return revokedAt != null
+                    && (principal.issuedAt() == null || !principal.issuedAt().isAfter(revokedAt));
+        }
+        return false;
+    }
+
+    /**
+     * Révoquer un token (déconnexion)
+     */
+    public void revokeToken(JwtPrincipal principal) {
+        if (principal.tokenId() == null) {
+            // Token sans jti : seule la révocation de l'utilisateur est possible
+            revokeSubject(principal.subject());
+            return;
+        }
+        save(RevocationKind.TOKEN, principal.tokenId(), LocalDateTime.now(),
+                LocalDateTime.ofInstant(principal.expiresAt(), ZoneId.systemDefault()));
+    }
+
+    /**
+     * Révoquer tous les tokens déjà émis pour un utilisateur (compte désactivé, rôles modifiés)
+     */
+    public void revokeSubject(String username) {
+        LocalDateTime now = LocalDateTime.now();
+        save(RevocationKind.SUBJECT, username, now, now.plus(JwtUtil.TOKEN_LIFETIME));
+    }
+
+    // =======================
+    // RÉPLICATION
+    // =======================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Échec du chargement des révocations", e);
+        }
+    }
+
+    /**
+     * Lire les révocations plus récentes que la version connue (écrites par ce nœud ou un autre)
+     * La version n'avance que sur des id contigus : une ligne d'une transaction pas encore validée
+     * sera lue au passage suivant. Les lignes déjà appliquées peuvent l'être de nouveau sans effet
+     */
+    @Scheduled(fixedDelayString = "${app.security.revocation.poll-interval-ms:1000}")
+    public synchronized void poll() {
+        State current = state;
+        if (current == null) {
+            // Chargement initial pas encore fait ou échoué
+            rebuild();
+        } else {
+            pollInto(current);
+        }
+    }
+
+    /**
+     * Purger les révocations expirées, en base puis en mémoire (le filtre de Bloom est reconstruit)
+     */
+    @Scheduled(fixedDelayString = "${app.security.revocation.prune-interval-ms:3600000}")
+    public void prune() {
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> revokedTokenRepository.deleteExpired(LocalDateTime.now()));
+        rebuild();
+    }
+
+    public int size() {
+        State current = state;
+        return current == null ? 0 : current.tokens().size() + current.subjects().size();
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    // =======================
+    // MÉTHODES PRIVÉES
+    // =======================
+
+    private void pollInto(State target) {
+        List<RevokedToken> rows;
+        long before;
+        do {
+            before = version;
+            rows = revokedTokenRepository.findTop1000ByIdGreaterThanOrderByIdAsc(version);
+            for (RevokedToken row : rows) {
+                apply(target, row);
+                if (row.getId() == version + 1) {
+                    version = row.getId();
+                    gapSince = 0;
+                    continue;
+                }
+                long now = System.currentTimeMillis();
+                if (gapSince == 0) {
+                    gapSince = now;
+                }
+                if (now - gapSince < gapTimeoutMs) {
+                    break;
+                }
+                // Trou durable (transaction annulée) : on le saute
+                version = row.getId();
+                gapSince = 0;
+            }
+        } while (rows.size() == BATCH_SIZE && version > before);
+    }
+
+    private void save(RevocationKind kind, String target, LocalDateTime revokedAt, LocalDateTime expiresAt) {
+        RevokedToken row = revokedTokenRepository.save(RevokedToken.builder()
+                .kind(kind)
+                .target(target)
+                .revokedAt(revokedAt)
+                .expiresAt(expiresAt)
+                .build());
+        // Effet immédiat sur ce nœud ; les autres le verront à leur prochain poll
+        State current = state;
+        if (current != null) {
+            apply(current, row);
+        }
+    }
+
+    /**
+     * Nouvel état construit à part puis publié : les vérifications en cours gardent l'ancien
+     */
+    private synchronized void rebuild() {
+        State next = new State(new BloomFilter(expectedEntries, falsePositiveRate),
+                new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        long previousVersion = version;
+        long previousGapSince = gapSince;
+        version = 0;
+        gapSince = 0;
+        try {
+            loadInto(next);
+        } catch (RuntimeException e) {
+            version = previousVersion;
+            gapSince = previousGapSince;
+            throw e;
+        }
+        Instant now = Instant.now();
+        next.tokens().values().removeIf(expiresAt -> expiresAt.isBefore(now));
+        state = next;
+    }
+
+    /**
+     * Reconstruction complète : toutes les lignes sont appliquées, mais la version ne franchit un trou
+     * que s'il est ancien (lignes purgées, transaction annulée depuis longtemps). Un trou récent peut être
+     * une transaction en cours : la version s'y arrête et les polls suivants l'attendent normalement
+     */
+    private void loadInto(State target) {
+        LocalDateTime settledBefore = LocalDateTime.now().minusNanos(gapTimeoutMs * 1_000_000);
+        boolean contiguous = true;
+        long lastId = 0;
+        List<RevokedToken> rows;
+        do {
+            rows = revokedTokenRepository.findTop1000ByIdGreaterThanOrderByIdAsc(lastId);
+            for (RevokedToken row : rows) {
+                apply(target, row);
+                lastId = row.getId();
+                if (!contiguous) {
+                    continue;
+                }
+                if (row.getId() == version + 1 || row.getRevokedAt().isBefore(settledBefore)) {
+                    version = row.getId();
+                } else {
+                    contiguous = false;
+                    gapSince = System.currentTimeMillis();
+                }
+            }
+        } while (rows.size() == BATCH_SIZE);
+    }
+
+    private static void apply(State target, RevokedToken row) {
+        if (row.getKind() == RevocationKind.TOKEN) {
+            target.tokens().put(row.getTarget(), row.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant());
+            target.bloom().add(tokenKey(row.getTarget()));
+        } else {
+            Instant revokedAt = row.getRevokedAt().atZone(ZoneId.systemDefault()).toInstant()
+                    .truncatedTo(ChronoUnit.SECONDS);
+            target.subjects().merge(row.getTarget(), revokedAt, (a, b) -> a.isAfter(b) ? a : b);
+            target.bloom().add(subjectKey(row.getTarget()));
+        }
+    }
+
+    private static String tokenKey(String tokenId) {
+        return "t:" + tokenId;
+    }
+
+    private static String subjectKey(String subject) {
+        return "s:" + subject;
+    }
+
+    /**
+     * Filtre de Bloom et ensembles exacts : jti -> expiration, utilisateur -> instant de révocation
+     */
+    private record State(BloomFilter bloom, Map<String, Instant> tokens, Map<String, Instant> subjects) {
+    }
+}
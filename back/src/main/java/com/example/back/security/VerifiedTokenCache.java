@@ -0,0 +1,154 @@
+package com.example.back.security;
+
+import com.example.back.dto.TokenCacheStatsResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tokens déjà vérifiés : empreinte SHA-256 du token -> principal
+ * Le SPA renvoie le même token pendant 24 h ; un succès évite la vérification de signature et l'analyse JSON
+ * Une entrée expire au plus tard à l'expiration du token, et les révocations passent par evict / evictSubject
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Value("${app.security.token-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${app.security.token-cache.max-ttl-ms:600000}")
+    private long maxTtlMs;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // Incrémenté à chaque révocation : une vérification commencée avant ne remet pas son résultat en cache
+    private final AtomicLong revocations = new AtomicLong();
+
+    /**
+     * Principal du token : depuis le cache si possible, sinon vérifié (signature, expiration) puis mis en cache
+     * @throws io.jsonwebtoken.JwtException si le token est invalide ou expiré
+     */
+    public JwtPrincipal verify(String token) {
+        String digest = digest(token);
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(digest);
+        if (entry != null) {
+            if (entry.expiresAtMillis() > now) {
+                hits.increment();
+                return entry.principal();
+            }
+            entries.remove(digest, entry);
+        }
+
+        misses.increment();
+        long revocationsBefore = revocations.get();
+        JwtPrincipal principal = jwtUtil.verify(token);
+        long expiresAt = Math.min(principal.expiresAt().toEpochMilli(), now + maxTtlMs);
+        if (entries.size() >= maxEntries) {
+            makeRoom();
+        }
+        if (revocations.get() == revocationsBefore) {
+            entries.put(digest, new Entry(principal, expiresAt));
+        }
+        return principal;
+    }
+
+    /**
+     * Oublier un token (révocation) : la prochaine requête le vérifiera à nouveau
+     */
+    public void evict(String token) {
+        revocations.incrementAndGet();
+        if (entries.remove(digest(token)) != null) {
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Oublier tous les tokens d'un utilisateur (compte modifié, désactivé ou révoqué)
+     */
+    public void evictSubject(String subject) {
+        revocations.incrementAndGet();
+        entries.values().removeIf(entry -> {
+            boolean match = entry.principal().subject().equals(subject);
+            if (match) {
+                evictions.increment();
+            }
+            return match;
+        });
+    }
+
+    public TokenCacheStatsResponse getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+        return TokenCacheStatsResponse.builder()
+                .size(entries.size())
+                .maxEntries(maxEntries)
+                .hits(hitCount)
+                .misses(missCount)
+                .evictions(evictions.sum())
+                .hitRatio(lookups == 0 ? 0 : (double) hitCount / lookups)
+                .build();
+    }
+
+    /**
+     * Retirer les entrées expirées
+     */
+    @Scheduled(fixedDelayString = "${app.security.token-cache.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+    }
+
+    // =======================
+    // MÉTHODES PRIVÉES
+    // =======================
+
+    /**
+     * Cache plein : retirer les entrées expirées, puis au besoin un dixième des entrées
+     * (l'ordre d'itération de ConcurrentHashMap suit les empreintes, donc un échantillon quelconque)
+     */
+    private void makeRoom() {
+        purgeExpired();
+        int toRemove = entries.size() - maxEntries + Math.max(1, maxEntries / 10);
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (toRemove-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    private static String digest(String token) {
+        byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+
+    private record Entry(JwtPrincipal principal, long expiresAtMillis) {
+    }
+}
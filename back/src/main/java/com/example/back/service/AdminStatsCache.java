@@ -0,0 +1,48 @@
+package com.example.back.service;
+
+import com.example.back.dto.AdminStatsDTO;
+import com.example.back.stats.SingleFlightCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Source unique des statistiques admin (contrôleur, flux SSE) : un seul calcul pour tous les appelants
+ * concurrents, et une valeur légèrement périmée servie pendant son rafraîchissement.
+ * L'objet renvoyé est partagé : ne pas le modifier
+ */
+@Service
+public class AdminStatsCache {
+
+    @Autowired
+    private AdminStatsCounters adminStatsCounters;
+
+    @Value("${app.stats.cache.fresh-ms:1000}")
+    private long freshMs;
+
+    @Value("${app.stats.cache.max-stale-ms:30000}")
+    private long maxStaleMs;
+
+    private ExecutorService refresher;
+    private SingleFlightCache<AdminStatsDTO> cache;
+
+    @PostConstruct
+    public void init() {
+        refresher = Executors.newSingleThreadExecutor();
+        cache = new SingleFlightCache<>(adminStatsCounters::snapshot, freshMs, maxStaleMs, refresher);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    public AdminStatsDTO get() {
+        return cache.get();
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.back.service;
+
+import com.example.back.dto.AdminStatsDTO;
+import com.example.back.repository.ArchivedOrderRepository;
+import com.example.back.repository.OrderRepository;
+import com.example.back.repository.ProductRepository;
+import com.example.back.repository.UserRepository;
+import com.example.back.stats.DailyCounterRing;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static com.example.back.service.TransactionHooks.afterCommit;
+
+/**
+ * Statistiques admin maintenues en mémoire : les chemins d'écriture incrémentent les compteurs,
+ * la lecture est en O(1) sans requête. Une réconciliation périodique avec la base corrige
+ * les écarts (autres nœuds, modifications SQL directes, redémarrage)
+ */
+@Slf4j
+@Service
+public class AdminStatsCounters {
+
+    // Fenêtre des "commandes récentes" : aujourd'hui et les 6 jours précédents
+    static final int RECENT_DAYS = 7;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private DistinctBuyersService distinctBuyersService;
+
+    @Autowired
+    private LowStockIndex lowStockIndex;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.stats.reconcile-threads:5}")
+    private int reconcileThreads;
+
+    @Value("${app.stats.reconcile-deadline-ms:3000}")
+    private long reconcileDeadlineMs;
+
+    private final LongAdder products = new LongAdder();
+    private final LongAdder users = new LongAdder();
+    private final LongAdder orders = new LongAdder();
+    private final DoubleAdder revenue = new DoubleAdder();
+    private final DailyCounterRing ordersPerDay = new DailyCounterRing(RECENT_DAYS + 1);
+
+    // Dernière réconciliation réussie de chaque champ, et champs dont la dernière a échoué ou expiré
+    private final Map<String, LocalDateTime> reconciledAt = new ConcurrentHashMap<>();
+    private final Set<String> staleFields = ConcurrentHashMap.newKeySet();
+
+    private ExecutorService reconcileExecutor;
+
+    @PostConstruct
+    public void init() {
+        reconcileExecutor = Executors.newFixedThreadPool(reconcileThreads);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reconcileExecutor.shutdownNow();
+    }
+
+    // =======================
+    // Chemins d'écriture
+    // =======================
+    public void orderCreated(double totalAmount, LocalDateTime orderDate) {
+        afterCommit(() -> {
+            orders.increment();
+            revenue.add(totalAmount);
+            ordersPerDay.increment(orderDate.toLocalDate());
+        });
+    }
+
+    public void productCreated() {
+        afterCommit(products::increment);
+    }
+
+    public void productDeleted() {
+        afterCommit(products::decrement);
+    }
+
+    public void userRegistered() {
+        afterCommit(users::increment);
+    }
+
+    // =======================
+    // Lecture
+    // =======================
+    public AdminStatsDTO snapshot() {
+        AdminStatsDTO stats = new AdminStatsDTO();
+        stats.setTotalProducts(products.sum());
+        stats.setTotalUsers(users.sum());
+        stats.setTotalOrders(orders.sum());
+        stats.setTotalRevenue(revenue.sum());
+        stats.setRecentOrders(ordersPerDay.sum(LocalDate.now(), RECENT_DAYS));
+        stats.setLowStockProducts(lowStockIndex.size());
+
+        LocalDate today = LocalDate.now();
+        stats.setDistinctBuyersToday(distinctBuyersService.countDistinctBuyers(today, today));
+        stats.setDistinctBuyersLast7Days(distinctBuyersService.countDistinctBuyers(today.minusDays(RECENT_DAYS - 1), today));
+        stats.setDistinctBuyersRelativeError(DistinctBuyersService.RELATIVE_ERROR);
+
+        stats.setReconciledAt(new LinkedHashMap<>(reconciledAt));
+        stats.setStaleFields(new ArrayList<>(new TreeSet<>(staleFields)));
+        return stats;
+    }
+
+    // =======================
+    // Réconciliation avec la base
+    // =======================
+
+    /**
+     * Requêtes de réconciliation lancées en parallèle avec une échéance commune : la durée est celle
+     * de la plus lente requête (bornée par app.stats.reconcile-deadline-ms), pas leur somme.
+     * Un champ dont la requête échoue ou dépasse l'échéance garde sa valeur incrémentale et est signalé
+     * dans staleFields jusqu'à la prochaine réconciliation réussie
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.stats.reconcile-interval-ms:300000}",
+            initialDelayString = "${app.stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        // Chaque requête renvoie la mise à jour à appliquer, exécutée ici une fois la requête terminée
+        Map<String, Supplier<Runnable>> queries = new LinkedHashMap<>();
+        queries.put("totalProducts", () -> {
+            long count = productRepository.count();
+            return () -> reset(products, count);
+        });
+        queries.put("totalUsers", () -> {
+            long count = userRepository.count();
+            return () -> reset(users, count);
+        });
+        queries.put("totalOrders", () -> {
+            long count = orderRepository.count() + archivedOrderRepository.count();
+            return () -> reset(orders, count);
+        });
+        queries.put("totalRevenue", () -> {
+            double total = orderRepository.sumTotalAmount() + archivedOrderRepository.sumTotalAmount();
+            return () -> {
+                revenue.reset();
+                revenue.add(total);
+            };
+        });
+        queries.put("recentOrders", () -> {
+            // Les commandes des 7 derniers jours ne sont jamais archivées
+            LocalDate today = LocalDate.now();
+            LocalDate firstDay = today.minusDays(RECENT_DAYS - 1);
+            List<Object[]> rows = orderRepository.countByDaySince(firstDay.atStartOfDay());
+            return () -> {
+                for (LocalDate day = firstDay; !day.isAfter(today); day = day.plusDays(1)) {
+                    ordersPerDay.set(day, 0);
+                }
+                for (Object[] row : rows) {
+                    ordersPerDay.set(toLocalDate(row[0]), ((Number) row[1]).longValue());
+                }
+            };
+        });
+
+        // Le délai de la transaction est reporté sur chaque requête JPA (timeout JDBC) : à l'échéance,
+        // la requête est aussi interrompue côté base, et pas seulement abandonnée par invokeAll
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        tx.setTimeout((int) Math.max(1, (reconcileDeadlineMs + 999) / 1000));
+        List<Callable<Runnable>> tasks = new ArrayList<>();
+        queries.values().forEach(query -> tasks.add(() -> tx.execute(status -> query.get())));
+
+        List<String> fields = new ArrayList<>(queries.keySet());
+        List<Future<Runnable>> results;
+        try {
+            // Les requêtes non terminées à l'échéance sont annulées
+            results = reconcileExecutor.invokeAll(tasks, reconcileDeadlineMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            staleFields.addAll(fields);
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < fields.size(); i++) {
+            String field = fields.get(i);
+            try {
+                results.get(i).get().run();
+                reconciledAt.put(field, now);
+                staleFields.remove(field);
+            } catch (CancellationException e) {
+                staleFields.add(field);
+                log.atWarn().addKeyValue("field", field).addKeyValue("deadlineMs", reconcileDeadlineMs)
+                        .log("Réconciliation hors délai");
+            } catch (ExecutionException e) {
+                staleFields.add(field);
+                log.atWarn().addKeyValue("field", field).setCause(e.getCause()).log("Réconciliation en échec");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                staleFields.add(field);
+                return;
+            }
+        }
+    }
+
+    private void reset(LongAdder adder, long value) {
+        adder.reset();
+        adder.add(value);
+    }
+
+    private LocalDate toLocalDate(Object value) {
+        return value instanceof java.sql.Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.back.service;
+
+import com.example.back.dto.AdminStatsDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Diffusion en direct des statistiques admin (SSE)
+ * Un seul calcul par intervalle, partagé par tous les tableaux de bord ouverts. Chaque abonné
+ * reçoit un "snapshot" complet à la connexion puis des "delta" ne contenant que les champs modifiés.
+ * Un abonné lent ne reçoit pas d'arriéré : seule la dernière valeur en attente lui est envoyée
+ */
+@Slf4j
+@Service
+public class AdminStatsStream {
+
+    private static final String SNAPSHOT_EVENT = "snapshot";
+    private static final String DELTA_EVENT = "delta";
+
+    @Autowired
+    private ProductService productService;
+
+    // Mapper Spring (JavaTimeModule, format des dates) : les deltas ont la même forme que les snapshots
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.stats.stream.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${app.stats.stream.sender-threads:4}")
+    private int senderThreads;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    // Envoi hors du thread planifié : un client lent ne retarde pas les autres
+    private Executor sender;
+
+    private volatile AdminStatsDTO latest;
+
+    @PostConstruct
+    public void init() {
+        sender = Executors.newFixedThreadPool(senderThreads);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (sender instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Calculer les statistiques une fois et les proposer à tous les abonnés si elles ont changé
+     */
+    @Scheduled(fixedDelayString = "${app.stats.stream.interval-ms:1000}")
+    public void publish() {
+        if (subscribers.isEmpty()) {
+            // Personne à l'écoute : aucun calcul, et pas de valeur périmée pour le prochain abonné
+            latest = null;
+            return;
+        }
+
+        AdminStatsDTO snapshot = productService.getAdminStats();
+        if (snapshot.equals(latest)) {
+            return;
+        }
+        latest = snapshot;
+        subscribers.forEach(subscriber -> offer(subscriber, snapshot));
+    }
+
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(emitterTimeoutMs));
+    }
+
+    SseEmitter subscribe(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        AdminStatsDTO current = latest;
+        if (current != null) {
+            offer(subscriber, current);
+        } else {
+            // Premier abonné : calcul immédiat, partagé avec ceux arrivés en même temps
+            AdminStatsDTO snapshot = productService.getAdminStats();
+            latest = snapshot;
+            subscribers.forEach(other -> offer(other, snapshot));
+        }
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Champs de next qui diffèrent de previous
+     */
+    @SuppressWarnings("unchecked")
+    Map<String, Object> delta(AdminStatsDTO previous, AdminStatsDTO next) {
+        Map<String, Object> before = objectMapper.convertValue(previous, Map.class);
+        Map<String, Object> after = objectMapper.convertValue(next, Map.class);
+        Map<String, Object> changed = new LinkedHashMap<>();
+        after.forEach((field, value) -> {
+            if (!Objects.equals(before.get(field), value)) {
+                changed.put(field, value);
+            }
+        });
+        return changed;
+    }
+
+    // Remplace la valeur en attente (jamais de file) et lance un envoi si aucun n'est en cours
+    private void offer(Subscriber subscriber, AdminStatsDTO snapshot) {
+        subscriber.pending.set(snapshot);
+        if (subscriber.sending.compareAndSet(false, true)) {
+            try {
+                sender.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                // Arrêt en cours
+                subscriber.sending.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            AdminStatsDTO next;
+            while ((next = subscriber.pending.getAndSet(null)) != null) {
+                if (!send(subscriber, next)) {
+                    return;
+                }
+            }
+        } finally {
+            subscriber.sending.set(false);
+        }
+
+        // Une valeur a pu arriver entre la dernière lecture et la libération du drapeau
+        AdminStatsDTO missed = subscriber.pending.get();
+        if (missed != null) {
+            offer(subscriber, missed);
+        }
+    }
+
+    private boolean send(Subscriber subscriber, AdminStatsDTO snapshot) {
+        try {
+            Map<String, Object> changed = null;
+            if (subscriber.lastSent != null) {
+                try {
+                    changed = delta(subscriber.lastSent, snapshot);
+                } catch (IllegalArgumentException e) {
+                    // Delta impossible à calculer : on renvoie l'état complet plutôt que de perdre l'abonné
+                    log.atWarn().setCause(e).log("Erreur calcul du delta des statistiques admin");
+                }
+            }
+            if (changed == null) {
+                subscriber.emitter.send(SseEmitter.event().name(SNAPSHOT_EVENT).data(snapshot));
+            } else if (changed.isEmpty()) {
+                return true;
+            } else {
+                subscriber.emitter.send(SseEmitter.event().name(DELTA_EVENT).data(changed));
+            }
+            subscriber.lastSent = snapshot;
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Client déconnecté
+            subscribers.remove(subscriber);
+            subscriber.pending.set(null);
+            subscriber.emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicReference<AdminStatsDTO> pending = new AtomicReference<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        // Lu et écrit uniquement par le thread qui détient "sending"
+        private AdminStatsDTO lastSent;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
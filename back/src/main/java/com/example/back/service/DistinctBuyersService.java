@@ -0,0 +1,169 @@
+package com.example.back.service;
+
+import com.example.back.model.DistinctBuyersSketch;
+import com.example.back.repository.ArchivedOrderRepository;
+import com.example.back.repository.DistinctBuyersSketchRepository;
+import com.example.back.repository.OrderRepository;
+import com.example.back.stats.HyperLogLog;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.example.back.service.TransactionHooks.afterCommit;
+
+/**
+ * Acheteurs distincts par jour (HyperLogLog), fusionnables sur n'importe quelle fenêtre
+ * Les sketches des derniers jours restent en mémoire et sont persistés périodiquement
+ * (4 Ko par jour). Ajouter deux fois le même acheteur ne change rien : rejouer des commandes
+ * déjà comptées après un redémarrage est sans effet
+ */
+@Slf4j
+@Service
+public class DistinctBuyersService {
+
+    static final int PRECISION = 12;
+
+    /**
+     * Erreur relative type des estimations (≈ 1,6 %) ; environ 95 % des estimations sont à moins du double
+     */
+    public static final double RELATIVE_ERROR = HyperLogLog.standardError(PRECISION);
+
+    @Autowired
+    private DistinctBuyersSketchRepository sketchRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.stats.distinct-buyers.memory-days:35}")
+    private int memoryDays;
+
+    private final Map<LocalDate, HyperLogLog> days = new ConcurrentHashMap<>();
+    private final Set<LocalDate> dirty = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Compter l'acheteur d'une commande (après validation de sa transaction)
+     */
+    public void recordOrder(Long userId, LocalDateTime orderDate) {
+        afterCommit(() -> add(orderDate.toLocalDate(), userId));
+    }
+
+    /**
+     * Nombre estimé d'acheteurs distincts entre deux jours inclus
+     */
+    public long countDistinctBuyers(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+
+        HyperLogLog merged = new HyperLogLog(PRECISION);
+        LocalDate memoryStart = memoryStart();
+
+        // Jours anciens : lus en base
+        if (from.isBefore(memoryStart)) {
+            LocalDate dbTo = to.isBefore(memoryStart) ? to : memoryStart.minusDays(1);
+            sketchRepository.findByDayBetween(from, dbTo)
+                    .forEach(sketch -> merged.merge(HyperLogLog.fromBytes(sketch.getRegisters())));
+        }
+
+        // Jours récents : en mémoire (un jour absent n'a pas d'acheteur)
+        LocalDate day = from.isBefore(memoryStart) ? memoryStart : from;
+        for (; !day.isAfter(to); day = day.plusDays(1)) {
+            HyperLogLog sketch = days.get(day);
+            if (sketch != null) {
+                merged.merge(sketch);
+            }
+        }
+        return merged.estimate();
+    }
+
+    /**
+     * Persister les jours modifiés, fusionnés avec la version en base (autres nœuds)
+     * Lecture, fusion et écriture sous verrou de ligne : deux nœuds ne s'écrasent pas
+     */
+    @Scheduled(fixedDelayString = "${app.stats.distinct-buyers.flush-interval-ms:60000}")
+    public void flush() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        for (LocalDate day : new ArrayList<>(dirty)) {
+            dirty.remove(day);
+            HyperLogLog sketch = days.get(day);
+            try {
+                tx.executeWithoutResult(status -> {
+                    sketchRepository.findByDay(day)
+                            .ifPresent(stored -> sketch.merge(HyperLogLog.fromBytes(stored.getRegisters())));
+                    sketchRepository.save(DistinctBuyersSketch.builder()
+                            .day(day)
+                            .registers(sketch.toBytes())
+                            .updatedAt(LocalDateTime.now())
+                            .build());
+                });
+            } catch (RuntimeException e) {
+                dirty.add(day);
+                log.atWarn().addKeyValue("day", day).setCause(e).log("Erreur écriture des acheteurs distincts");
+                return;
+            }
+        }
+
+        // Libérer les jours sortis de la fenêtre mémoire (déjà persistés)
+        LocalDate memoryStart = memoryStart();
+        days.keySet().removeIf(day -> day.isBefore(memoryStart) && !dirty.contains(day));
+    }
+
+    /**
+     * Démarrage : recharger les jours récents, puis rejouer les commandes depuis hier
+     * pour couvrir ce qui n'avait pas été persisté. Table vide : reconstruction depuis tout l'historique
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (sketchRepository.count() == 0) {
+            LocalDateTime origin = LocalDateTime.of(1970, 1, 1, 0, 0);
+            replay(archivedOrderRepository.findBuyerDaysSince(origin));
+            replay(orderRepository.findBuyerDaysSince(origin));
+        } else {
+            sketchRepository.findByDayBetween(memoryStart(), LocalDate.now()).forEach(sketch ->
+                    days.computeIfAbsent(sketch.getDay(), day -> new HyperLogLog(PRECISION))
+                            .merge(HyperLogLog.fromBytes(sketch.getRegisters())));
+            replay(orderRepository.findBuyerDaysSince(LocalDate.now().minusDays(1).atStartOfDay()));
+        }
+        flush();
+    }
+
+    private void replay(List<Object[]> buyerDays) {
+        for (Object[] row : buyerDays) {
+            add(toLocalDate(row[0]), ((Number) row[1]).longValue());
+        }
+    }
+
+    private void add(LocalDate day, long userId) {
+        days.computeIfAbsent(day, d -> new HyperLogLog(PRECISION)).add(userId);
+        dirty.add(day);
+    }
+
+    private LocalDate memoryStart() {
+        return LocalDate.now().minusDays(memoryDays - 1L);
+    }
+
+    private LocalDate toLocalDate(Object value) {
+        return value instanceof java.sql.Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.back.service;
+
+import com.example.back.dto.LowStockProductResponse;
+import com.example.back.model.Categorie;
+import com.example.back.model.Product;
+import com.example.back.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static com.example.back.service.TransactionHooks.afterCommit;
+
+/**
+ * Index des produits en stock faible, tenu à jour par les écritures (commande, modification, suppression)
+ * Le seuil est celui de la catégorie, ou app.stats.low-stock-threshold par défaut. Lister les produits
+ * ou les compter ne touche pas la base ; chaque passage du seuil est notifié aux abonnés SSE
+ */
+@Service
+public class LowStockIndex {
+
+    private static final String LOW_STOCK_EVENT = "low-stock";
+    private static final String RESTOCKED_EVENT = "restocked";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Value("${app.stats.low-stock-threshold:5}")
+    private int defaultThreshold;
+
+    @Value("${app.stats.low-stock.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    private final Map<Long, LowStockProductResponse> entries = new ConcurrentHashMap<>();
+    private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+
+    // Notifications hors du thread de la requête, dans l'ordre des passages de seuil
+    private final ExecutorService notifier = Executors.newSingleThreadExecutor();
+
+    @PreDestroy
+    public void shutdown() {
+        notifier.shutdownNow();
+    }
+
+    // =======================
+    // Chemins d'écriture
+    // =======================
+
+    /**
+     * Stock, catégorie ou seuil modifié : valeurs lues maintenant, appliquées après validation
+     */
+    public void productChanged(Product product) {
+        LowStockProductResponse entry = toEntry(product);
+        afterCommit(() -> apply(entry));
+    }
+
+    public void productDeleted(Long productId) {
+        afterCommit(() -> {
+            LowStockProductResponse removed = entries.remove(productId);
+            if (removed != null) {
+                notifySubscribers(RESTOCKED_EVENT, removed);
+            }
+        });
+    }
+
+    public int thresholdFor(Categorie category) {
+        return category != null && category.getLowStockThreshold() != null
+                ? category.getLowStockThreshold()
+                : defaultThreshold;
+    }
+
+    // =======================
+    // Lecture
+    // =======================
+
+    /**
+     * Produits en stock faible, du plus bas stock au plus haut
+     */
+    public Page<LowStockProductResponse> getLowStockProducts(int page, int size) {
+        List<LowStockProductResponse> sorted = entries.values().stream()
+                .sorted(Comparator.comparingInt(LowStockProductResponse::getStockQuantity)
+                        .thenComparing(LowStockProductResponse::getProductId))
+                .collect(Collectors.toList());
+
+        int from = (int) Math.min((long) page * size, sorted.size());
+        int to = Math.min(from + size, sorted.size());
+        return new PageImpl<>(sorted.subList(from, to), PageRequest.of(page, size), sorted.size());
+    }
+
+    public long size() {
+        return entries.size();
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(e -> subscribers.remove(emitter));
+        subscribers.add(emitter);
+        return emitter;
+    }
+
+    // =======================
+    // Réconciliation avec la base
+    // =======================
+
+    /**
+     * Vérifier périodiquement l'index contre la base (autres nœuds, SQL direct) par une empreinte
+     * agrégée ; il n'est reconstruit qu'en cas d'écart
+     */
+    @Scheduled(fixedDelayString = "${app.stats.reconcile-interval-ms:300000}",
+            initialDelayString = "${app.stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        Object[] stored = productRepository.lowStockFingerprint(defaultThreshold).get(0);
+        long count = 0;
+        long idSum = 0;
+        long stockSum = 0;
+        for (LowStockProductResponse entry : entries.values()) {
+            count++;
+            idSum += entry.getProductId();
+            stockSum += entry.getStockQuantity();
+        }
+        if (((Number) stored[0]).longValue() != count
+                || ((Number) stored[1]).longValue() != idSum
+                || ((Number) stored[2]).longValue() != stockSum) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Reconstruire l'index depuis la base (démarrage, ou écart détecté)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Map<Long, LowStockProductResponse> lowStock = productRepository.findLowStock(defaultThreshold).stream()
+                .map(this::toEntry)
+                .collect(Collectors.toMap(LowStockProductResponse::getProductId, entry -> entry));
+        entries.keySet().retainAll(lowStock.keySet());
+        entries.putAll(lowStock);
+    }
+
+    private void apply(LowStockProductResponse entry) {
+        if (entry.getStockQuantity() < entry.getThreshold()) {
+            if (entries.put(entry.getProductId(), entry) == null) {
+                notifySubscribers(LOW_STOCK_EVENT, entry);
+            }
+        } else if (entries.remove(entry.getProductId()) != null) {
+            notifySubscribers(RESTOCKED_EVENT, entry);
+        }
+    }
+
+    private void notifySubscribers(String eventName, LowStockProductResponse entry) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        notifier.execute(() -> subscribers.forEach(emitter -> {
+            try {
+                emitter.send(SseEmitter.event().name(eventName).data(entry));
+            } catch (IOException | IllegalStateException e) {
+                // Client déconnecté
+                subscribers.remove(emitter);
+                emitter.completeWithError(e);
+            }
+        }));
+    }
+
+    private LowStockProductResponse toEntry(Product product) {
+        return LowStockProductResponse.builder()
+                .productId(product.getId())
+                .productName(product.getName())
+                .categoryName(product.getCategory() != null ? product.getCategory().getName() : null)
+                .stockQuantity(product.getStockQuantity())
+                .threshold(thresholdFor(product.getCategory()))
+                .build();
+    }
+}
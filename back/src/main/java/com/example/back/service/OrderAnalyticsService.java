@@ -0,0 +1,394 @@
+package com.example.back.service;
+
+import com.example.back.dto.CategoryWeekRevenueResponse;
+import com.example.back.dto.CohortResponse;
+import com.example.back.dto.OrderEventResponse;
+import com.example.back.model.OrderEventType;
+import com.example.back.model.OrderStatus;
+import com.example.back.repository.ArchivedOrderRepository;
+import com.example.back.repository.OrderRepository;
+import com.example.back.repository.ProductRepository;
+import com.example.back.stats.OrderColumnStore;
+import com.example.back.stats.ParallelGroupBy;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+/**
+ * Rapports de ventes ad hoc calculés sur une copie en colonnes des commandes (OrderColumnStore)
+ * Chargée une fois au démarrage, puis tenue à jour par le flux de l'outbox (OrderEventRelay) :
+ * seules les commandes nouvelles sont lues en base, une fois. Les rapports ne touchent pas MySQL
+ * et les GROUP BY sont parallélisés en fork-join
+ */
+@Slf4j
+@Service
+public class OrderAnalyticsService {
+
+    private static final int LOAD_BATCH_SIZE = 5000;
+    private static final int FETCH_BATCH_SIZE = 500;
+    private static final long NO_CATEGORY = 0L;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderEventRelay orderEventRelay;
+
+    @Value("${app.analytics.parallelism:4}")
+    private int parallelism;
+
+    @Value("${app.analytics.max-weeks:520}")
+    private int maxWeeks;
+
+    // Au-delà, la file est abandonnée et l'analytique entièrement rechargée
+    @Value("${app.analytics.max-pending-events:100000}")
+    private int maxPendingEvents;
+
+    @Value("${app.analytics.reload-backoff-ms:30000}")
+    private long reloadBackoffMs;
+
+    private volatile OrderColumnStore store = new OrderColumnStore();
+    private final Queue<OrderEventResponse> pendingEvents = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    // Catégorie de chaque produit (la catégorie d'une ligne est figée à son ajout)
+    private final Map<Long, Long> categoryByProduct = new ConcurrentHashMap<>();
+    private final Map<Long, String> categoryNames = new ConcurrentHashMap<>();
+
+    private ForkJoinPool pool;
+    private volatile boolean loaded;
+
+    // Événements mis en file seulement une fois un chargement commencé
+    private volatile boolean buffering;
+    private long nextLoadAt;
+
+    @PostConstruct
+    public void init() {
+        pool = new ForkJoinPool(parallelism);
+        orderEventRelay.addListener(this::enqueue);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // =======================
+    // CHARGEMENT
+    // =======================
+
+    /**
+     * Chargement complet : archives puis commandes actives, par tranches d'identifiants
+     * Les événements reçus pendant ce temps attendent dans la file (les doublons sont ignorés)
+     * En cas d'échec, apply() retente après reload-backoff-ms, depuis un état vide
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        if (loaded) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        store = new OrderColumnStore();
+        categoryByProduct.clear();
+        categoryNames.clear();
+        pendingEvents.clear();
+        pendingCount.set(0);
+        buffering = true;
+        try {
+            loadCategories(productRepository.findProductCategories());
+            loadRange(archivedOrderRepository.findMaxId(), archivedOrderRepository::findOrderLinesInRange);
+            loadRange(orderRepository.findMaxId(), orderRepository::findOrderLinesInRange);
+            store.publish();
+            loaded = true;
+            log.atInfo()
+                    .addKeyValue("orders", store.snapshot().orderCount())
+                    .addKeyValue("durationMs", System.currentTimeMillis() - start)
+                    .log("Analytique chargée");
+        } catch (Exception e) {
+            buffering = false;
+            pendingEvents.clear();
+            pendingCount.set(0);
+            nextLoadAt = System.currentTimeMillis() + reloadBackoffMs;
+            log.error("Échec du chargement de l'analytique", e);
+        }
+    }
+
+    /**
+     * Appliquer les événements de commande reçus depuis le dernier passage,
+     * ou retenter le chargement s'il a échoué ou a été abandonné
+     */
+    @Scheduled(fixedDelayString = "${app.analytics.apply-interval-ms:2000}")
+    public synchronized void apply() {
+        if (!loaded) {
+            if (System.currentTimeMillis() >= nextLoadAt) {
+                load();
+            }
+            return;
+        }
+        if (pendingEvents.isEmpty()) {
+            return;
+        }
+        List<OrderEventResponse> events = new ArrayList<>();
+        OrderEventResponse event;
+        while ((event = pendingEvents.poll()) != null) {
+            pendingCount.decrementAndGet();
+            events.add(event);
+        }
+
+        List<Long> created = events.stream()
+                .filter(e -> OrderEventType.ORDER_CREATED.name().equals(e.getType()))
+                .map(OrderEventResponse::getOrderId)
+                .filter(id -> !store.contains(id))
+                .distinct()
+                .toList();
+        try {
+            for (int i = 0; i < created.size(); i += FETCH_BATCH_SIZE) {
+                List<Object[]> rows = orderRepository.findOrderLinesByIds(
+                        created.subList(i, Math.min(i + FETCH_BATCH_SIZE, created.size())));
+                resolveUnknownProducts(rows);
+                appendRows(rows);
+            }
+        } catch (Exception e) {
+            // Réessayer au prochain passage
+            enqueue(events);
+            log.atWarn().addKeyValue("events", events.size()).setCause(e).log("Échec de la mise à jour de l'analytique");
+            return;
+        }
+
+        // Statuts appliqués dans l'ordre du flux, après les lectures (qui donnent déjà le statut courant)
+        for (OrderEventResponse e : events) {
+            if (OrderEventType.STATUS_CHANGED.name().equals(e.getType()) && e.getStatus() != null) {
+                store.setStatus(e.getOrderId(), statusCode(OrderStatus.valueOf(e.getStatus())));
+            }
+        }
+        store.publish();
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // Appelé par le relais de l'outbox, et par apply() pour remettre en file après un échec
+    private void enqueue(List<OrderEventResponse> events) {
+        if (!buffering) {
+            // Aucun chargement en cours : le prochain lira ces commandes en base
+            return;
+        }
+        if (pendingCount.addAndGet(events.size()) > maxPendingEvents) {
+            // Retard trop important : rechargement complet plutôt qu'une file sans borne
+            buffering = false;
+            loaded = false;
+            pendingEvents.clear();
+            pendingCount.set(0);
+            log.atWarn().addKeyValue("maxPendingEvents", maxPendingEvents).log("File de l'analytique saturée, rechargement");
+            return;
+        }
+        pendingEvents.addAll(events);
+    }
+
+    // =======================
+    // RAPPORTS
+    // =======================
+
+    /**
+     * Chiffre d'affaires et unités vendues par catégorie et par semaine (lundi), entre deux jours inclus
+     * Un statut optionnel restreint le calcul aux commandes dans ce statut
+     */
+    public List<CategoryWeekRevenueResponse> revenueByCategory(LocalDate from, LocalDate to, OrderStatus status) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (from.plusWeeks(maxWeeks).isBefore(to)) {
+            throw new IllegalArgumentException("Range too large: more than " + maxWeeks + " weeks");
+        }
+        OrderColumnStore.Snapshot s = snapshot();
+        long fromSecond = from.atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+        long toSecond = to.plusDays(1).atStartOfDay().toEpochSecond(ZoneOffset.UTC);
+        int statusFilter = status == null ? -1 : statusCode(status);
+
+        // Clé : catégorie (32 bits hauts) | lundi de la semaine en jours epoch ; valeurs : centimes, unités
+        Map<Long, long[]> groups = ParallelGroupBy.run(pool, s.itemCount(), (row, acc) -> {
+            int orderRow = s.itemOrderRows()[row];
+            long second = s.orderSeconds()[orderRow];
+            if (second < fromSecond || second >= toSecond
+                    || (statusFilter >= 0 && s.statuses()[orderRow] != statusFilter)) {
+                return;
+            }
+            long key = (s.itemCategoryIds()[row] << 32) | weekStart(Math.floorDiv(second, 86_400L));
+            long[] values = acc.computeIfAbsent(key, k -> new long[2]);
+            values[0] += s.itemCents()[row];
+            values[1] += s.itemQuantities()[row];
+        }, ParallelGroupBy.SUM);
+
+        List<CategoryWeekRevenueResponse> result = new ArrayList<>(groups.size());
+        groups.forEach((key, values) -> {
+            long categoryId = key >>> 32;
+            result.add(CategoryWeekRevenueResponse.builder()
+                    .categoryId(categoryId == NO_CATEGORY ? null : categoryId)
+                    .categoryName(categoryNames.get(categoryId))
+                    .weekStart(LocalDate.ofEpochDay(key & 0xFFFF_FFFFL))
+                    .revenue(values[0] / 100.0)
+                    .units(values[1])
+                    .build());
+        });
+        result.sort(Comparator.comparing(CategoryWeekRevenueResponse::getWeekStart)
+                .thenComparing(CategoryWeekRevenueResponse::getRevenue, Comparator.reverseOrder()));
+        return result;
+    }
+
+    /**
+     * Cohortes par mois de première commande : clients, commandes, clients revenus et commandes répétées
+     */
+    public List<CohortResponse> cohorts() {
+        OrderColumnStore.Snapshot s = snapshot();
+
+        // Passe 1 : par client -> première commande (seconde epoch), nombre de commandes, centimes
+        Map<Long, long[]> customers = ParallelGroupBy.run(pool, s.orderCount(), (row, acc) -> {
+            long second = s.orderSeconds()[row];
+            long[] values = acc.computeIfAbsent(s.userIds()[row], k -> new long[]{Long.MAX_VALUE, 0, 0});
+            values[0] = Math.min(values[0], second);
+            values[1]++;
+            values[2] += s.orderCents()[row];
+        }, (into, from) -> {
+            into[0] = Math.min(into[0], from[0]);
+            into[1] += from[1];
+            into[2] += from[2];
+        });
+
+        // Passe 2 : par mois de cohorte (peu de groupes, séquentiel)
+        Map<YearMonth, long[]> byMonth = new TreeMap<>();
+        customers.values().forEach(values -> {
+            YearMonth month = YearMonth.from(LocalDateTime.ofEpochSecond(values[0], 0, ZoneOffset.UTC));
+            long[] cohort = byMonth.computeIfAbsent(month, k -> new long[5]);
+            cohort[0]++;
+            cohort[1] += values[1];
+            if (values[1] > 1) {
+                cohort[2]++;
+                cohort[3] += values[1] - 1;
+            }
+            cohort[4] += values[2];
+        });
+
+        List<CohortResponse> result = new ArrayList<>(byMonth.size());
+        byMonth.forEach((month, cohort) -> result.add(CohortResponse.builder()
+                .cohortMonth(month.toString())
+                .customers(cohort[0])
+                .orders(cohort[1])
+                .repeatCustomers(cohort[2])
+                .repeatOrders(cohort[3])
+                .revenue(cohort[4] / 100.0)
+                .build()));
+        return result;
+    }
+
+    // =======================
+    // MÉTHODES PRIVÉES
+    // =======================
+
+    private OrderColumnStore.Snapshot snapshot() {
+        if (!loaded) {
+            throw new IllegalStateException("Analytics are still loading");
+        }
+        return store.snapshot();
+    }
+
+    private void loadRange(long maxId, BiFunction<Long, Long, List<Object[]>> lines) {
+        for (long afterId = 0; afterId < maxId; afterId += LOAD_BATCH_SIZE) {
+            appendRows(lines.apply(afterId, Math.min(afterId + LOAD_BATCH_SIZE, maxId)));
+        }
+    }
+
+    /**
+     * Lignes (o.id, o.user_id, o.order_date, o.status, o.total_amount, oi.product_id, oi.quantity,
+     * oi.unit_price) triées par commande ; une commande sans article a une seule ligne à produit nul
+     */
+    private void appendRows(List<Object[]> rows) {
+        int i = 0;
+        while (i < rows.size()) {
+            Object[] first = rows.get(i);
+            long orderId = ((Number) first[0]).longValue();
+            List<OrderColumnStore.Item> items = new ArrayList<>();
+            for (; i < rows.size() && ((Number) rows.get(i)[0]).longValue() == orderId; i++) {
+                Object[] row = rows.get(i);
+                if (row[5] != null) {
+                    long productId = ((Number) row[5]).longValue();
+                    int quantity = ((Number) row[6]).intValue();
+                    items.add(new OrderColumnStore.Item(productId, categoryByProduct.getOrDefault(productId, NO_CATEGORY),
+                            quantity, toCents(((Number) row[7]).doubleValue() * quantity)));
+                }
+            }
+            store.appendOrder(orderId, ((Number) first[1]).longValue(),
+                    toLocalDateTime(first[2]).toEpochSecond(ZoneOffset.UTC),
+                    toCents(((Number) first[4]).doubleValue()),
+                    statusCode(OrderStatus.valueOf(first[3].toString())), items);
+        }
+    }
+
+    private void resolveUnknownProducts(List<Object[]> rows) {
+        List<Long> unknown = rows.stream()
+                .filter(row -> row[5] != null)
+                .map(row -> ((Number) row[5]).longValue())
+                .filter(id -> !categoryByProduct.containsKey(id))
+                .distinct()
+                .toList();
+        if (!unknown.isEmpty()) {
+            loadCategories(productRepository.findProductCategories(unknown));
+        }
+    }
+
+    private void loadCategories(List<Object[]> rows) {
+        for (Object[] row : rows) {
+            long categoryId = row[1] == null ? NO_CATEGORY : ((Number) row[1]).longValue();
+            categoryByProduct.put(((Number) row[0]).longValue(), categoryId);
+            if (row[2] != null) {
+                categoryNames.put(categoryId, (String) row[2]);
+            }
+        }
+    }
+
+    private static long weekStart(long epochDay) {
+        // 1970-01-01 était un jeudi : (jour + 3) mod 7 = 0 le lundi
+        return epochDay - Math.floorMod(epochDay + 3, 7);
+    }
+
+    private static byte statusCode(OrderStatus status) {
+        return (byte) status.ordinal();
+    }
+
+    private static long toCents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+}
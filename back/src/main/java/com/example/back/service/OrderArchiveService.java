@@ -0,0 +1,64 @@
+package com.example.back.service;
+
+import com.example.back.model.OrderStatus;
+import com.example.back.repository.ArchivedOrderRepository;
+import com.example.back.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Déplace les commandes clôturées (DELIVERED) anciennes de la table chaude orders
+ * vers orders_archive / order_items_archive, par lots
+ */
+@Service
+public class OrderArchiveService {
+
+    // Les statistiques "7 derniers jours" ne lisent que la table chaude
+    private static final int MIN_HORIZON_DAYS = 7;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Value("${app.orders.archive.horizon-days:365}")
+    private int horizonDays;
+
+    @Value("${app.orders.archive.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Date limite : les commandes clôturées antérieures sont archivées
+     */
+    public LocalDateTime cutoff() {
+        return LocalDateTime.now().minusDays(Math.max(horizonDays, MIN_HORIZON_DAYS));
+    }
+
+    /**
+     * Archiver un lot de commandes dans une seule transaction
+     * Retourne le nombre de commandes déplacées (0 quand il n'y a plus rien à archiver)
+     */
+    @Transactional
+    public int archiveBatch(LocalDateTime cutoff) {
+        List<Long> ids = orderRepository.findIdsByStatusAndOrderDateBefore(
+                OrderStatus.DELIVERED, cutoff, PageRequest.of(0, batchSize));
+
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        archivedOrderRepository.copyOrders(ids);
+        archivedOrderRepository.copyOrderItems(ids);
+        orderRepository.deleteItemsByOrderIds(ids);
+        orderRepository.deleteByIds(ids);
+
+        return ids.size();
+    }
+}
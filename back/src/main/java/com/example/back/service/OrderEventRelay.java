@@ -0,0 +1,343 @@
+package com.example.back.service;
+
+import com.example.back.dto.OrderEventResponse;
+import com.example.back.model.OrderEvent;
+import com.example.back.repository.OrderEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Relais de l'outbox des commandes : une seule lecture périodique de la table order_outbox
+ * par nœud, diffusée à tous les abonnés SSE. Le coût base de données ne dépend plus
+ * du nombre de tableaux de bord ouverts. Les envois se font hors du thread de relais, par abonné :
+ * un client lent ou à moitié déconnecté ne retarde ni le relais ni les autres abonnés
+ */
+@Service
+public class OrderEventRelay {
+
+    private static final String EVENT_NAME = "order";
+
+    @Autowired
+    private OrderEventRepository orderEventRepository;
+
+    @Value("${app.orders.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.orders.outbox.replay-buffer-size:1000}")
+    private int replayBufferSize;
+
+    @Value("${app.orders.outbox.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${app.orders.outbox.gap-grace-ms:2000}")
+    private long gapGraceMs;
+
+    @Value("${app.orders.outbox.retention-days:7}")
+    private int retentionDays;
+
+    @Value("${app.orders.outbox.sender-threads:4}")
+    private int senderThreads;
+
+    // Au-delà, l'abonné est fermé : il reprendra depuis son Last-Event-ID en se reconnectant
+    @Value("${app.orders.outbox.subscriber-queue-size:5000}")
+    private int subscriberQueueSize;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private Executor sender;
+
+    // Consommateurs internes du flux (analytique), appelés dans l'ordre de l'outbox
+    private final List<Consumer<List<OrderEventResponse>>> listeners = new CopyOnWriteArrayList<>();
+
+    // Derniers événements diffusés, pour reprendre un abonné sans requête
+    private final Deque<OrderEventResponse> recentEvents = new ArrayDeque<>();
+
+    // Protège lastEventId, recentEvents et l'ordre diffusion / abonnement (jamais d'envoi ni de requête dessous)
+    private final Object lock = new Object();
+
+    private long lastEventId;
+
+    // Premier identifiant manquant observé, et depuis quand (relay() n'est jamais concurrent)
+    private long gapId;
+    private long gapSince;
+
+    @PostConstruct
+    public void init() {
+        // Les nouveaux abonnés ne reçoivent que les événements postérieurs au démarrage
+        lastEventId = orderEventRepository.findMaxId();
+        sender = Executors.newFixedThreadPool(senderThreads);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (sender instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Lire les nouveaux événements de l'outbox et les diffuser
+     */
+    @Scheduled(fixedDelayString = "${app.orders.outbox.poll-interval-ms:500}")
+    public void relay() {
+        long from;
+        synchronized (lock) {
+            from = lastEventId;
+        }
+
+        List<OrderEventResponse> events = contiguous(from, orderEventRepository
+                .findByIdGreaterThanOrderByIdAsc(from, PageRequest.of(0, batchSize))
+                .stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList()));
+
+        if (events.isEmpty()) {
+            return;
+        }
+
+        synchronized (lock) {
+            for (OrderEventResponse event : events) {
+                recentEvents.addLast(event);
+                if (recentEvents.size() > replayBufferSize) {
+                    recentEvents.removeFirst();
+                }
+            }
+            lastEventId = events.get(events.size() - 1).getId();
+            // Simple remise dans la file de chaque abonné : l'envoi se fait sur le pool d'envoi
+            subscribers.forEach(subscriber -> offer(subscriber, events));
+        }
+        // relay() n'est jamais concurrent : l'ordre de l'outbox est conservé pour les consommateurs
+        listeners.forEach(listener -> listener.accept(events));
+    }
+
+    /**
+     * Abonner un client ; s'il fournit Last-Event-ID, les événements manqués sont rejoués d'abord
+     */
+    public SseEmitter subscribe(Long resumeFrom) {
+        return subscribe(new SseEmitter(emitterTimeoutMs), resumeFrom);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, Long resumeFrom) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> close(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(e -> close(subscriber));
+
+        synchronized (lock) {
+            if (resumeFrom != null && resumeFrom < lastEventId) {
+                OrderEventResponse oldest = recentEvents.peekFirst();
+                if (oldest != null && oldest.getId() <= resumeFrom + 1) {
+                    // Tout est encore dans le tampon mémoire
+                    for (OrderEventResponse event : recentEvents) {
+                        if (event.getId() > resumeFrom) {
+                            subscriber.pending.add(event);
+                            subscriber.queued.incrementAndGet();
+                        }
+                    }
+                } else {
+                    // Déconnexion trop longue : relecture de l'outbox par le pool d'envoi, hors verrou
+                    subscriber.replayFrom = resumeFrom;
+                    subscriber.replayTo = lastEventId;
+                }
+            }
+            // Les événements postérieurs à lastEventId arriveront par offer()
+            subscribers.add(subscriber);
+        }
+        schedule(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Purger les événements diffusés depuis plus de retention-days jours
+     */
+    @Scheduled(cron = "${app.orders.outbox.purge-cron:0 0 4 * * *}")
+    @Transactional
+    public void purge() {
+        orderEventRepository.deleteByOccurredAtBefore(LocalDateTime.now().minusDays(retentionDays));
+    }
+
+    /**
+     * Recevoir les événements diffusés, dans l'ordre (le consommateur doit rendre la main rapidement)
+     */
+    public void addListener(Consumer<List<OrderEventResponse>> listener) {
+        listeners.add(listener);
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Un trou dans les identifiants peut être une transaction encore en cours (id réservé, pas encore validé) :
+     * on s'arrête avant le trou tant qu'il a été vu récemment, et on le saute ensuite (transaction annulée).
+     * Le délai part de la première observation du trou et non de occurredAt, qui peut être bien antérieur
+     * à la validation (transitions en masse horodatées au début de la requête)
+     */
+    List<OrderEventResponse> contiguous(long from, List<OrderEventResponse> events) {
+        long now = System.currentTimeMillis();
+        long expected = from + 1;
+        for (int i = 0; i < events.size(); i++) {
+            OrderEventResponse event = events.get(i);
+            if (event.getId() != expected) {
+                if (gapId != expected) {
+                    gapId = expected;
+                    gapSince = now;
+                }
+                if (now - gapSince < gapGraceMs) {
+                    return events.subList(0, i);
+                }
+            }
+            expected = event.getId() + 1;
+        }
+        return events;
+    }
+
+    // Sous le verrou : ne fait que mettre en file, sans bloquer
+    private void offer(Subscriber subscriber, List<OrderEventResponse> events) {
+        if (subscriber.queued.addAndGet(events.size()) > subscriberQueueSize) {
+            // Client trop lent : fermeture explicite plutôt que des événements perdus en silence
+            subscribers.remove(subscriber);
+            subscriber.closed = true;
+            subscriber.pending.clear();
+            subscriber.emitter.complete();
+            return;
+        }
+        subscriber.pending.addAll(events);
+        schedule(subscriber);
+    }
+
+    // Lance un envoi si aucun n'est en cours pour cet abonné
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.sending.compareAndSet(false, true)) {
+            try {
+                sender.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                // Arrêt en cours
+                subscriber.sending.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            if (subscriber.replayFrom < subscriber.replayTo && !replay(subscriber)) {
+                return;
+            }
+            OrderEventResponse event;
+            while (!subscriber.closed && (event = subscriber.pending.poll()) != null) {
+                subscriber.queued.decrementAndGet();
+                if (!send(subscriber, event)) {
+                    return;
+                }
+            }
+        } finally {
+            subscriber.sending.set(false);
+        }
+
+        // Un événement a pu arriver entre la dernière lecture et la libération du drapeau
+        if (!subscriber.closed && !subscriber.pending.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    /**
+     * Relire l'outbox page par page (sur le dernier identifiant envoyé) jusqu'à la position
+     * de l'abonnement ; les événements suivants sont déjà dans la file de l'abonné
+     */
+    private boolean replay(Subscriber subscriber) {
+        long after = subscriber.replayFrom;
+        List<OrderEvent> page;
+        try {
+            do {
+                page = orderEventRepository.findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(
+                        after, subscriber.replayTo, PageRequest.of(0, replayBufferSize));
+                for (OrderEvent event : page) {
+                    if (!send(subscriber, toResponse(event))) {
+                        return false;
+                    }
+                    after = event.getId();
+                }
+            } while (page.size() == replayBufferSize);
+        } catch (RuntimeException e) {
+            // Reprise impossible : le client se reconnectera avec le même Last-Event-ID
+            close(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return false;
+        }
+        subscriber.replayFrom = subscriber.replayTo;
+        return true;
+    }
+
+    private boolean send(Subscriber subscriber, OrderEventResponse event) {
+        try {
+            subscriber.emitter.send(SseEmitter.event()
+                    .id(String.valueOf(event.getId()))
+                    .name(EVENT_NAME)
+                    .data(event));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Client déconnecté
+            close(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        subscriber.closed = true;
+        subscriber.pending.clear();
+    }
+
+    private OrderEventResponse toResponse(OrderEvent event) {
+        return OrderEventResponse.builder()
+                .id(event.getId())
+                .orderId(event.getOrderId())
+                .userId(event.getUserId())
+                .type(event.getType().name())
+                .status(event.getStatus() != null ? event.getStatus().name() : null)
+                .totalAmount(event.getTotalAmount())
+                .occurredAt(event.getOccurredAt())
+                .build();
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Queue<OrderEventResponse> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile boolean closed;
+
+        // Intervalle à relire depuis l'outbox ; écrit avant le premier envoi, lu par le thread qui détient "sending"
+        private long replayFrom;
+        private long replayTo;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.back.service;
+
+import com.example.back.model.OrderStatus;
+import com.example.back.repository.OrderEventRepository;
+import com.example.back.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Traitement des commandes PENDING : réservation par lots avec bail, puis passage en PROCESSING
+ * Le bail (claimToken + claimExpiresAt) permet à plusieurs nœuds de se partager le travail ;
+ * une commande dont le nœud est tombé est reprise à l'expiration du bail
+ */
+@Service
+public class OrderFulfillmentService {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderEventRepository orderEventRepository;
+
+    @Value("${app.orders.fulfillment.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.orders.fulfillment.lease-seconds:60}")
+    private long leaseSeconds;
+
+    /**
+     * Réserver un lot de commandes pour ce jeton
+     * Retourne les identifiants réservés (liste vide si rien à traiter)
+     */
+    @Transactional
+    public List<Long> claimBatch(String claimToken) {
+        LocalDateTime now = LocalDateTime.now();
+        int claimed = orderRepository.claimPending(claimToken, now.plusSeconds(leaseSeconds), now, batchSize);
+        if (claimed == 0) {
+            return Collections.emptyList();
+        }
+        return orderRepository.findIdsByClaimToken(claimToken);
+    }
+
+    /**
+     * Traiter une commande réservée : PENDING → PROCESSING
+     * Retourne false si le bail a été perdu entre-temps (commande reprise par un autre nœud)
+     */
+    @Transactional
+    public boolean fulfill(Long orderId, String claimToken) {
+        LocalDateTime changedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        if (orderRepository.completeClaim(orderId, claimToken,
+                OrderStatus.PENDING, OrderStatus.PROCESSING, changedAt) != 1) {
+            return false;
+        }
+
+        // Outbox, dans la même transaction que le changement de statut
+        orderEventRepository.appendStatusChanges(List.of(orderId), OrderStatus.PROCESSING.name(), changedAt);
+        return true;
+    }
+}
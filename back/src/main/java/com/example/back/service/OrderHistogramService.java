@@ -0,0 +1,317 @@
+package com.example.back.service;
+
+import com.example.back.dto.OrderDistributionResponse;
+import com.example.back.model.HistogramMetric;
+import com.example.back.model.OrderHistogram;
+import com.example.back.repository.ArchivedOrderRepository;
+import com.example.back.repository.OrderHistogramRepository;
+import com.example.back.repository.OrderRepository;
+import com.example.back.stats.LogLinearHistogram;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+import static com.example.back.service.TransactionHooks.afterCommit;
+
+/**
+ * Distribution des commandes (montant, articles par commande) : un histogramme par jour et par grandeur
+ * Les jours récents sont en mémoire ; seul le delta depuis la dernière écriture est ajouté en base,
+ * sous verrou de ligne, ce qui reste juste avec plusieurs nœuds. Un quantile sur une période
+ * se calcule en fusionnant les histogrammes journaliers, sans trier les commandes.
+ * Les deltas sont écrits à l'arrêt ; après un arrêt brutal, la veille et le jour du démarrage
+ * sont recalculés depuis les commandes une fois clos (aucun nœud n'a plus de delta pour eux)
+ */
+@Slf4j
+@Service
+public class OrderHistogramService {
+
+    private static final int REBUILD_BATCH_SIZE = 5000;
+
+    @Autowired
+    private OrderHistogramRepository histogramRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.stats.histograms.memory-days:35}")
+    private int memoryDays;
+
+    @Value("${app.stats.histograms.max-days:3660}")
+    private int maxDays;
+
+    @Value("${app.stats.histograms.flush-interval-ms:30000}")
+    private long flushIntervalMs;
+
+    private final Map<Key, Slot> slots = new ConcurrentHashMap<>();
+    private final Set<Key> dirty = ConcurrentHashMap.newKeySet();
+
+    // Jours dont les deltas ont pu être perdus avant le démarrage, à recalculer une fois clos
+    private final Set<LocalDate> repairDays = ConcurrentHashMap.newKeySet();
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Enregistrer une commande (après validation de sa transaction)
+     */
+    public void recordOrder(double totalAmount, int itemCount, LocalDateTime orderDate) {
+        afterCommit(() -> record(orderDate.toLocalDate(), totalAmount, itemCount));
+    }
+
+    /**
+     * Quantiles d'une grandeur entre deux jours inclus
+     */
+    public OrderDistributionResponse getDistribution(HistogramMetric metric, LocalDate from, LocalDate to,
+                                                     List<Double> quantiles) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (from.plusDays(maxDays).isBefore(to)) {
+            throw new IllegalArgumentException("Range too large: more than " + maxDays + " days");
+        }
+        for (Double q : quantiles) {
+            if (q == null || q < 0 || q > 1) {
+                throw new IllegalArgumentException("Quantiles must be between 0 and 1");
+            }
+        }
+
+        LogLinearHistogram merged = new LogLinearHistogram();
+        LocalDate memoryStart = memoryStart();
+
+        // Jours anciens : lus en base
+        if (from.isBefore(memoryStart)) {
+            LocalDate dbTo = to.isBefore(memoryStart) ? to : memoryStart.minusDays(1);
+            histogramRepository.findByMetricAndDayBetween(metric, from, dbTo)
+                    .forEach(row -> merged.merge(LogLinearHistogram.fromBytes(row.getData())));
+        }
+
+        // Jours récents : en mémoire
+        LocalDate day = from.isBefore(memoryStart) ? memoryStart : from;
+        for (; !day.isAfter(to); day = day.plusDays(1)) {
+            Slot slot = slots.get(new Key(day, metric));
+            if (slot != null) {
+                merged.merge(slot.full());
+            }
+        }
+
+        Map<String, Double> values = new LinkedHashMap<>();
+        quantiles.forEach(q -> values.put(String.valueOf(q), metric.fromRecorded(merged.valueAtQuantile(q))));
+
+        long count = merged.getTotalCount();
+        return OrderDistributionResponse.builder()
+                .metric(metric.name())
+                .from(from)
+                .to(to)
+                .count(count)
+                .min(metric.fromRecorded(merged.getMin()))
+                .max(metric.fromRecorded(merged.getMax()))
+                .mean(count == 0 ? 0 : metric.fromRecorded(merged.getSum()) / count)
+                .quantiles(values)
+                .build();
+    }
+
+    /**
+     * Ajouter en base le delta de chaque jour modifié
+     */
+    @Scheduled(fixedDelayString = "${app.stats.histograms.flush-interval-ms:30000}")
+    public void flush() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        for (Key key : new ArrayList<>(dirty)) {
+            dirty.remove(key);
+            Slot slot = slots.get(key);
+            LogLinearHistogram delta = slot.takePending();
+
+            try {
+                LogLinearHistogram stored = tx.execute(status -> {
+                    OrderHistogram row = histogramRepository.findByDayAndMetric(key.day(), key.metric())
+                            .orElseGet(() -> OrderHistogram.builder().day(key.day()).metric(key.metric()).build());
+                    LogLinearHistogram total = row.getData() != null
+                            ? LogLinearHistogram.fromBytes(row.getData())
+                            : new LogLinearHistogram();
+                    total.merge(delta);
+                    row.setData(total.toBytes());
+                    row.setUpdatedAt(LocalDateTime.now());
+                    histogramRepository.save(row);
+                    return total;
+                });
+                // La base fait foi (inclut les autres nœuds), plus ce qui est arrivé entre-temps
+                slot.replaceFull(Objects.requireNonNull(stored));
+            } catch (RuntimeException e) {
+                slot.restorePending(delta);
+                dirty.add(key);
+                log.atWarn().addKeyValue("key", key).setCause(e).log("Erreur écriture des histogrammes de commandes");
+                return;
+            }
+        }
+
+        // Jour clos depuis deux intervalles : tous les nœuds ont écrit leurs deltas, il peut être recalculé
+        LocalDateTime settled = LocalDateTime.now().minusNanos(2 * flushIntervalMs * 1_000_000);
+        for (LocalDate day : new ArrayList<>(repairDays)) {
+            if (!day.plusDays(1).atStartOfDay().isBefore(settled)
+                    || dirty.stream().anyMatch(key -> key.day().equals(day))) {
+                // Pas encore clos, ou un delta local reste à écrire (il serait compté deux fois)
+                continue;
+            }
+            try {
+                repair(tx, day);
+                repairDays.remove(day);
+            } catch (RuntimeException e) {
+                log.atWarn().addKeyValue("day", day).setCause(e).log("Erreur réparation des histogrammes de commandes");
+            }
+        }
+
+        // Libérer les jours sortis de la fenêtre mémoire (déjà écrits)
+        LocalDate memoryStart = memoryStart();
+        slots.keySet().removeIf(key -> key.day().isBefore(memoryStart) && !dirty.contains(key));
+    }
+
+    /**
+     * Démarrage : recharger les jours récents ; table vide, construire depuis tout l'historique
+     * Les deltas de la veille et du jour ont pu être perdus (arrêt brutal) : ils seront recalculés par flush()
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (histogramRepository.count() == 0) {
+            rebuildFrom(archivedOrderRepository::findOrderValuesAfter);
+            rebuildFrom(orderRepository::findOrderValuesAfter);
+            flush();
+            return;
+        }
+
+        histogramRepository.findByDayGreaterThanEqual(memoryStart()).forEach(row ->
+                slots.computeIfAbsent(new Key(row.getDay(), row.getMetric()), key -> new Slot())
+                        .replaceFull(LogLinearHistogram.fromBytes(row.getData())));
+        LocalDate today = LocalDate.now();
+        repairDays.add(today.minusDays(1));
+        repairDays.add(today);
+    }
+
+    /**
+     * Remplacer les histogrammes d'un jour clos par ceux calculés depuis ses commandes
+     * (jour récent : jamais archivé)
+     */
+    private void repair(TransactionTemplate tx, LocalDate day) {
+        LogLinearHistogram amounts = new LogLinearHistogram();
+        LogLinearHistogram items = new LogLinearHistogram();
+        long afterId = 0;
+        List<Object[]> rows;
+        do {
+            rows = orderRepository.findOrderValuesBetween(day.atStartOfDay(), day.plusDays(1).atStartOfDay(),
+                    afterId, REBUILD_BATCH_SIZE);
+            for (Object[] row : rows) {
+                afterId = ((Number) row[0]).longValue();
+                amounts.record(HistogramMetric.ORDER_AMOUNT.toRecorded(((Number) row[2]).doubleValue()));
+                items.record(HistogramMetric.ITEMS_PER_ORDER.toRecorded(((Number) row[3]).intValue()));
+            }
+        } while (rows.size() == REBUILD_BATCH_SIZE);
+
+        tx.executeWithoutResult(status -> {
+            replace(new Key(day, HistogramMetric.ORDER_AMOUNT), amounts);
+            replace(new Key(day, HistogramMetric.ITEMS_PER_ORDER), items);
+        });
+    }
+
+    private void replace(Key key, LogLinearHistogram histogram) {
+        OrderHistogram row = histogramRepository.findByDayAndMetric(key.day(), key.metric())
+                .orElseGet(() -> OrderHistogram.builder().day(key.day()).metric(key.metric()).build());
+        row.setData(histogram.toBytes());
+        row.setUpdatedAt(LocalDateTime.now());
+        histogramRepository.save(row);
+        Slot slot = slots.get(key);
+        if (slot != null) {
+            slot.replaceFull(LogLinearHistogram.fromBytes(row.getData()));
+        }
+    }
+
+    private void rebuildFrom(BiFunction<Long, Integer, List<Object[]>> batches) {
+        long afterId = 0;
+        List<Object[]> rows;
+        do {
+            rows = batches.apply(afterId, REBUILD_BATCH_SIZE);
+            for (Object[] row : rows) {
+                afterId = ((Number) row[0]).longValue();
+                record(toLocalDate(row[1]), ((Number) row[2]).doubleValue(), ((Number) row[3]).intValue());
+            }
+        } while (rows.size() == REBUILD_BATCH_SIZE);
+    }
+
+    private void record(LocalDate day, double totalAmount, int itemCount) {
+        record(new Key(day, HistogramMetric.ORDER_AMOUNT), HistogramMetric.ORDER_AMOUNT.toRecorded(totalAmount));
+        record(new Key(day, HistogramMetric.ITEMS_PER_ORDER), HistogramMetric.ITEMS_PER_ORDER.toRecorded(itemCount));
+    }
+
+    private void record(Key key, long value) {
+        slots.computeIfAbsent(key, k -> new Slot()).record(value);
+        dirty.add(key);
+    }
+
+    private LocalDate memoryStart() {
+        return LocalDate.now().minusDays(memoryDays - 1L);
+    }
+
+    private LocalDate toLocalDate(Object value) {
+        return value instanceof java.sql.Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+
+    private record Key(LocalDate day, HistogramMetric metric) {
+    }
+
+    /**
+     * Un jour et une grandeur : total connu (base + local) et delta local pas encore écrit
+     */
+    private static final class Slot {
+        private LogLinearHistogram full = new LogLinearHistogram();
+        private LogLinearHistogram pending = new LogLinearHistogram();
+
+        synchronized void record(long value) {
+            full.record(value);
+            pending.record(value);
+        }
+
+        synchronized LogLinearHistogram full() {
+            return full;
+        }
+
+        synchronized LogLinearHistogram takePending() {
+            LogLinearHistogram taken = pending;
+            pending = new LogLinearHistogram();
+            return taken;
+        }
+
+        synchronized void restorePending(LogLinearHistogram delta) {
+            pending.merge(delta);
+        }
+
+        synchronized void replaceFull(LogLinearHistogram stored) {
+            stored.merge(pending);
+            full = stored;
+        }
+    }
+}
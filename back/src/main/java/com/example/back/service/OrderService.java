@@ -2,13 +2,21 @@ package com.example.back.service;
 
 import com.example.back.dto.OrderRequest;
 import com.example.back.dto.OrderResponse;
+import com.example.back.dto.OrderSummaryResponse;
+import com.example.back.exception.OrderNotFoundException;
 import com.example.back.exception.ProductNotFoundException;
+import com.example.back.model.ArchivedOrder;
 import com.example.back.model.Order;
+import com.example.back.model.OrderEvent;
+import com.example.back.model.OrderEventType;
 import com.example.back.model.OrderItem;
 import com.example.back.model.OrderStatus;
 import com.example.back.model.Product;
 import com.example.back.model.User;
+import com.example.back.repository.ArchivedOrderRepository;
+import com.example.back.repository.OrderEventRepository;
 import com.example.back.repository.OrderRepository;
+import com.example.back.repository.OrderSummaryView;
 import com.example.back.repository.ProductRepository;
 import com.example.back.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,8 +24,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional(readOnly = true) // Par défaut, toutes les méthodes sont en lecture seule
@@ -32,6 +42,30 @@ public class OrderService {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private OrderEventRepository orderEventRepository;
+
+    @Autowired
+    private AdminStatsCounters adminStatsCounters;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private TopProductsService topProductsService;
+
+    @Autowired
+    private DistinctBuyersService distinctBuyersService;
+
+    @Autowired
+    private LowStockIndex lowStockIndex;
+
+    @Autowired
+    private OrderHistogramService orderHistogramService;
+
     /**
      * Créer une nouvelle commande
      */
@@ -54,6 +88,7 @@ public class OrderService {
             // Mettre à jour le stock
             product.setStockQuantity(product.getStockQuantity() - itemReq.getQuantity());
             productRepository.save(product);
+            lowStockIndex.productChanged(product);
 
             // Ajouter au total
             totalAmount[0] += product.getPrice() * itemReq.getQuantity();
@@ -66,67 +101,116 @@ public class OrderService {
                     .build();
         }).collect(Collectors.toList());
 
+        // Colonnes de résumé, calculées une seule fois ici
+        int itemCount = orderItems.stream().mapToInt(OrderItem::getQuantity).sum();
+        int distinctProductCount = (int) orderItems.stream().map(OrderItem::getProductId).distinct().count();
+
         Order order = Order.builder()
                 .user(user)
                 .orderDate(LocalDateTime.now())
                 .totalAmount(totalAmount[0])
                 .status(OrderStatus.PENDING)
+                .itemCount(itemCount)
+                .distinctProductCount(distinctProductCount)
                 .items(orderItems)
                 .build();
 
         Order savedOrder = orderRepository.save(order);
 
-        // Conversion en DTO dans la transaction
-        List<OrderResponse.OrderItemResponse> responseItems = savedOrder.getItems().stream()
-                .map(i -> OrderResponse.OrderItemResponse.builder()
-                        .productId(i.getProductId())
-                        .productName(i.getProductName())
-                        .quantity(i.getQuantity())
-                        .unitPrice(i.getUnitPrice())
-                        .build())
-                .collect(Collectors.toList());
-
-        return OrderResponse.builder()
+        // Outbox : l'événement est validé dans la même transaction que la commande
+        orderEventRepository.save(OrderEvent.builder()
                 .orderId(savedOrder.getId())
                 .userId(user.getId())
-                .orderDate(savedOrder.getOrderDate())
+                .type(OrderEventType.ORDER_CREATED)
+                .status(savedOrder.getStatus())
                 .totalAmount(savedOrder.getTotalAmount())
-                .status(savedOrder.getStatus().name())
-                .items(responseItems)
-                .build();
+                .occurredAt(savedOrder.getOrderDate())
+                .build());
+        adminStatsCounters.orderCreated(savedOrder.getTotalAmount(), savedOrder.getOrderDate());
+        salesRollupService.recordOrder(savedOrder.getTotalAmount(), savedOrder.getOrderDate());
+        topProductsService.recordOrder(orderItems, savedOrder.getOrderDate());
+        distinctBuyersService.recordOrder(user.getId(), savedOrder.getOrderDate());
+        orderHistogramService.recordOrder(savedOrder.getTotalAmount(), itemCount, savedOrder.getOrderDate());
+
+        // Conversion en DTO dans la transaction
+        return toResponse(savedOrder, user.getId());
     }
 
 
     /**
-     * Récupérer les commandes d'un utilisateur
+     * Récupérer les commandes d'un utilisateur (résumés, sans les items)
+     * Inclut les commandes archivées
      */
     @Transactional(readOnly = true)
-    public List<OrderResponse> getOrdersByUser(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found"));
-
-        List<Order> orders = orderRepository.findByUser(user);
+    public List<OrderSummaryResponse> getOrdersByUser(Long userId) {
+        return Stream.concat(
+                        orderRepository.findByUserIdOrderByOrderDateDesc(userId).stream(),
+                        archivedOrderRepository.findByUserIdOrderByOrderDateDesc(userId).stream())
+                .sorted(Comparator.comparing(OrderSummaryView::getOrderDate,
+                        Comparator.nullsLast(Comparator.reverseOrder())))
+                .map(summary -> OrderSummaryResponse.builder()
+                        .orderId(summary.getId())
+                        .orderDate(summary.getOrderDate())
+                        .totalAmount(summary.getTotalAmount())
+                        .status(summary.getStatus().name())
+                        .itemCount(summary.getItemCount())
+                        .distinctProductCount(summary.getDistinctProductCount())
+                        .build())
+                .collect(Collectors.toList());
+    }
 
+    /**
+     * Récupérer le détail d'une commande de l'utilisateur, items compris
+     * Cherche dans la table chaude puis dans l'archive
+     */
+    @Transactional(readOnly = true)
+    public OrderResponse getOrderById(Long orderId, Long userId) {
         // IMPORTANT : On convertit en DTO DANS la transaction
         // pour que Hibernate puisse charger les items
-        return orders.stream().map(order -> {
-            List<OrderResponse.OrderItemResponse> responseItems = order.getItems().stream()
-                    .map(i -> OrderResponse.OrderItemResponse.builder()
-                            .productId(i.getProductId())
-                            .productName(i.getProductName())
-                            .quantity(i.getQuantity())
-                            .unitPrice(i.getUnitPrice())
-                            .build())
-                    .collect(Collectors.toList());
-
-            return OrderResponse.builder()
-                    .orderId(order.getId())
-                    .userId(user.getId())
-                    .orderDate(order.getOrderDate())
-                    .totalAmount(order.getTotalAmount())
-                    .status(order.getStatus().name())
-                    .items(responseItems)
-                    .build();
-        }).collect(Collectors.toList());
+        return orderRepository.findByIdAndUserId(orderId, userId)
+                .map(order -> toResponse(order, userId))
+                .or(() -> archivedOrderRepository.findByIdAndUserId(orderId, userId)
+                        .map(this::toResponse))
+                .orElseThrow(() -> new OrderNotFoundException("Order not found: " + orderId));
+    }
+
+    // =======================
+    // Mapper
+    // =======================
+    private OrderResponse toResponse(Order order, Long userId) {
+        return OrderResponse.builder()
+                .orderId(order.getId())
+                .userId(userId)
+                .orderDate(order.getOrderDate())
+                .totalAmount(order.getTotalAmount())
+                .status(order.getStatus().name())
+                .itemCount(order.getItemCount())
+                .distinctProductCount(order.getDistinctProductCount())
+                .items(toItemResponses(order.getItems()))
+                .build();
+    }
+
+    private OrderResponse toResponse(ArchivedOrder order) {
+        return OrderResponse.builder()
+                .orderId(order.getId())
+                .userId(order.getUserId())
+                .orderDate(order.getOrderDate())
+                .totalAmount(order.getTotalAmount())
+                .status(order.getStatus().name())
+                .itemCount(order.getItemCount())
+                .distinctProductCount(order.getDistinctProductCount())
+                .items(toItemResponses(order.getItems()))
+                .build();
+    }
+
+    private List<OrderResponse.OrderItemResponse> toItemResponses(List<OrderItem> items) {
+        return items.stream()
+                .map(i -> OrderResponse.OrderItemResponse.builder()
+                        .productId(i.getProductId())
+                        .productName(i.getProductName())
+                        .quantity(i.getQuantity())
+                        .unitPrice(i.getUnitPrice())
+                        .build())
+                .collect(Collectors.toList());
     }
 }
\ No newline at end of file
@@ -0,0 +1,120 @@
+package com.example.back.service;
+
+import com.example.back.dto.OrderStatusTransitionRequest;
+import com.example.back.dto.OrderStatusTransitionResponse;
+import com.example.back.model.OrderStatus;
+import com.example.back.repository.OrderEventRepository;
+import com.example.back.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Transitions de statut en masse : UPDATE ensemblistes par lots, sans charger les entités
+ * Chaque lot est validé dans sa propre transaction
+ */
+@Service
+public class OrderStatusService {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderEventRepository orderEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.orders.transition.chunk-size:5000}")
+    private int chunkSize;
+
+    /**
+     * Faire passer un ensemble de commandes au statut cible
+     * Seules les commandes au statut précédent sont modifiées, les autres sont comptées comme ignorées
+     */
+    public OrderStatusTransitionResponse transition(OrderStatusTransitionRequest request) {
+        OrderStatus to = request.getTargetStatus();
+        OrderStatus from = to.previous();
+        if (from == null) {
+            throw new IllegalArgumentException("Orders cannot be moved back to " + to);
+        }
+        List<Long> orderIds = request.getOrderIds();
+        if (orderIds != null) {
+            if (orderIds.isEmpty()) {
+                throw new IllegalArgumentException("orderIds must not be empty");
+            }
+            if (request.getPlacedBefore() != null || request.isAll()) {
+                throw new IllegalArgumentException("orderIds cannot be combined with placedBefore or all");
+            }
+        } else if (request.getPlacedBefore() == null && !request.isAll()) {
+            // Garde-fou : une requête sans critère ne doit pas basculer tout le parc de commandes
+            throw new IllegalArgumentException("Either orderIds, placedBefore or all=true is required");
+        }
+
+        long start = System.currentTimeMillis();
+        // Tronquée à la milliseconde : sert aussi à retrouver les lignes modifiées pour l'outbox
+        LocalDateTime changedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        long matched = 0;
+        long updated = 0;
+        int chunks = 0;
+
+        if (orderIds != null) {
+            // Par identifiants : découpage de la liste en lots
+            List<Long> ids = orderIds.stream().distinct().toList();
+            for (int i = 0; i < ids.size(); i += chunkSize) {
+                List<Long> chunk = ids.subList(i, Math.min(i + chunkSize, ids.size()));
+                updated += updateChunk(tx, chunk, from, to, changedAt);
+                matched += chunk.size();
+                chunks++;
+            }
+        } else {
+            // Par filtre : on sélectionne les identifiants lot par lot jusqu'à épuisement
+            // (all = true : toutes les commandes passées avant le début de la requête)
+            LocalDateTime before = request.getPlacedBefore() != null ? request.getPlacedBefore() : changedAt;
+            List<Long> chunk;
+            while (!(chunk = orderRepository.findIdsByStatusAndOrderDateBefore(
+                    from, before, PageRequest.of(0, chunkSize))).isEmpty()) {
+                int count = updateChunk(tx, chunk, from, to, changedAt);
+                updated += count;
+                matched += chunk.size();
+                chunks++;
+                if (count == 0) {
+                    // Rien n'a bougé : éviter de relire indéfiniment le même lot
+                    break;
+                }
+            }
+        }
+
+        return OrderStatusTransitionResponse.builder()
+                .fromStatus(from.name())
+                .targetStatus(to.name())
+                .matched(matched)
+                .updated(updated)
+                .skipped(matched - updated)
+                .chunks(chunks)
+                .transitionedAt(changedAt)
+                .durationMs(System.currentTimeMillis() - start)
+                .build();
+    }
+
+    private int updateChunk(TransactionTemplate tx, List<Long> ids, OrderStatus from, OrderStatus to,
+                            LocalDateTime changedAt) {
+        Integer count = tx.execute(status -> {
+            int updated = orderRepository.transitionStatus(ids, from, to, changedAt);
+            if (updated > 0) {
+                orderEventRepository.appendStatusChanges(ids, to.name(), changedAt);
+            }
+            return updated;
+        });
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.back.service;
+
+import com.example.back.exception.ServiceOverloadedException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hachage et vérification BCrypt (coût calibré pour ~100 ms de CPU chacun) sur un pool dédié, dimensionné aux cœurs,
+ * avec une file bornée : une vague de connexions ne peut occuper que ces threads et cette file,
+ * au-delà la demande est refusée immédiatement (ServiceOverloadedException) au lieu de bloquer
+ * les threads Tomcat qui servent le catalogue
+ */
+@Service
+public class PasswordHashingService {
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    // 0 : un thread par cœur
+    @Value("${app.security.password.threads:0}")
+    private int threads;
+
+    @Value("${app.security.password.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${app.security.password.timeout-ms:5000}")
+    private long timeoutMs;
+
+    private ThreadPoolExecutor executor;
+
+    // Durée moyenne d'une tâche (moyenne glissante), pour estimer Retry-After
+    private volatile double averageTaskMs = 100;
+
+    @PostConstruct
+    public void init() {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public String encode(String rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Hachage à refaire : algorithme autre que celui par défaut, absence de préfixe ou coût inférieur au coût actuel
+     * Simple lecture de l'en-tête du hachage, exécutée sur le thread appelant
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    // =======================
+    // MÉTHODES PRIVÉES
+    // =======================
+
+    private <T> T run(Callable<T> work) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    return work.call();
+                } finally {
+                    double elapsedMs = (System.nanoTime() - start) / 1_000_000.0;
+                    averageTaskMs = averageTaskMs * 0.9 + elapsedMs * 0.1;
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw overloaded();
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw overloaded();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw overloaded();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Retry-After : temps estimé pour vider la file actuelle, au moins une seconde
+     */
+    private ServiceOverloadedException overloaded() {
+        double backlogMs = (executor.getQueue().size() + executor.getActiveCount()) * averageTaskMs
+                / executor.getMaximumPoolSize();
+        long retryAfter = Math.max(1, (long) Math.ceil(backlogMs / 1000));
+        return new ServiceOverloadedException("Authentication service is busy, please retry later", retryAfter);
+    }
+}
@@ -6,15 +6,13 @@ import com.example.back.dto.ProductResponse;
 import com.example.back.exception.ProductNotFoundException;
 import com.example.back.model.Categorie;
 import com.example.back.model.Product;
+import com.example.back.model.TopProductsWindow;
 import com.example.back.repository.CategorieRepository;
-import com.example.back.repository.OrderRepository;
 import com.example.back.repository.ProductRepository;
-import com.example.back.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -28,10 +26,16 @@ public class ProductService {
     private CategorieRepository categorieRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private AdminStatsCounters adminStatsCounters;
 
     @Autowired
-    private OrderRepository orderRepository;
+    private AdminStatsCache adminStatsCache;
+
+    @Autowired
+    private TopProductsService topProductsService;
+
+    @Autowired
+    private LowStockIndex lowStockIndex;
 
     // =======================
     // CRUD
@@ -50,6 +54,8 @@ public class ProductService {
                 .build();
 
         Product saved = productRepository.save(product);
+        adminStatsCounters.productCreated();
+        lowStockIndex.productChanged(saved);
         return mapToResponse(saved);
     }
 
@@ -74,6 +80,7 @@ public class ProductService {
         product.setLienImage(request.getLienImage());
 
         Product updated = productRepository.save(product);
+        lowStockIndex.productChanged(updated);
         return mapToResponse(updated);
     }
 
@@ -81,6 +88,8 @@ public class ProductService {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id));
         productRepository.delete(product);
+        adminStatsCounters.productDeleted();
+        lowStockIndex.productDeleted(product.getId());
     }
 
     // =======================
@@ -120,30 +129,40 @@ public class ProductService {
     }
 
     // =======================
-    // Statistiques Admin
+    // Seuil de stock faible d'une catégorie (null : seuil par défaut)
     // =======================
-    public AdminStatsDTO getAdminStats() {
-        AdminStatsDTO stats = new AdminStatsDTO();
-
-        // Nombre total de produits
-        stats.setTotalProducts(productRepository.count());
-
-        // Nombre total d'utilisateurs
-        stats.setTotalUsers(userRepository.count());
-
-        // Nombre total de commandes
-        stats.setTotalOrders(orderRepository.count());
-
-        // Revenu total (somme des montants de toutes les commandes)
-        stats.setTotalRevenue(orderRepository.sumTotalAmount());
-
-        // Commandes récentes (derniers 7 jours)
-        stats.setRecentOrders(orderRepository.countByOrderDateAfter(LocalDateTime.now().minusDays(7)));
+    public int updateLowStockThreshold(Long categoryId, Integer threshold) {
+        if (threshold != null && threshold < 0) {
+            throw new IllegalArgumentException("Threshold must be positive");
+        }
+        Categorie category = categorieRepository.findById(categoryId)
+                .orElseThrow(() -> new ProductNotFoundException("Category not found"));
+        category.setLowStockThreshold(threshold);
+        categorieRepository.save(category);
+
+        // Réévaluer les produits de la catégorie avec le nouveau seuil
+        productRepository.findByCategoryId(categoryId).forEach(product -> {
+            product.setCategory(category);
+            lowStockIndex.productChanged(product);
+        });
+        return lowStockIndex.thresholdFor(category);
+    }
 
-        // Produits en stock faible (moins de 5 unités)
-        stats.setLowStockProducts(productRepository.countByStockQuantityLessThan(5));
+    // =======================
+    // Meilleures ventes (vitrine)
+    // =======================
+    public List<ProductResponse> getTopSellers(TopProductsWindow window, int limit) {
+        return topProductsService.getTopSellers(window, limit).stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
 
-        return stats;
+    // =======================
+    // Statistiques Admin
+    // =======================
+    public AdminStatsDTO getAdminStats() {
+        // Compteurs maintenus par les écritures, via le cache partagé (un calcul pour tous les appelants)
+        return adminStatsCache.get();
     }
 
     // =======================
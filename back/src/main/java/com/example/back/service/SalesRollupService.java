@@ -0,0 +1,264 @@
+package com.example.back.service;
+
+import com.example.back.dto.SalesTimeseriesResponse;
+import com.example.back.model.RollupGranularity;
+import com.example.back.model.SalesRollup;
+import com.example.back.repository.SalesRollupRepository;
+import com.example.back.stats.MinuteSalesRing;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.back.service.TransactionHooks.afterCommit;
+
+/**
+ * Agrégats de ventes par minute / heure / jour
+ * Les commandes validées sont comptées dans un anneau mémoire des dernières minutes, vidé
+ * périodiquement dans sales_rollups par des UPSERT additifs : aucune ligne chaude n'est verrouillée
+ * pendant la transaction de commande. Les lectures ajoutent la part pas encore écrite.
+ * L'anneau est vidé à l'arrêt ; après un arrêt brutal, les dernières minutes avant le démarrage
+ * sont recalculées depuis les commandes une fois que tous les nœuds les ont écrites
+ */
+@Slf4j
+@Service
+public class SalesRollupService {
+
+    private static final RollupGranularity[] GRANULARITIES = RollupGranularity.values();
+
+    @Autowired
+    private SalesRollupRepository salesRollupRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.stats.rollup.ring-minutes:120}")
+    private int ringMinutes;
+
+    @Value("${app.stats.rollup.max-points:10000}")
+    private int maxPoints;
+
+    @Value("${app.stats.rollup.flush-interval-ms:10000}")
+    private long flushIntervalMs;
+
+    @Value("${app.stats.rollup.startup-repair-minutes:120}")
+    private int startupRepairMinutes;
+
+    private MinuteSalesRing ring;
+
+    // Fin (exclue) des minutes à recalculer après le démarrage ; null une fois la réparation faite
+    private volatile LocalDateTime repairBefore;
+
+    @PostConstruct
+    public void init() {
+        ring = new MinuteSalesRing(ringMinutes);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Compter une commande (après validation de sa transaction)
+     */
+    public void recordOrder(double totalAmount, LocalDateTime orderDate) {
+        afterCommit(() -> ring.record(toEpochMinute(orderDate), 1, totalAmount));
+    }
+
+    /**
+     * Écrire en base les minutes en attente
+     */
+    @Scheduled(fixedDelayString = "${app.stats.rollup.flush-interval-ms:10000}")
+    public void flush() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        long now = toEpochMinute(LocalDateTime.now());
+
+        for (long minute = now - ring.size() + 1; minute <= now; minute++) {
+            MinuteSalesRing.Drained drained = ring.drain(minute);
+            if (drained == null) {
+                continue;
+            }
+
+            LocalDateTime minuteStart = fromEpochMinute(minute);
+            try {
+                tx.executeWithoutResult(status -> {
+                    for (RollupGranularity granularity : GRANULARITIES) {
+                        salesRollupRepository.addToBucket(granularity.name(), granularity.truncate(minuteStart),
+                                drained.orderCount(), drained.revenue());
+                    }
+                });
+            } catch (RuntimeException e) {
+                // Remettre la minute dans l'anneau, elle sera retentée au prochain passage
+                ring.record(minute, drained.orderCount(), drained.revenue());
+                log.atWarn().addKeyValue("minute", minute).setCause(e).log("Erreur écriture des agrégats de ventes");
+                return;
+            }
+        }
+
+        // Les autres nœuds écrivent leurs minutes à chaque passage : après deux intervalles,
+        // celles d'avant le démarrage sont toutes en base et peuvent être recalculées
+        LocalDateTime before = repairBefore;
+        if (before != null && LocalDateTime.now().isAfter(before.plusNanos(2 * flushIntervalMs * 1_000_000))) {
+            try {
+                repair(before.minusMinutes(startupRepairMinutes), before);
+                repairBefore = null;
+            } catch (RuntimeException e) {
+                log.atWarn().addKeyValue("before", before).setCause(e).log("Erreur réparation des agrégats de ventes");
+            }
+        }
+    }
+
+    /**
+     * Série temporelle sur [from, to[ à la granularité demandée, buckets vides compris
+     */
+    public SalesTimeseriesResponse getTimeseries(LocalDateTime from, LocalDateTime to, RollupGranularity granularity) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+
+        LocalDateTime start = granularity.truncate(from);
+        LocalDateTime end = granularity.truncate(to).isBefore(to) ? granularity.next(granularity.truncate(to)) : to;
+        if (granularity.bucketsBetween(start, end) > maxPoints) {
+            throw new IllegalArgumentException("Range too large: more than " + maxPoints + " "
+                    + granularity.name().toLowerCase() + " buckets");
+        }
+
+        Map<LocalDateTime, SalesTimeseriesResponse.Point> points = new HashMap<>();
+        for (SalesRollup rollup : salesRollupRepository
+                .findByGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStart(
+                        granularity, start, end)) {
+            points.put(rollup.getBucketStart(), SalesTimeseriesResponse.Point.builder()
+                    .bucketStart(rollup.getBucketStart())
+                    .orderCount(rollup.getOrderCount())
+                    .revenue(rollup.getRevenue())
+                    .build());
+        }
+
+        // Ajouter les minutes pas encore écrites en base
+        long now = toEpochMinute(LocalDateTime.now());
+        for (long minute = now - ring.size() + 1; minute <= now; minute++) {
+            long count = ring.pendingCount(minute);
+            if (count == 0) {
+                continue;
+            }
+            LocalDateTime minuteStart = fromEpochMinute(minute);
+            if (minuteStart.isBefore(start) || !minuteStart.isBefore(end)) {
+                continue;
+            }
+            double revenue = ring.pendingRevenue(minute);
+            points.merge(granularity.truncate(minuteStart),
+                    SalesTimeseriesResponse.Point.builder()
+                            .bucketStart(granularity.truncate(minuteStart))
+                            .orderCount(count)
+                            .revenue(revenue)
+                            .build(),
+                    (a, b) -> {
+                        a.setOrderCount(a.getOrderCount() + b.getOrderCount());
+                        a.setRevenue(a.getRevenue() + b.getRevenue());
+                        return a;
+                    });
+        }
+
+        List<SalesTimeseriesResponse.Point> series = new ArrayList<>();
+        for (LocalDateTime bucket = start; bucket.isBefore(end); bucket = granularity.next(bucket)) {
+            series.add(points.getOrDefault(bucket, SalesTimeseriesResponse.Point.builder()
+                    .bucketStart(bucket)
+                    .build()));
+        }
+
+        return SalesTimeseriesResponse.builder()
+                .granularity(granularity.name())
+                .from(start)
+                .to(end)
+                .points(series)
+                .build();
+    }
+
+    /**
+     * Reconstruire les agrégats depuis les commandes (table chaude + archive)
+     * Limité aux journées complètes avant aujourd'hui : les minutes récentes sont encore dans l'anneau
+     * et seraient comptées deux fois
+     */
+    public int backfill(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("'from' and 'to' are required");
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate end = to.isAfter(today) ? today : to;
+        if (!from.isBefore(end)) {
+            throw new IllegalArgumentException("Nothing to backfill: range must end before today");
+        }
+        // Écrire d'abord les minutes en attente pour ne pas les compter deux fois
+        flush();
+        return rebuild(from.atStartOfDay(), end.atStartOfDay());
+    }
+
+    /**
+     * Premier démarrage : agrégats vides, on les construit depuis l'historique des commandes
+     * Sinon, les minutes précédant le démarrage (anneau perdu en cas d'arrêt brutal) seront réparées
+     * par flush(), minute de démarrage comprise
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialBackfill() {
+        if (salesRollupRepository.count() == 0) {
+            rebuild(LocalDateTime.of(1970, 1, 1, 0, 0), LocalDateTime.now());
+        } else {
+            repairBefore = RollupGranularity.MINUTE.next(RollupGranularity.MINUTE.truncate(LocalDateTime.now()));
+        }
+    }
+
+    /**
+     * Minutes de [from, to[ recalculées depuis les commandes, puis heures et jours qui les contiennent
+     * recalculés depuis les minutes : les écritures additives des autres nœuds restent cohérentes
+     */
+    private void repair(LocalDateTime from, LocalDateTime to) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            RollupGranularity minute = RollupGranularity.MINUTE;
+            salesRollupRepository.deleteRange(minute, from, to);
+            salesRollupRepository.rebuildRange(minute.name(), minute.sqlFormat(), from, to);
+            for (RollupGranularity granularity : GRANULARITIES) {
+                if (granularity != minute) {
+                    LocalDateTime start = granularity.truncate(from);
+                    LocalDateTime end = granularity.next(granularity.truncate(to.minusMinutes(1)));
+                    salesRollupRepository.recomputeFromMinutes(granularity.name(), granularity.sqlFormat(), start, end);
+                }
+            }
+        });
+    }
+
+    private int rebuild(LocalDateTime from, LocalDateTime to) {
+        Integer rows = new TransactionTemplate(transactionManager).execute(status -> {
+            int inserted = 0;
+            for (RollupGranularity granularity : GRANULARITIES) {
+                salesRollupRepository.deleteRange(granularity, from, to);
+                inserted += salesRollupRepository.rebuildRange(granularity.name(), granularity.sqlFormat(), from, to);
+            }
+            return inserted;
+        });
+        return rows == null ? 0 : rows;
+    }
+
+    private static long toEpochMinute(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static LocalDateTime fromEpochMinute(long epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.back.service;
+
+import com.example.back.dto.TopProductResponse;
+import com.example.back.model.OrderItem;
+import com.example.back.model.Product;
+import com.example.back.model.TopProductsWindow;
+import com.example.back.repository.OrderRepository;
+import com.example.back.repository.ProductRepository;
+import com.example.back.stats.SlidingTopK;
+import com.example.back.stats.SpaceSaving;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.example.back.service.TransactionHooks.afterCommit;
+
+/**
+ * Classement des meilleures ventes (dernière heure / jour / semaine)
+ * Alimenté par les commandes validées, sans GROUP BY sur order_items à la lecture :
+ * chaque fenêtre est un anneau de sketches Space-Saving en mémoire bornée
+ */
+@Service
+public class TopProductsService {
+
+    private static final DateTimeFormatter HOUR_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Value("${app.stats.top-products.capacity:256}")
+    private int capacity;
+
+    @Value("${app.stats.top-products.max-limit:50}")
+    private int maxLimit;
+
+    private final Map<TopProductsWindow, SlidingTopK> windows = new EnumMap<>(TopProductsWindow.class);
+
+    @PostConstruct
+    public void init() {
+        for (TopProductsWindow window : TopProductsWindow.values()) {
+            windows.put(window, new SlidingTopK(window.bucket().toMillis(), window.buckets(), capacity));
+        }
+    }
+
+    /**
+     * Compter les articles d'une commande (après validation de sa transaction)
+     */
+    public void recordOrder(List<OrderItem> items, LocalDateTime orderDate) {
+        afterCommit(() -> items.forEach(item -> record(item.getProductId(), item.getQuantity(), orderDate)));
+    }
+
+    /**
+     * Classement admin : quantités estimées et borne d'erreur
+     */
+    public List<TopProductResponse> getTopProducts(TopProductsWindow window, int limit) {
+        List<SpaceSaving.Entry> top = top(window, limit);
+        Map<Long, String> names = productRepository.findAllById(top.stream().map(SpaceSaving.Entry::key).toList())
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Product::getName));
+
+        return top.stream()
+                .map(entry -> TopProductResponse.builder()
+                        .productId(entry.key())
+                        .productName(names.get(entry.key()))
+                        .unitsSold(entry.count())
+                        .maxOverestimate(entry.error())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Classement vitrine : produits encore au catalogue, dans l'ordre des ventes
+     */
+    public List<Product> getTopSellers(TopProductsWindow window, int limit) {
+        List<Long> ids = top(window, limit).stream().map(SpaceSaving.Entry::key).toList();
+        Map<Long, Product> products = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        return ids.stream()
+                .filter(products::containsKey)
+                .map(products::get)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Au démarrage, reconstruire les fenêtres depuis les commandes de la dernière semaine
+     * Les ventes sont regroupées par heure : juste après un redémarrage, la fenêtre d'une heure est approximative
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        LocalDateTime since = LocalDateTime.now().minus(TopProductsWindow.WEEK.bucket()
+                .multipliedBy(TopProductsWindow.WEEK.buckets()));
+        for (Object[] row : orderRepository.sumQuantityByProductAndHourSince(since)) {
+            record(((Number) row[0]).longValue(), ((Number) row[2]).longValue(),
+                    LocalDateTime.parse((String) row[1], HOUR_FORMAT));
+        }
+    }
+
+    private List<SpaceSaving.Entry> top(TopProductsWindow window, int limit) {
+        if (limit < 1 || limit > maxLimit) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxLimit);
+        }
+        return windows.get(window).top(limit, toEpochMillis(LocalDateTime.now()));
+    }
+
+    private void record(long productId, long quantity, LocalDateTime at) {
+        long epochMillis = toEpochMillis(at);
+        windows.values().forEach(window -> window.add(productId, quantity, epochMillis));
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
@@ -6,18 +6,24 @@ import com.example.back.exception.UserAlreadyExistsException;
 import com.example.back.model.Role;
 import com.example.back.model.User;
 import com.example.back.repository.UserRepository;
+import com.example.back.security.AuthenticatedUserCache;
 import com.example.back.security.JwtUtil;
+import com.example.back.security.TokenRevocationList;
+import com.example.back.security.VerifiedTokenCache;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 public class UserService {
 
@@ -25,11 +31,26 @@ public class UserService {
     private UserRepository userRepository;
 
     @Autowired
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private AdminStatsCounters adminStatsCounters;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private AuthenticatedUserCache authenticatedUserCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     // =======================
     // INSCRIPTION
     // =======================
@@ -46,13 +67,14 @@ public class UserService {
         User user = User.builder()
                 .username(request.getUsername())
                 .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordHashingService.encode(request.getPassword()))
                 .roles(Collections.singleton(Role.USER))
                 .enabled(true)
                 .createdAt(LocalDateTime.now())
                 .build();
 
         userRepository.save(user);
+        adminStatsCounters.userRegistered();
     }
 
     // =======================
@@ -62,16 +84,25 @@ public class UserService {
         User user = userRepository.findByUsername(request.getUsername())
                 .orElseThrow(() -> new InvalidCredentialsException("Invalid username or password"));
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(request.getPassword(), user.getPassword())) {
             throw new InvalidCredentialsException("Invalid username or password");
         }
 
+        if (!user.isEnabled()) {
+            throw new InvalidCredentialsException("Account is disabled");
+        }
+
+        // Hachage ancien (sans préfixe, coût inférieur ou autre algorithme) : remplacé tant que le mot de passe est connu
+        if (passwordHashingService.needsRehash(user.getPassword())) {
+            rehashPassword(user, request.getPassword());
+        }
+
         // Authorities
         var authorities = user.getRoles().stream()
                 .map(role -> new org.springframework.security.core.authority.SimpleGrantedAuthority("ROLE_" + role.name()))
                 .collect(Collectors.toList());
 
-        String token = jwtUtil.generateToken(user.getUsername(), authorities);
+        String token = jwtUtil.generateToken(user.getId(), user.getUsername(), user.getAccountVersion(), authorities);
 
         return new AuthResponse(user.getUsername(), token);
     }
@@ -97,13 +128,40 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
+        boolean disabled = user.isEnabled() && Boolean.FALSE.equals(request.getEnabled());
+        boolean rolesChanged = !user.getRoles().equals(request.getRoles());
+
         user.setEnabled(request.getEnabled());
         user.setRoles(request.getRoles());
+        if (disabled || rolesChanged) {
+            // Les tokens portant l'ancienne version sont refusés dès que le cache de ce nœud est rechargé
+            user.setAccountVersion(user.getAccountVersion() + 1);
+        }
         userRepository.save(user);
+        // Les tokens en cache ne doivent pas survivre à un changement de compte
+        verifiedTokenCache.evictSubject(user.getUsername());
+        authenticatedUserCache.evict(user.getUsername());
+        // Les tokens déjà émis portent l'ancien statut et les anciens rôles : révoqués aussi sur les autres nœuds
+        if (disabled || rolesChanged) {
+            tokenRevocationList.revokeSubject(user.getUsername());
+        }
 
         return toResponse(user);
     }
 
+    /**
+     * Remplacer le hachage au format courant ; un échec n'empêche pas la connexion (nouvel essai à la suivante)
+     */
+    private void rehashPassword(User user, String rawPassword) {
+        try {
+            String newHash = passwordHashingService.encode(rawPassword);
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    userRepository.replacePasswordHash(user.getId(), user.getPassword(), newHash));
+        } catch (RuntimeException e) {
+            log.atWarn().addKeyValue("userId", user.getId()).setCause(e).log("Mise à niveau du hachage reportée");
+        }
+    }
+
     // =======================
     // DTO Conversion
     // =======================
@@ -0,0 +1,84 @@
+package com.example.back.stats;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs journaliers en anneau : un emplacement par jour, réutilisé quand le jour sort de la fenêtre
+ * Incrément sans verrou ; seul le passage à un nouveau jour prend un verrou (une fois par jour et par case)
+ */
+public class DailyCounterRing {
+
+    private final int size;
+    private final AtomicLongArray days;
+    private final LongAdder[] counts;
+
+    public DailyCounterRing(int size) {
+        this.size = size;
+        this.days = new AtomicLongArray(size);
+        this.counts = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            days.set(i, Long.MIN_VALUE);
+            counts[i] = new LongAdder();
+        }
+    }
+
+    public void increment(LocalDate day) {
+        add(day, 1);
+    }
+
+    public void add(LocalDate day, long delta) {
+        long epochDay = day.toEpochDay();
+        int slot = slot(epochDay);
+        long current = days.get(slot);
+        if (current != epochDay) {
+            if (current > epochDay) {
+                // Jour déjà sorti de la fenêtre
+                return;
+            }
+            rollover(slot, epochDay);
+        }
+        counts[slot].add(delta);
+    }
+
+    /**
+     * Remplacer la valeur d'un jour (réconciliation avec la base)
+     */
+    public synchronized void set(LocalDate day, long value) {
+        long epochDay = day.toEpochDay();
+        int slot = slot(epochDay);
+        if (days.get(slot) > epochDay) {
+            return;
+        }
+        days.set(slot, epochDay);
+        counts[slot].reset();
+        counts[slot].add(value);
+    }
+
+    /**
+     * Somme des jours [today - (window - 1), today]
+     */
+    public long sum(LocalDate today, int window) {
+        long end = today.toEpochDay();
+        long total = 0;
+        for (long day = end - Math.min(window, size) + 1; day <= end; day++) {
+            int slot = slot(day);
+            if (days.get(slot) == day) {
+                total += counts[slot].sum();
+            }
+        }
+        return total;
+    }
+
+    private synchronized void rollover(int slot, long epochDay) {
+        if (days.get(slot) < epochDay) {
+            counts[slot].reset();
+            days.set(slot, epochDay);
+        }
+    }
+
+    private int slot(long epochDay) {
+        return (int) Math.floorMod(epochDay, (long) size);
+    }
+}
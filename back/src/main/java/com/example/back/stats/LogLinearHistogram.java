@@ -0,0 +1,169 @@
+package com.example.back.stats;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Histogramme log-linéaire (même principe que HdrHistogram) pour des valeurs entières positives
+ * Valeurs < 128 exactes ; au-delà, 64 sous-intervalles par puissance de 2, soit une erreur relative
+ * inférieure à 1 % sur les quantiles. Taille fixe quel que soit le nombre de valeurs ;
+ * deux histogrammes se fusionnent par addition intervalle à intervalle
+ */
+public class LogLinearHistogram {
+
+    private static final int SUB_BITS = 7;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int HALF = SUB_COUNT / 2;
+    // Couvre les valeurs jusqu'à 2^62
+    private static final int BUCKETS = SUB_COUNT + (62 - SUB_BITS + 1) * HALF;
+
+    private final long[] counts = new long[BUCKETS];
+    private long totalCount;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max;
+
+    public synchronized void record(long value) {
+        if (value < 0 || value >= 1L << 62) {
+            throw new IllegalArgumentException("Value out of range: " + value);
+        }
+        counts[indexOf(value)]++;
+        totalCount++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public void merge(LogLinearHistogram other) {
+        LogLinearHistogram copy = other.copy();
+        synchronized (this) {
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] += copy.counts[i];
+            }
+            totalCount += copy.totalCount;
+            sum += copy.sum;
+            min = Math.min(min, copy.min);
+            max = Math.max(max, copy.max);
+        }
+    }
+
+    public synchronized LogLinearHistogram copy() {
+        LogLinearHistogram copy = new LogLinearHistogram();
+        System.arraycopy(counts, 0, copy.counts, 0, BUCKETS);
+        copy.totalCount = totalCount;
+        copy.sum = sum;
+        copy.min = min;
+        copy.max = max;
+        return copy;
+    }
+
+    /**
+     * Valeur au quantile q (0 à 1) : milieu de l'intervalle contenant le rang, borné par min et max
+     */
+    public synchronized long valueAtQuantile(double q) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                long low = lowerBound(i);
+                long high = lowerBound(i + 1) - 1;
+                long middle = low + (high - low) / 2;
+                return Math.max(min, Math.min(max, middle));
+            }
+        }
+        return max;
+    }
+
+    public synchronized long getTotalCount() {
+        return totalCount;
+    }
+
+    public synchronized long getSum() {
+        return sum;
+    }
+
+    public synchronized long getMin() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    public synchronized long getMax() {
+        return max;
+    }
+
+    // =======================
+    // Sérialisation compacte : en-tête puis (écart d'indice, compte) en varints, intervalles vides omis
+    // =======================
+    public synchronized byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeVarLong(out, totalCount);
+        writeVarLong(out, sum);
+        writeVarLong(out, getMin());
+        writeVarLong(out, max);
+        int previous = -1;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] != 0) {
+                writeVarLong(out, i - previous);
+                writeVarLong(out, counts[i]);
+                previous = i;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public static LogLinearHistogram fromBytes(byte[] bytes) {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        LogLinearHistogram histogram = new LogLinearHistogram();
+        histogram.totalCount = readVarLong(in);
+        histogram.sum = readVarLong(in);
+        long min = readVarLong(in);
+        histogram.min = histogram.totalCount == 0 ? Long.MAX_VALUE : min;
+        histogram.max = readVarLong(in);
+        int index = -1;
+        while (in.hasRemaining()) {
+            index += (int) readVarLong(in);
+            histogram.counts[index] = readVarLong(in);
+        }
+        return histogram;
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS + 1;
+        return shift * HALF + (int) (value >>> shift);
+    }
+
+    static long lowerBound(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int shift = index / HALF - 1;
+        long mantissa = index % HALF + HALF;
+        return mantissa << shift;
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.back.stats;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ventes des dernières minutes en anneau (une case par minute), pas encore écrites en base
+ * record() est sans verrou ; drain() remet une case à zéro en rendant son contenu, sans perdre
+ * les ajouts concurrents (ils seront rendus au drain suivant)
+ */
+public class MinuteSalesRing {
+
+    /**
+     * Contenu d'une minute vidée
+     */
+    public record Drained(long epochMinute, long orderCount, double revenue) {
+    }
+
+    private final int size;
+    private final AtomicLongArray minutes;
+    private final LongAdder[] counts;
+    private final DoubleAdder[] revenues;
+
+    public MinuteSalesRing(int size) {
+        this.size = size;
+        this.minutes = new AtomicLongArray(size);
+        this.counts = new LongAdder[size];
+        this.revenues = new DoubleAdder[size];
+        for (int i = 0; i < size; i++) {
+            minutes.set(i, Long.MIN_VALUE);
+            counts[i] = new LongAdder();
+            revenues[i] = new DoubleAdder();
+        }
+    }
+
+    public void record(long epochMinute, long orderCount, double revenue) {
+        int slot = slot(epochMinute);
+        long current = minutes.get(slot);
+        if (current != epochMinute) {
+            if (current > epochMinute) {
+                // Minute trop ancienne pour l'anneau
+                return;
+            }
+            rollover(slot, epochMinute);
+        }
+        counts[slot].add(orderCount);
+        revenues[slot].add(revenue);
+    }
+
+    /**
+     * Vider une minute encore présente dans l'anneau (null si vide ou déjà recyclée)
+     */
+    public Drained drain(long epochMinute) {
+        int slot = slot(epochMinute);
+        if (minutes.get(slot) != epochMinute) {
+            return null;
+        }
+        long count = counts[slot].sumThenReset();
+        double revenue = revenues[slot].sumThenReset();
+        if (count == 0 && revenue == 0) {
+            return null;
+        }
+        return new Drained(epochMinute, count, revenue);
+    }
+
+    /**
+     * Contenu non vidé d'une minute, sans le retirer
+     */
+    public long pendingCount(long epochMinute) {
+        int slot = slot(epochMinute);
+        return minutes.get(slot) == epochMinute ? counts[slot].sum() : 0;
+    }
+
+    public double pendingRevenue(long epochMinute) {
+        int slot = slot(epochMinute);
+        return minutes.get(slot) == epochMinute ? revenues[slot].sum() : 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private synchronized void rollover(int slot, long epochMinute) {
+        if (minutes.get(slot) < epochMinute) {
+            counts[slot].reset();
+            revenues[slot].reset();
+            minutes.set(slot, epochMinute);
+        }
+    }
+
+    private int slot(long epochMinute) {
+        return (int) Math.floorMod(epochMinute, (long) size);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.back.stats;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copie en colonnes (tableaux primitifs) des commandes et de leurs lignes, pour l'analytique
+ * Un seul écrivain ajoute en fin de tableau puis publie un Snapshot ; les lecteurs travaillent
+ * sans verrou sur le dernier Snapshot publié (les lignes sous sa taille ne bougent plus, sauf le statut)
+ */
+public class OrderColumnStore {
+
+    /**
+     * Ligne de commande à ajouter (montant en centimes)
+     */
+    public record Item(long productId, long categoryId, int quantity, long cents) {
+    }
+
+    /**
+     * Vue figée : seules les positions [0, orderCount) et [0, itemCount) sont valides
+     */
+    public record Snapshot(int orderCount, long[] orderIds, long[] userIds, long[] orderSeconds,
+                           long[] orderCents, byte[] statuses,
+                           int itemCount, int[] itemOrderRows, long[] itemProductIds, long[] itemCategoryIds,
+                           int[] itemQuantities, long[] itemCents) {
+    }
+
+    private int orderCount;
+    private long[] orderIds = new long[1024];
+    private long[] userIds = new long[1024];
+    private long[] orderSeconds = new long[1024];
+    private long[] orderCents = new long[1024];
+    private byte[] statuses = new byte[1024];
+
+    private int itemCount;
+    private int[] itemOrderRows = new int[1024];
+    private long[] itemProductIds = new long[1024];
+    private long[] itemCategoryIds = new long[1024];
+    private int[] itemQuantities = new int[1024];
+    private long[] itemCents = new long[1024];
+
+    private final Map<Long, Integer> rowByOrderId = new HashMap<>();
+
+    private volatile Snapshot snapshot = build();
+
+    public synchronized boolean contains(long orderId) {
+        return rowByOrderId.containsKey(orderId);
+    }
+
+    public synchronized void appendOrder(long orderId, long userId, long orderSecond, long cents, byte status,
+                                         List<Item> items) {
+        if (rowByOrderId.containsKey(orderId)) {
+            return;
+        }
+        if (orderCount == orderIds.length) {
+            int capacity = orderCount * 2;
+            orderIds = Arrays.copyOf(orderIds, capacity);
+            userIds = Arrays.copyOf(userIds, capacity);
+            orderSeconds = Arrays.copyOf(orderSeconds, capacity);
+            orderCents = Arrays.copyOf(orderCents, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+        }
+        int row = orderCount++;
+        orderIds[row] = orderId;
+        userIds[row] = userId;
+        orderSeconds[row] = orderSecond;
+        orderCents[row] = cents;
+        statuses[row] = status;
+        rowByOrderId.put(orderId, row);
+
+        for (Item item : items) {
+            if (itemCount == itemOrderRows.length) {
+                int capacity = itemCount * 2;
+                itemOrderRows = Arrays.copyOf(itemOrderRows, capacity);
+                itemProductIds = Arrays.copyOf(itemProductIds, capacity);
+                itemCategoryIds = Arrays.copyOf(itemCategoryIds, capacity);
+                itemQuantities = Arrays.copyOf(itemQuantities, capacity);
+                itemCents = Arrays.copyOf(itemCents, capacity);
+            }
+            int itemRow = itemCount++;
+            itemOrderRows[itemRow] = row;
+            itemProductIds[itemRow] = item.productId();
+            itemCategoryIds[itemRow] = item.categoryId();
+            itemQuantities[itemRow] = item.quantity();
+            itemCents[itemRow] = item.cents();
+        }
+    }
+
+    public synchronized void setStatus(long orderId, byte status) {
+        Integer row = rowByOrderId.get(orderId);
+        if (row != null) {
+            statuses[row] = status;
+        }
+    }
+
+    /**
+     * Rendre visibles aux lecteurs les ajouts faits depuis la dernière publication
+     */
+    public synchronized void publish() {
+        snapshot = build();
+    }
+
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    private Snapshot build() {
+        return new Snapshot(orderCount, orderIds, userIds, orderSeconds, orderCents, statuses,
+                itemCount, itemOrderRows, itemProductIds, itemCategoryIds, itemQuantities, itemCents);
+    }
+}
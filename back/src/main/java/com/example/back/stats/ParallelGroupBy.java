@@ -0,0 +1,86 @@
+package com.example.back.stats;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Agrégation GROUP BY en fork-join sur un intervalle de lignes : chaque tâche agrège sa tranche
+ * dans sa propre table (clé long -> accumulateurs long[]), puis les tables sont fusionnées deux à deux
+ */
+public final class ParallelGroupBy {
+
+    private static final int SEQUENTIAL_THRESHOLD = 16_384;
+
+    /**
+     * Ajoute la ligne "row" aux groupes de la tâche (aucune synchronisation nécessaire)
+     */
+    @FunctionalInterface
+    public interface Accumulator {
+        void accumulate(int row, Map<Long, long[]> groups);
+    }
+
+    /**
+     * Fusionne les accumulateurs d'un même groupe venant de deux tâches
+     */
+    @FunctionalInterface
+    public interface Combiner {
+        void combine(long[] into, long[] from);
+    }
+
+    /**
+     * Combinaison la plus courante : somme champ à champ
+     */
+    public static final Combiner SUM = (into, from) -> {
+        for (int i = 0; i < into.length; i++) {
+            into[i] += from[i];
+        }
+    };
+
+    private ParallelGroupBy() {
+    }
+
+    public static Map<Long, long[]> run(ForkJoinPool pool, int rows, Accumulator accumulator, Combiner combiner) {
+        return pool.invoke(new Task(0, rows, accumulator, combiner));
+    }
+
+    private static final class Task extends RecursiveTask<Map<Long, long[]>> {
+        private final int from;
+        private final int to;
+        private final Accumulator accumulator;
+        private final Combiner combiner;
+
+        private Task(int from, int to, Accumulator accumulator, Combiner combiner) {
+            this.from = from;
+            this.to = to;
+            this.accumulator = accumulator;
+            this.combiner = combiner;
+        }
+
+        @Override
+        protected Map<Long, long[]> compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                Map<Long, long[]> groups = new HashMap<>();
+                for (int row = from; row < to; row++) {
+                    accumulator.accumulate(row, groups);
+                }
+                return groups;
+            }
+
+            int middle = (from + to) >>> 1;
+            Task left = new Task(from, middle, accumulator, combiner);
+            left.fork();
+            Map<Long, long[]> right = new Task(middle, to, accumulator, combiner).compute();
+            Map<Long, long[]> merged = left.join();
+
+            right.forEach((key, values) -> {
+                long[] existing = merged.putIfAbsent(key, values);
+                if (existing != null) {
+                    combiner.combine(existing, values);
+                }
+            });
+            return merged;
+        }
+    }
+}
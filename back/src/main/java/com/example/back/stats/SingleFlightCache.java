@@ -0,0 +1,93 @@
+package com.example.back.stats;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Cache d'une seule valeur, "stale-while-revalidate" avec calcul unique (single-flight)
+ * - plus récente que freshMs : servie telle quelle
+ * - jusqu'à maxStaleMs : servie, et un seul recalcul est lancé en arrière-plan
+ * - absente ou plus ancienne : les appelants concurrents attendent un même calcul
+ */
+public class SingleFlightCache<T> {
+
+    private record Entry<T>(T value, long computedAtNanos) {
+    }
+
+    private final Supplier<T> loader;
+    private final long freshNanos;
+    private final long maxStaleNanos;
+    private final Executor refresher;
+
+    private volatile Entry<T> entry;
+    private final AtomicReference<CompletableFuture<T>> inFlight = new AtomicReference<>();
+
+    public SingleFlightCache(Supplier<T> loader, long freshMs, long maxStaleMs, Executor refresher) {
+        this.loader = loader;
+        this.freshNanos = freshMs * 1_000_000;
+        this.maxStaleNanos = Math.max(freshMs, maxStaleMs) * 1_000_000;
+        this.refresher = refresher;
+    }
+
+    public T get() {
+        Entry<T> current = entry;
+        if (current != null) {
+            long age = System.nanoTime() - current.computedAtNanos();
+            if (age <= freshNanos) {
+                return current.value();
+            }
+            if (age <= maxStaleNanos) {
+                load(true);
+                return current.value();
+            }
+        }
+
+        try {
+            return load(false).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Rejoindre le calcul en cours, ou en lancer un (dans ce thread, ou en arrière-plan)
+     */
+    private CompletableFuture<T> load(boolean background) {
+        while (true) {
+            CompletableFuture<T> existing = inFlight.get();
+            if (existing != null) {
+                return existing;
+            }
+
+            CompletableFuture<T> created = new CompletableFuture<>();
+            if (!inFlight.compareAndSet(null, created)) {
+                continue;
+            }
+
+            Runnable compute = () -> {
+                try {
+                    T value = loader.get();
+                    entry = new Entry<>(value, System.nanoTime());
+                    created.complete(value);
+                } catch (RuntimeException | Error e) {
+                    created.completeExceptionally(e);
+                } finally {
+                    inFlight.compareAndSet(created, null);
+                }
+            };
+
+            if (background) {
+                refresher.execute(compute);
+            } else {
+                compute.run();
+            }
+            return created;
+        }
+    }
+}
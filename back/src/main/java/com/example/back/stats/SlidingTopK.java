@@ -0,0 +1,73 @@
+package com.example.back.stats;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Top-k sur une fenêtre glissante : un sketch Space-Saving par tranche de temps, en anneau
+ * La fenêtre avance d'une tranche à la fois ; la mémoire est bornée par tranches x capacité,
+ * quelle que soit la taille du catalogue
+ */
+public class SlidingTopK {
+
+    private final long bucketMillis;
+    private final int size;
+    private final long[] buckets;
+    private final SpaceSaving[] sketches;
+
+    public SlidingTopK(long bucketMillis, int size, int capacity) {
+        this.bucketMillis = bucketMillis;
+        this.size = size;
+        this.buckets = new long[size];
+        this.sketches = new SpaceSaving[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = Long.MIN_VALUE;
+            sketches[i] = new SpaceSaving(capacity);
+        }
+    }
+
+    public synchronized void add(long key, long weight, long epochMillis) {
+        long bucket = Math.floorDiv(epochMillis, bucketMillis);
+        int slot = (int) Math.floorMod(bucket, (long) size);
+        if (buckets[slot] > bucket) {
+            // Tranche déjà sortie de la fenêtre
+            return;
+        }
+        if (buckets[slot] < bucket) {
+            sketches[slot].clear();
+            buckets[slot] = bucket;
+        }
+        sketches[slot].add(key, weight);
+    }
+
+    /**
+     * Les n clés les plus fréquentes sur les "size" dernières tranches, erreurs cumulées
+     * Une clé évincée d'une tranche pleine y est sous-comptée (au plus le plus petit compteur de la tranche)
+     */
+    public List<SpaceSaving.Entry> top(int n, long nowMillis) {
+        long current = Math.floorDiv(nowMillis, bucketMillis);
+        Map<Long, long[]> merged = new HashMap<>();
+
+        synchronized (this) {
+            for (int slot = 0; slot < size; slot++) {
+                if (buckets[slot] <= current - size || buckets[slot] > current) {
+                    continue;
+                }
+                for (SpaceSaving.Entry entry : sketches[slot].entries()) {
+                    long[] total = merged.computeIfAbsent(entry.key(), key -> new long[2]);
+                    total[0] += entry.count();
+                    total[1] += entry.error();
+                }
+            }
+        }
+
+        List<SpaceSaving.Entry> top = new ArrayList<>(merged.size());
+        merged.forEach((key, total) -> top.add(new SpaceSaving.Entry(key, total[0], total[1])));
+        top.sort(Comparator.comparingLong(SpaceSaving.Entry::count).reversed()
+                .thenComparingLong(SpaceSaving.Entry::key));
+        return top.size() > n ? new ArrayList<>(top.subList(0, n)) : top;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.back.stats;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Algorithme Space-Saving (Metwally et al.) : les clés les plus fréquentes d'un flux en mémoire bornée
+ * Au plus "capacity" compteurs ; une nouvelle clé remplace la moins fréquente et hérite de son compte,
+ * mémorisé comme erreur maximale. Toute clé de fréquence réelle > total / capacity est présente
+ */
+public class SpaceSaving {
+
+    /**
+     * Compte estimé d'une clé : la fréquence réelle est dans [count - error, count]
+     */
+    public record Entry(long key, long count, long error) {
+    }
+
+    private final int capacity;
+
+    // clé -> {compte, erreur}
+    private final Map<Long, long[]> counters;
+
+    public SpaceSaving(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public synchronized void add(long key, long weight) {
+        long[] counter = counters.get(key);
+        if (counter != null) {
+            counter[0] += weight;
+            return;
+        }
+
+        if (counters.size() < capacity) {
+            counters.put(key, new long[]{weight, 0});
+            return;
+        }
+
+        // Remplacer la clé la moins fréquente (parcours de "capacity" entrées, seulement sur une clé absente)
+        long minKey = 0;
+        long minCount = Long.MAX_VALUE;
+        for (Map.Entry<Long, long[]> entry : counters.entrySet()) {
+            if (entry.getValue()[0] < minCount) {
+                minCount = entry.getValue()[0];
+                minKey = entry.getKey();
+            }
+        }
+        counters.remove(minKey);
+        counters.put(key, new long[]{minCount + weight, minCount});
+    }
+
+    public synchronized List<Entry> entries() {
+        List<Entry> entries = new ArrayList<>(counters.size());
+        counters.forEach((key, counter) -> entries.add(new Entry(key, counter[0], counter[1])));
+        return entries;
+    }
+
+    public synchronized void clear() {
+        counters.clear();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.back.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestLoggingFilterTest {
+
+    private final RequestLoggingFilter filter = new RequestLoggingFilter();
+    private final SampledDebugTurboFilter turboFilter = new SampledDebugTurboFilter();
+    private final LoggerContext loggerContext = new LoggerContext();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(filter, "debugSampleRate", 0.0);
+    }
+
+    @Test
+    void doFilter_KeepsAValidCorrelationIdAndClearsTheMdc() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders/my-orders");
+        request.addHeader(RequestLoggingFilter.CORRELATION_ID_HEADER, "abc-123");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Map<String, String> seen = new HashMap<>();
+
+        // When
+        filter.doFilter(request, response, new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse res) {
+                seen.putAll(MDC.getCopyOfContextMap());
+            }
+        });
+
+        // Then
+        assertEquals("abc-123", seen.get(RequestLoggingFilter.CORRELATION_ID_KEY));
+        assertEquals("abc-123", response.getHeader(RequestLoggingFilter.CORRELATION_ID_HEADER));
+        assertNull(MDC.get(RequestLoggingFilter.CORRELATION_ID_KEY));
+    }
+
+    @Test
+    void doFilter_ReplacesAnInvalidCorrelationId() throws Exception {
+        // Given : tentative d'injection de ligne dans les logs
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.addHeader(RequestLoggingFilter.CORRELATION_ID_HEADER, "x\nlevel=ERROR");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request, response, new MockFilterChain());
+
+        // Then
+        String correlationId = response.getHeader(RequestLoggingFilter.CORRELATION_ID_HEADER);
+        assertNotNull(correlationId);
+        assertEquals(36, correlationId.length());
+    }
+
+    @Test
+    void turboFilter_LetsApplicationDebugThroughOnlyForSampledRequests() throws Exception {
+        // Given
+        ch.qos.logback.classic.Logger appLogger = loggerContext.getLogger("com.example.back.security.JwtAuthenticationFilter");
+        ch.qos.logback.classic.Logger frameworkLogger = loggerContext.getLogger("org.hibernate.SQL");
+        ReflectionTestUtils.setField(filter, "debugSampleRate", 1.0);
+        Map<String, FilterReply> replies = new HashMap<>();
+
+        // When
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse res) {
+                replies.put("sampled", turboFilter.decide(null, appLogger, Level.DEBUG, "", null, null));
+            }
+        });
+        replies.put("unsampled", turboFilter.decide(null, appLogger, Level.DEBUG, "", null, null));
+
+        // Then
+        assertEquals(FilterReply.NEUTRAL, replies.get("sampled"));
+        assertEquals(FilterReply.DENY, replies.get("unsampled"));
+        assertEquals(FilterReply.NEUTRAL, turboFilter.decide(null, appLogger, Level.WARN, "", null, null));
+        assertEquals(FilterReply.NEUTRAL, turboFilter.decide(null, frameworkLogger, Level.DEBUG, "", null, null));
+    }
+}
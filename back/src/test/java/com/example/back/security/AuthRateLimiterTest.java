@@ -0,0 +1,168 @@
+package com.example.back.security;
+
+import com.example.back.dto.RateLimitStatsResponse;
+import com.example.back.exception.RateLimitExceededException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthRateLimiterTest {
+
+    private final AuthRateLimiter authRateLimiter = new AuthRateLimiter();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(authRateLimiter, "enabled", true);
+        ReflectionTestUtils.setField(authRateLimiter, "ipCapacity", 10L);
+        ReflectionTestUtils.setField(authRateLimiter, "ipRefillPerMinute", 1L);
+        ReflectionTestUtils.setField(authRateLimiter, "usernameCapacity", 3L);
+        ReflectionTestUtils.setField(authRateLimiter, "usernameRefillPerMinute", 1L);
+        ReflectionTestUtils.setField(authRateLimiter, "maxKeys", 1000);
+        authRateLimiter.init();
+    }
+
+    @Test
+    void check_RejectsUsernameAfterBurstWithRetryAfter() {
+        // Given : 3 tentatives permises pour un compte, quelle que soit la casse
+        authRateLimiter.check("10.0.0.1", "alice");
+        authRateLimiter.check("10.0.0.2", "Alice");
+        authRateLimiter.check("10.0.0.3", "ALICE ");
+
+        // When
+        RateLimitExceededException ex = assertThrows(RateLimitExceededException.class,
+                () -> authRateLimiter.check("10.0.0.4", "alice"));
+
+        // Then : un jeton par minute, les autres comptes ne sont pas touchés
+        assertTrue(ex.getRetryAfterSeconds() > 0 && ex.getRetryAfterSeconds() <= 60);
+        assertDoesNotThrow(() -> authRateLimiter.check("10.0.0.4", "bob"));
+        RateLimitStatsResponse stats = authRateLimiter.getStats();
+        assertEquals(4L, stats.getAllowed());
+        assertEquals(1L, stats.getRejectedByUsername());
+    }
+
+    @Test
+    void check_RejectsIpAcrossUsernames() {
+        // Given
+        for (int i = 0; i < 10; i++) {
+            authRateLimiter.check("10.0.0.1", "user" + i);
+        }
+
+        // When & Then
+        assertThrows(RateLimitExceededException.class, () -> authRateLimiter.check("10.0.0.1", "other"));
+        assertEquals(1L, authRateLimiter.getStats().getRejectedByIp());
+        assertDoesNotThrow(() -> authRateLimiter.check("10.0.0.2", "other"));
+    }
+
+    @Test
+    void check_GrantsExactlyCapacityUnderConcurrency() throws InterruptedException {
+        // Given
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        AtomicInteger granted = new AtomicInteger();
+
+        // When : 200 tentatives simultanées depuis la même IP
+        for (int i = 0; i < 200; i++) {
+            int n = i;
+            pool.execute(() -> {
+                try {
+                    authRateLimiter.check("10.0.0.9", "user" + n);
+                    granted.incrementAndGet();
+                } catch (RateLimitExceededException ignored) {
+                    // refus attendu
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(10, granted.get());
+        assertEquals(190L, authRateLimiter.getStats().getRejectedByIp());
+    }
+
+    @Test
+    void tokenBucketMap_RefillsOverTimeAndStaysBounded() {
+        // Given : 2 jetons, un jeton par seconde, 100 clés au plus
+        TokenBucketMap buckets = new TokenBucketMap(2, 1_000_000_000L, 100);
+        long now = 0;
+
+        // When & Then
+        assertEquals(0, buckets.tryAcquire("a", now));
+        assertEquals(0, buckets.tryAcquire("a", now));
+        assertEquals(1_000_000_000L, buckets.tryAcquire("a", now));
+        assertEquals(0, buckets.tryAcquire("a", now + 1_000_000_000L));
+        for (int i = 0; i < 1_000; i++) {
+            buckets.tryAcquire("key" + i, now);
+        }
+        assertTrue(buckets.size() <= 100);
+    }
+
+    @Test
+    void tokenBucketMap_KeepsDepletedBucketsUnderKeyPressure() {
+        // Given : une clé épuisée, puis la table remplie de clés nouvelles
+        TokenBucketMap buckets = new TokenBucketMap(2, 1_000_000_000L, 10);
+        long now = 0;
+        buckets.tryAcquire("attacker", now);
+        buckets.tryAcquire("attacker", now);
+        for (int i = 0; i < 1_000; i++) {
+            buckets.tryAcquire("key" + i, now);
+        }
+
+        // When & Then : la clé épuisée reste limitée, les clés en trop partagent le seau de débordement
+        assertTrue(buckets.tryAcquire("attacker", now) > 0);
+        assertTrue(buckets.tryAcquire("newcomer", now) > 0);
+        assertEquals(10, buckets.size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void tokenBucketMap_PurgedBucketIsNeverChargedAgain() {
+        // Given : un seau plein lu dans la table par un tryAcquire concurrent, puis purgé
+        TokenBucketMap buckets = new TokenBucketMap(1, 1_000_000_000L, 10);
+        Map<String, AtomicLong> table = (Map<String, AtomicLong>) ReflectionTestUtils.getField(buckets, "buckets");
+        AtomicLong held = new AtomicLong(0);
+        table.put("client", held);
+        buckets.purgeFull(0);
+
+        // When & Then : le CAS du détenteur échoue, le jeton est pris sur le seau de la table
+        assertFalse(held.compareAndSet(0, 1_000_000_000L));
+        assertEquals(0, buckets.tryAcquire("client", 0));
+        assertNotSame(held, table.get("client"));
+        assertTrue(buckets.tryAcquire("client", 0) > 0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void tokenBucketMap_RetriesLookupWhenBucketMarkedRemoved() {
+        // Given : un seau marqué par la purge mais pas encore retiré de la table
+        TokenBucketMap buckets = new TokenBucketMap(1, 1_000_000_000L, 10);
+        Map<String, AtomicLong> table = (Map<String, AtomicLong>) ReflectionTestUtils.getField(buckets, "buckets");
+        AtomicLong marked = new AtomicLong(0);
+        table.put("client", marked);
+        buckets.purgeFull(0);
+        table.put("client", marked);
+
+        // When & Then : tryAcquire écarte le seau marqué et consomme sur un seau neuf
+        assertEquals(0, buckets.tryAcquire("client", 0));
+        assertNotSame(marked, table.get("client"));
+        assertTrue(buckets.tryAcquire("client", 0) > 0);
+    }
+
+    @Test
+    void clientKey_GroupsIpv6ByPrefix() {
+        assertEquals("192.168.1.10", AuthRateLimiter.clientKey("192.168.1.10"));
+        assertEquals("20010db800000001/64", AuthRateLimiter.clientKey("2001:db8:0:1::1"));
+        assertEquals(AuthRateLimiter.clientKey("2001:db8:0:1::1"),
+                AuthRateLimiter.clientKey("2001:db8:0:1:abcd::42"));
+        assertNotEquals(AuthRateLimiter.clientKey("2001:db8:0:1::1"),
+                AuthRateLimiter.clientKey("2001:db8:0:2::1"));
+    }
+}
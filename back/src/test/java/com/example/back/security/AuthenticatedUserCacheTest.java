@@ -0,0 +1,145 @@
+package com.example.back.security;
+
+import com.example.back.exception.InvalidCredentialsException;
+import com.example.back.model.Role;
+import com.example.back.model.User;
+import com.example.back.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthenticatedUserCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private AuthenticatedUserCache authenticatedUserCache;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(authenticatedUserCache, "maxEntries", 100);
+        ReflectionTestUtils.setField(authenticatedUserCache, "ttlMs", 60_000L);
+    }
+
+    @Test
+    void get_LoadsOnceThenServesFromCache() {
+        // Given
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user("alice", true)));
+
+        // When
+        AuthenticatedUser first = authenticatedUserCache.get("alice");
+        AuthenticatedUser second = authenticatedUserCache.get("alice");
+
+        // Then
+        assertEquals(1L, first.id());
+        assertEquals(Set.of(Role.USER), first.roles());
+        assertSame(first, second);
+        verify(userRepository, times(1)).findByUsername("alice");
+    }
+
+    @Test
+    void evict_ReloadsTheUpdatedUser() {
+        // Given
+        User alice = user("alice", true);
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(alice));
+        authenticatedUserCache.get("alice");
+
+        // When
+        alice.setRoles(Set.of(Role.USER, Role.ADMIN));
+        authenticatedUserCache.evict("alice");
+
+        // Then
+        assertEquals(Set.of(Role.USER, Role.ADMIN), authenticatedUserCache.get("alice").roles());
+        verify(userRepository, times(2)).findByUsername("alice");
+    }
+
+    @Test
+    void get_RejectsDisabledAndUnknownUsers() {
+        // Given
+        when(userRepository.findByUsername("bob")).thenReturn(Optional.of(user("bob", false)));
+        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(InvalidCredentialsException.class, () -> authenticatedUserCache.get("bob"));
+        assertThrows(InvalidCredentialsException.class, () -> authenticatedUserCache.get("ghost"));
+        assertThrows(InvalidCredentialsException.class, () -> authenticatedUserCache.get("bob"));
+        verify(userRepository, times(1)).findByUsername("bob");
+    }
+
+    @Test
+    void isCurrent_RejectsTokensFromAnOlderAccountVersion() {
+        // Given
+        User alice = user("alice", true);
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(alice));
+        JwtPrincipal before = principal("alice", 1L, 0L);
+
+        // When : rôles modifiés, version incrémentée puis cache invalidé
+        boolean currentBefore = authenticatedUserCache.isCurrent(before);
+        alice.setAccountVersion(1L);
+        authenticatedUserCache.evict("alice");
+
+        // Then
+        assertTrue(currentBefore);
+        assertFalse(authenticatedUserCache.isCurrent(before));
+        assertTrue(authenticatedUserCache.isCurrent(principal("alice", 1L, 1L)));
+        assertFalse(authenticatedUserCache.isCurrent(principal("alice", 2L, 1L)));
+        verify(userRepository, times(2)).findByUsername("alice");
+    }
+
+    @Test
+    void isCurrent_RejectsDisabledAndDeletedUsers() {
+        // Given
+        when(userRepository.findByUsername("bob")).thenReturn(Optional.of(user("bob", false)));
+        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        // When & Then
+        assertFalse(authenticatedUserCache.isCurrent(principal("bob", 1L, 0L)));
+        assertFalse(authenticatedUserCache.isCurrent(principal("ghost", 1L, 0L)));
+    }
+
+    @Test
+    void get_ExpiredEntryIsReloaded() {
+        // Given
+        ReflectionTestUtils.setField(authenticatedUserCache, "ttlMs", 0L);
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user("alice", true)));
+
+        // When
+        authenticatedUserCache.get("alice");
+        authenticatedUserCache.get("alice");
+
+        // Then
+        verify(userRepository, times(2)).findByUsername("alice");
+    }
+
+    private JwtPrincipal principal(String subject, Long userId, long accountVersion) {
+        return new JwtPrincipal(subject, userId, accountVersion, List.of("ROLE_USER"), "jti", Instant.now(),
+                Instant.now().plusSeconds(3600));
+    }
+
+    private User user(String username, boolean enabled) {
+        return User.builder()
+                .id(1L)
+                .username(username)
+                .email(username + "@example.com")
+                .password("hash")
+                .roles(Set.of(Role.USER))
+                .enabled(enabled)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.back.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BCryptCostCalibratorTest {
+
+    @Test
+    void calibrate_PicksTheHighestCostUnderTheTarget() {
+        // Given : 6 ms au coût 10, donc ~96 ms au coût 14 et ~192 ms au coût 15
+        // When
+        int cost = BCryptCostCalibrator.calibrate(100, 10, 16, c -> 6);
+
+        // Then
+        assertEquals(14, cost);
+    }
+
+    @Test
+    void calibrate_StaysWithinBounds() {
+        // Nœud lent : même le coût minimal dépasse la cible
+        assertEquals(10, BCryptCostCalibrator.calibrate(100, 10, 16, c -> 250));
+        // Nœud rapide : plafonné au coût maximal
+        assertEquals(16, BCryptCostCalibrator.calibrate(10_000, 10, 16, c -> 0));
+        assertThrows(IllegalArgumentException.class, () -> BCryptCostCalibrator.calibrate(100, 12, 10, c -> 1));
+    }
+
+    @Test
+    void calibrate_KeepsTheFastestSample() {
+        // Given : première mesure ralentie par le JIT
+        long[] samples = {80, 6, 7};
+        int[] call = {0};
+
+        // When
+        int cost = BCryptCostCalibrator.calibrate(100, 10, 16, c -> samples[call[0]++]);
+
+        // Then
+        assertEquals(14, cost);
+    }
+
+    @Test
+    void delegatingEncoder_FlagsLegacyAndWeakerHashesForUpgrade() {
+        // Given : même configuration que SecurityConfig, au coût 5 pour la rapidité du test
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(5);
+        DelegatingPasswordEncoder encoder =
+                new DelegatingPasswordEncoder("bcrypt", Map.<String, PasswordEncoder>of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        String legacy = new BCryptPasswordEncoder(5).encode("secret");
+        String weaker = "{bcrypt}" + new BCryptPasswordEncoder(4).encode("secret");
+        String current = encoder.encode("secret");
+
+        // When & Then
+        assertTrue(encoder.matches("secret", legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+        assertTrue(encoder.upgradeEncoding(weaker));
+        assertTrue(current.startsWith("{bcrypt}"));
+        assertFalse(encoder.upgradeEncoding(current));
+    }
+}
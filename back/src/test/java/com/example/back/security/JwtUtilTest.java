@@ -0,0 +1,251 @@
+package com.example.back.security;
+
+import com.example.back.model.JwtSigningKey;
+import com.example.back.repository.JwtSigningKeyRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtUtilTest {
+
+    @Mock
+    private JwtSigningKeyRepository jwtSigningKeyRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private JwtKeyService jwtKeyService;
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtKeyService = new JwtKeyService();
+        ReflectionTestUtils.setField(jwtKeyService, "jwtSigningKeyRepository", jwtSigningKeyRepository);
+        ReflectionTestUtils.setField(jwtKeyService, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(jwtKeyService, "signingEnabled", true);
+        ReflectionTestUtils.setField(jwtKeyService, "rotationIntervalMs", 86_400_000L);
+        ReflectionTestUtils.setField(jwtKeyService, "unknownKidRefreshMs", 5_000L);
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtKeyService", jwtKeyService);
+    }
+
+    @Test
+    void verify_ReturnsSubjectRolesAndExpiry() {
+        // Given
+        String token = jwtUtil.generateToken(1L, "alice", 3L,
+                List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN")));
+
+        // When
+        JwtPrincipal principal = jwtUtil.verify(token);
+
+        // Then
+        assertEquals("alice", principal.getName());
+        assertEquals(1L, principal.userId());
+        assertEquals(3L, principal.accountVersion());
+        assertNotNull(principal.tokenId());
+        assertNotNull(principal.issuedAt());
+        assertEquals(List.of("ROLE_USER", "ROLE_ADMIN"), principal.roles());
+        assertTrue(principal.expiresAt().isAfter(Instant.now().plus(23, ChronoUnit.HOURS)));
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN")),
+                principal.authorities());
+        verify(jwtSigningKeyRepository).save(argThat(key -> key.getAlgorithm().equals("ES256")));
+    }
+
+    @Test
+    void verify_RejectsTamperedToken() {
+        // Given
+        String token = jwtUtil.generateToken(1L, "alice", 0L, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        String forged = jwtUtil.generateToken(2L, "mallory", 0L, List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        String[] parts = token.split("\\.");
+        String tampered = parts[0] + "." + forged.split("\\.")[1] + "." + parts[2];
+
+        // When & Then
+        assertThrows(JwtException.class, () -> jwtUtil.verify(tampered));
+    }
+
+    @Test
+    void verify_RejectsExpiredToken() {
+        // Given
+        JwtKeyService.ActiveKey key = jwtKeyService.signingKey();
+        String expired = Jwts.builder()
+                .header().keyId(key.kid()).and()
+                .subject("alice")
+                .claim("roles", "ROLE_USER")
+                .expiration(Date.from(Instant.now().minusSeconds(60)))
+                .signWith(key.privateKey(), Jwts.SIG.ES256)
+                .compact();
+
+        // When & Then
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.verify(expired));
+    }
+
+    @Test
+    void verify_RejectsTokenWithoutAccountClaims() {
+        // Given : token émis avant l'ajout des claims uid et ver
+        JwtKeyService.ActiveKey key = jwtKeyService.signingKey();
+        String token = Jwts.builder()
+                .header().keyId(key.kid()).and()
+                .subject("alice")
+                .claim("roles", "ROLE_USER")
+                .expiration(Date.from(Instant.now().plusSeconds(60)))
+                .signWith(key.privateKey(), Jwts.SIG.ES256)
+                .compact();
+
+        // When & Then
+        assertThrows(JwtException.class, () -> jwtUtil.verify(token));
+    }
+
+    @Test
+    void verify_AcceptsTokensSignedBeforeRotation() {
+        // Given
+        String before = jwtUtil.generateToken(1L, "alice", 0L, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        String oldKid = jwtKeyService.signingKey().kid();
+
+        // When : rotation forcée
+        ReflectionTestUtils.setField(jwtKeyService, "rotationIntervalMs", 0L);
+        jwtKeyService.rotate();
+        ReflectionTestUtils.setField(jwtKeyService, "rotationIntervalMs", 86_400_000L);
+        String after = jwtUtil.generateToken(1L, "alice", 0L, List.of(new SimpleGrantedAuthority("ROLE_USER")));
+
+        // Then : l'ancienne clé reste publiée jusqu'à l'expiration de ses tokens
+        assertNotEquals(oldKid, jwtKeyService.signingKey().kid());
+        assertEquals("alice", jwtUtil.verify(before).getName());
+        assertEquals("alice", jwtUtil.verify(after).getName());
+        verify(jwtSigningKeyRepository).updateExpiresAt(eq(oldKid), any(LocalDateTime.class));
+    }
+
+    @Test
+    void verify_AcceptsTokensFromAnotherNodeOnceItsKeyIsPublished() throws Exception {
+        // Given : un autre nœud signe avec sa propre clé
+        KeyPair other = generateKeyPair();
+        String token = Jwts.builder()
+                .header().keyId("other-node").and()
+                .subject("bob")
+                .claim("uid", 2)
+                .claim("ver", 0)
+                .claim("roles", "ROLE_USER")
+                .expiration(Date.from(Instant.now().plusSeconds(60)))
+                .signWith(other.getPrivate(), Jwts.SIG.ES256)
+                .compact();
+        when(jwtSigningKeyRepository.findByExpiresAtAfter(any(LocalDateTime.class))).thenReturn(List.of(
+                JwtSigningKey.builder()
+                        .kid("other-node")
+                        .algorithm("ES256")
+                        .publicKey(other.getPublic().getEncoded())
+                        .build()
+        ));
+
+        // When
+        JwtPrincipal principal = jwtUtil.verify(token);
+        jwtUtil.verify(token);
+
+        // Then : une seule relecture, la clé est ensuite en cache
+        assertEquals("bob", principal.getName());
+        verify(jwtSigningKeyRepository, times(1)).findByExpiresAtAfter(any(LocalDateTime.class));
+    }
+
+    @Test
+    void verify_RejectsUnknownKidWithRateLimitedRefresh() throws Exception {
+        // Given
+        KeyPair unknown = generateKeyPair();
+        String token = Jwts.builder()
+                .header().keyId("unknown").and()
+                .subject("mallory")
+                .expiration(Date.from(Instant.now().plusSeconds(60)))
+                .signWith(unknown.getPrivate(), Jwts.SIG.ES256)
+                .compact();
+        when(jwtSigningKeyRepository.findByExpiresAtAfter(any(LocalDateTime.class))).thenReturn(List.of());
+
+        // When & Then
+        assertThrows(JwtException.class, () -> jwtUtil.verify(token));
+        assertThrows(JwtException.class, () -> jwtUtil.verify(token));
+        verify(jwtSigningKeyRepository, times(1)).findByExpiresAtAfter(any(LocalDateTime.class));
+    }
+
+    @Test
+    void verify_RejectsLegacyHmacToken() {
+        // Given : ancien format HS256, même avec le kid de la clé courante
+        String kid = jwtKeyService.signingKey().kid();
+        String legacy = Jwts.builder()
+                .header().keyId(kid).and()
+                .subject("alice")
+                .claim("roles", "ROLE_ADMIN")
+                .expiration(Date.from(Instant.now().plusSeconds(60)))
+                .signWith(Keys.hmacShaKeyFor(new byte[32]))
+                .compact();
+
+        // When & Then
+        assertThrows(JwtException.class, () -> jwtUtil.verify(legacy));
+    }
+
+    @Test
+    void rotate_DoesNothingOnVerifyOnlyNode() {
+        // Given : nœud vérificateur seulement
+        ReflectionTestUtils.setField(jwtKeyService, "signingEnabled", false);
+
+        // When : la tâche planifiée ne doit pas échouer
+        jwtKeyService.rotate();
+
+        // Then : aucune clé créée, et l'émission de tokens est refusée
+        verifyNoInteractions(jwtSigningKeyRepository);
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> jwtUtil.generateToken(1L, "alice", 0L, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        assertEquals("Token signing is disabled on this node", exception.getMessage());
+    }
+
+    @Test
+    void jwks_PublishesPublicKeysOnly() throws Exception {
+        // Given
+        String oldKid = jwtKeyService.signingKey().kid();
+        ReflectionTestUtils.setField(jwtKeyService, "rotationIntervalMs", 0L);
+        jwtKeyService.rotate();
+
+        // When
+        Map<String, Object> jwks = jwtKeyService.jwks();
+        JsonNode json = new ObjectMapper().readTree(new ObjectMapper().writeValueAsString(jwks));
+
+        // Then
+        assertEquals(2, json.get("keys").size());
+        for (JsonNode key : json.get("keys")) {
+            assertEquals("EC", key.get("kty").asText());
+            assertEquals("P-256", key.get("crv").asText());
+            assertEquals("ES256", key.get("alg").asText());
+            assertEquals("sig", key.get("use").asText());
+            assertTrue(key.has("x") && key.has("y"));
+            assertFalse(key.has("d"));
+        }
+        assertTrue(json.toString().contains(oldKid));
+    }
+
+    private static KeyPair generateKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        return generator.generateKeyPair();
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.back.security;
+
+import com.example.back.model.RevocationKind;
+import com.example.back.model.RevokedToken;
+import com.example.back.repository.RevokedTokenRepository;
+import com.example.back.stats.BloomFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationListTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private TokenRevocationList tokenRevocationList;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tokenRevocationList, "expectedEntries", 1000);
+        ReflectionTestUtils.setField(tokenRevocationList, "falsePositiveRate", 0.01);
+        ReflectionTestUtils.setField(tokenRevocationList, "gapTimeoutMs", 60_000L);
+    }
+
+    @Test
+    void isRevoked_RejectsRevokedTokensAndSubjectsLoadedAtStartup() {
+        // Given : un token révoqué et un utilisateur désactivé il y a une heure
+        LocalDateTime now = LocalDateTime.now();
+        when(revokedTokenRepository.findTop1000ByIdGreaterThanOrderByIdAsc(0L)).thenReturn(List.of(
+                row(5L, RevocationKind.TOKEN, "jti-1", now.minusMinutes(5), now.plusHours(1)),
+                row(9L, RevocationKind.SUBJECT, "bob", now.minusHours(1), now.plusHours(23))
+        ));
+        tokenRevocationList.load();
+
+        // When & Then
+        assertTrue(tokenRevocationList.isRevoked(principal("alice", "jti-1", Instant.now().minusSeconds(60))));
+        assertFalse(tokenRevocationList.isRevoked(principal("alice", "jti-2", Instant.now().minusSeconds(60))));
+        assertTrue(tokenRevocationList.isRevoked(principal("bob", "jti-3", Instant.now().minusSeconds(7200))));
+        // Token obtenu après la révocation de l'utilisateur (compte réactivé)
+        assertFalse(tokenRevocationList.isRevoked(principal("bob", "jti-4", Instant.now())));
+        assertEquals(9L, tokenRevocationList.getVersion());
+    }
+
+    @Test
+    void revokeSubject_AppliesLocallyBeforeThePoll() {
+        // Given
+        when(revokedTokenRepository.findTop1000ByIdGreaterThanOrderByIdAsc(0L)).thenReturn(List.of());
+        tokenRevocationList.load();
+        when(revokedTokenRepository.save(any(RevokedToken.class))).thenAnswer(invocation -> {
+            RevokedToken saved = invocation.getArgument(0);
+            saved.setId(1L);
+            return saved;
+        });
+        JwtPrincipal issuedBefore = principal("carol", "jti-1", Instant.now().minusSeconds(10));
+
+        // When
+        tokenRevocationList.revokeSubject("carol");
+
+        // Then
+        assertTrue(tokenRevocationList.isRevoked(issuedBefore));
+    }
+
+    @Test
+    void poll_WaitsForMissingVersionsBeforeAdvancing() {
+        // Given : la version 2 n'est pas encore validée quand la 3 est lue
+        LocalDateTime now = LocalDateTime.now();
+        when(revokedTokenRepository.findTop1000ByIdGreaterThanOrderByIdAsc(0L)).thenReturn(List.of(
+                row(1L, RevocationKind.TOKEN, "jti-1", now, now.plusHours(1))
+        ));
+        tokenRevocationList.load();
+        when(revokedTokenRepository.findTop1000ByIdGreaterThanOrderByIdAsc(1L))
+                .thenReturn(List.of(row(3L, RevocationKind.TOKEN, "jti-3", now, now.plusHours(1))))
+                .thenReturn(List.of(
+                        row(2L, RevocationKind.TOKEN, "jti-2", now, now.plusHours(1)),
+                        row(3L, RevocationKind.TOKEN, "jti-3", now, now.plusHours(1))));
+
+        // When
+        tokenRevocationList.poll();
+        long versionWithGap = tokenRevocationList.getVersion();
+        tokenRevocationList.poll();
+
+        // Then
+        assertEquals(1L, versionWithGap);
+        assertEquals(3L, tokenRevocationList.getVersion());
+        assertTrue(tokenRevocationList.isRevoked(principal("alice", "jti-2", Instant.now())));
+        assertTrue(tokenRevocationList.isRevoked(principal("alice", "jti-3", Instant.now())));
+    }
+
+    @Test
+    void load_DoesNotSkipRecentGap() {
+        // Given : la version 2 est réservée par une transaction en cours, la 3 vient d'être validée
+        LocalDateTime now = LocalDateTime.now();
+        when(revokedTokenRepository.findTop1000ByIdGreaterThanOrderByIdAsc(0L)).thenReturn(List.of(
+                row(1L, RevocationKind.TOKEN, "jti-1", now.minusHours(1), now.plusHours(1)),
+                row(3L, RevocationKind.TOKEN, "jti-3", now, now.plusHours(1))
+        ));
+        when(revokedTokenRepository.findTop1000ByIdGreaterThanOrderByIdAsc(1L)).thenReturn(List.of(
+                row(2L, RevocationKind.TOKEN, "jti-2", now, now.plusHours(1)),
+                row(3L, RevocationKind.TOKEN, "jti-3", now, now.plusHours(1))
+        ));
+
+        // When
+        tokenRevocationList.load();
+        long versionAfterLoad = tokenRevocationList.getVersion();
+        boolean revokedAfterLoad = tokenRevocationList.isRevoked(principal("alice", "jti-3", Instant.now()));
+        tokenRevocationList.poll();
+
+        // Then : tout est appliqué, mais la version attend la 2 avant de la dépasser
+        assertEquals(1L, versionAfterLoad);
+        assertTrue(revokedAfterLoad);
+        assertTrue(tokenRevocationList.isRevoked(principal("alice", "jti-2", Instant.now())));
+        assertEquals(3L, tokenRevocationList.getVersion());
+    }
+
+    @Test
+    void bloomFilter_HasNoFalseNegativesAndFewFalsePositives() {
+        // Given
+        BloomFilter bloom = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            bloom.add("t:" + i);
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 10_000; i < 110_000; i++) {
+            if (bloom.mightContain("t:" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(bloom.mightContain("t:" + i));
+        }
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    private RevokedToken row(long id, RevocationKind kind, String target, LocalDateTime revokedAt,
+                             LocalDateTime expiresAt) {
+        return RevokedToken.builder()
+                .id(id)
+                .kind(kind)
+                .target(target)
+                .revokedAt(revokedAt)
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    private JwtPrincipal principal(String subject, String tokenId, Instant issuedAt) {
+        return new JwtPrincipal(subject, 1L, 0L, List.of("ROLE_USER"), tokenId, issuedAt, Instant.now().plusSeconds(3600));
+    }
+}
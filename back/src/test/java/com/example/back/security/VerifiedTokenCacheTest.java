@@ -0,0 +1,108 @@
+package com.example.back.security;
+
+import com.example.back.dto.TokenCacheStatsResponse;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VerifiedTokenCacheTest {
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @InjectMocks
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(verifiedTokenCache, "maxEntries", 100);
+        ReflectionTestUtils.setField(verifiedTokenCache, "maxTtlMs", 600_000L);
+    }
+
+    @Test
+    void verify_ChecksSignatureOnlyOnFirstUse() {
+        // Given
+        when(jwtUtil.verify("token-a")).thenReturn(principal("alice", Instant.now().plusSeconds(3600)));
+
+        // When
+        JwtPrincipal first = verifiedTokenCache.verify("token-a");
+        JwtPrincipal second = verifiedTokenCache.verify("token-a");
+        JwtPrincipal third = verifiedTokenCache.verify("token-a");
+
+        // Then
+        assertSame(first, second);
+        assertSame(first, third);
+        verify(jwtUtil, times(1)).verify("token-a");
+        TokenCacheStatsResponse stats = verifiedTokenCache.getStats();
+        assertEquals(2L, stats.getHits());
+        assertEquals(1L, stats.getMisses());
+        assertEquals(2.0 / 3, stats.getHitRatio(), 0.001);
+    }
+
+    @Test
+    void verify_DoesNotServeEntriesPastTokenExpiry() throws InterruptedException {
+        // Given : le token expire dans 50 ms, puis sa vérification échoue
+        when(jwtUtil.verify("token-a"))
+                .thenReturn(principal("alice", Instant.now().plusMillis(50)))
+                .thenThrow(new JwtException("expired"));
+        verifiedTokenCache.verify("token-a");
+
+        // When
+        Thread.sleep(100);
+
+        // Then
+        assertThrows(JwtException.class, () -> verifiedTokenCache.verify("token-a"));
+        verify(jwtUtil, times(2)).verify("token-a");
+    }
+
+    @Test
+    void evictSubject_ForcesVerificationOfThatUsersTokens() {
+        // Given
+        when(jwtUtil.verify("token-a")).thenReturn(principal("alice", Instant.now().plusSeconds(3600)));
+        when(jwtUtil.verify("token-b")).thenReturn(principal("bob", Instant.now().plusSeconds(3600)));
+        verifiedTokenCache.verify("token-a");
+        verifiedTokenCache.verify("token-b");
+
+        // When
+        verifiedTokenCache.evictSubject("alice");
+        verifiedTokenCache.verify("token-a");
+        verifiedTokenCache.verify("token-b");
+
+        // Then
+        verify(jwtUtil, times(2)).verify("token-a");
+        verify(jwtUtil, times(1)).verify("token-b");
+        assertEquals(1L, verifiedTokenCache.getStats().getEvictions());
+    }
+
+    @Test
+    void verify_StaysWithinMaxEntries() {
+        // Given
+        when(jwtUtil.verify(anyString())).thenAnswer(invocation ->
+                principal(invocation.getArgument(0), Instant.now().plusSeconds(3600)));
+
+        // When
+        for (int i = 0; i < 1_000; i++) {
+            verifiedTokenCache.verify("token-" + i);
+        }
+
+        // Then
+        assertTrue(verifiedTokenCache.getStats().getSize() <= 100);
+    }
+
+    private JwtPrincipal principal(String subject, Instant expiresAt) {
+        return new JwtPrincipal(subject, 1L, 0L, List.of("ROLE_USER"), subject + "-jti", Instant.now(), expiresAt);
+    }
+}
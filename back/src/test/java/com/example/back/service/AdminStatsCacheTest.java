@@ -0,0 +1,115 @@
+package com.example.back.service;
+
+import com.example.back.dto.AdminStatsDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdminStatsCacheTest {
+
+    @Mock
+    private AdminStatsCounters adminStatsCounters;
+
+    @InjectMocks
+    private AdminStatsCache adminStatsCache;
+
+    private void init(long freshMs, long maxStaleMs) {
+        ReflectionTestUtils.setField(adminStatsCache, "freshMs", freshMs);
+        ReflectionTestUtils.setField(adminStatsCache, "maxStaleMs", maxStaleMs);
+        adminStatsCache.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        adminStatsCache.shutdown();
+    }
+
+    private AdminStatsDTO stats(long orders) {
+        return AdminStatsDTO.builder().totalOrders(orders).build();
+    }
+
+    @Test
+    void get_ConcurrentCallersShareOneComputation() throws Exception {
+        // Given : un calcul lent, 8 appelants simultanés sans valeur en cache
+        init(60_000, 60_000);
+        CountDownLatch release = new CountDownLatch(1);
+        when(adminStatsCounters.snapshot()).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return stats(1);
+        });
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+
+        // When
+        List<Future<AdminStatsDTO>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(callers.submit(adminStatsCache::get));
+        }
+        Thread.sleep(200);
+        release.countDown();
+
+        // Then
+        for (Future<AdminStatsDTO> result : results) {
+            assertEquals(1L, result.get(5, TimeUnit.SECONDS).getTotalOrders());
+        }
+        verify(adminStatsCounters, times(1)).snapshot();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void get_ServesStaleValueWhileRefreshingInBackground() throws Exception {
+        // Given
+        init(50, 60_000);
+        when(adminStatsCounters.snapshot()).thenReturn(stats(1), stats(2));
+        assertEquals(1L, adminStatsCache.get().getTotalOrders());
+        Thread.sleep(100);
+
+        // When : valeur périmée servie immédiatement, recalcul lancé
+        AdminStatsDTO stale = adminStatsCache.get();
+
+        // Then
+        assertEquals(1L, stale.getTotalOrders());
+        verify(adminStatsCounters, timeout(2_000).times(2)).snapshot();
+        Thread.sleep(50);
+        assertEquals(2L, adminStatsCache.get().getTotalOrders());
+    }
+
+    @Test
+    void get_FreshValueIsNotRecomputed() {
+        init(60_000, 60_000);
+        when(adminStatsCounters.snapshot()).thenReturn(stats(1));
+
+        adminStatsCache.get();
+        adminStatsCache.get();
+
+        verify(adminStatsCounters, times(1)).snapshot();
+    }
+
+    @Test
+    void get_PropagatesFailureWithoutCachingIt() {
+        // Given
+        init(60_000, 60_000);
+        when(adminStatsCounters.snapshot())
+                .thenThrow(new IllegalStateException("boom"))
+                .thenReturn(stats(3));
+
+        // When / Then
+        assertThrows(IllegalStateException.class, adminStatsCache::get);
+        assertEquals(3L, adminStatsCache.get().getTotalOrders());
+    }
+}
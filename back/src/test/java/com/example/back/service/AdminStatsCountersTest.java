@@ -0,0 +1,151 @@
+package com.example.back.service;
+
+import com.example.back.dto.AdminStatsDTO;
+import com.example.back.repository.ArchivedOrderRepository;
+import com.example.back.repository.OrderRepository;
+import com.example.back.repository.ProductRepository;
+import com.example.back.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdminStatsCountersTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Mock
+    private DistinctBuyersService distinctBuyersService;
+
+    @Mock
+    private LowStockIndex lowStockIndex;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private AdminStatsCounters adminStatsCounters;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(adminStatsCounters, "reconcileThreads", 5);
+        ReflectionTestUtils.setField(adminStatsCounters, "reconcileDeadlineMs", 1000L);
+        adminStatsCounters.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        adminStatsCounters.shutdown();
+    }
+
+    @Test
+    void snapshot_ReflectsWritePathsWithoutQueries() {
+        // When
+        adminStatsCounters.productCreated();
+        adminStatsCounters.productCreated();
+        adminStatsCounters.userRegistered();
+        adminStatsCounters.orderCreated(100.0, LocalDateTime.now());
+        adminStatsCounters.orderCreated(50.5, LocalDateTime.now().minusDays(2));
+        adminStatsCounters.orderCreated(20.0, LocalDateTime.now().minusDays(10));
+        when(lowStockIndex.size()).thenReturn(2L);
+        AdminStatsDTO stats = adminStatsCounters.snapshot();
+
+        // Then
+        assertEquals(2L, stats.getTotalProducts());
+        assertEquals(1L, stats.getTotalUsers());
+        assertEquals(3L, stats.getTotalOrders());
+        assertEquals(170.5, stats.getTotalRevenue(), 0.001);
+        assertEquals(2L, stats.getRecentOrders()); // la commande d'il y a 10 jours est hors fenêtre
+        assertEquals(2L, stats.getLowStockProducts());
+        verifyNoInteractions(productRepository, userRepository, orderRepository, archivedOrderRepository);
+    }
+
+    @Test
+    void reconcile_ReplacesCountersWithDatabaseValues() {
+        // Given
+        adminStatsCounters.orderCreated(999.0, LocalDateTime.now());
+        when(productRepository.count()).thenReturn(15L);
+        when(userRepository.count()).thenReturn(4L);
+        when(orderRepository.count()).thenReturn(8L);
+        when(archivedOrderRepository.count()).thenReturn(2L);
+        when(lowStockIndex.size()).thenReturn(3L);
+        when(orderRepository.sumTotalAmount()).thenReturn(400.0);
+        when(archivedOrderRepository.sumTotalAmount()).thenReturn(100.0);
+        when(orderRepository.countByDaySince(any(LocalDateTime.class))).thenReturn(Arrays.asList(
+                new Object[]{Date.valueOf(LocalDate.now()), 3L},
+                new Object[]{Date.valueOf(LocalDate.now().minusDays(6)), 2L}
+        ));
+
+        // When
+        adminStatsCounters.reconcile();
+        AdminStatsDTO stats = adminStatsCounters.snapshot();
+
+        // Then
+        assertEquals(15L, stats.getTotalProducts());
+        assertEquals(4L, stats.getTotalUsers());
+        assertEquals(10L, stats.getTotalOrders());
+        assertEquals(500.0, stats.getTotalRevenue(), 0.001);
+        assertEquals(5L, stats.getRecentOrders());
+        assertEquals(3L, stats.getLowStockProducts());
+    }
+
+    @Test
+    void reconcile_ReturnsPartialResultWhenAQueryMissesTheDeadline() {
+        // Given : le comptage des utilisateurs dépasse l'échéance, celui des produits échoue
+        ReflectionTestUtils.setField(adminStatsCounters, "reconcileDeadlineMs", 200L);
+        adminStatsCounters.userRegistered();
+        when(productRepository.count()).thenThrow(new RuntimeException("connection reset"));
+        when(userRepository.count()).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return 99L;
+        });
+        when(orderRepository.count()).thenReturn(8L);
+        when(archivedOrderRepository.count()).thenReturn(0L);
+        when(orderRepository.sumTotalAmount()).thenReturn(400.0);
+        when(archivedOrderRepository.sumTotalAmount()).thenReturn(0.0);
+        when(orderRepository.countByDaySince(any(LocalDateTime.class))).thenReturn(List.of());
+
+        // When
+        long start = System.nanoTime();
+        adminStatsCounters.reconcile();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        AdminStatsDTO stats = adminStatsCounters.snapshot();
+
+        // Then : pas d'attente au-delà de l'échéance, les valeurs incrémentales sont conservées
+        assertTrue(elapsedMs < 2_000, "reconcile took " + elapsedMs + " ms");
+        assertEquals(1L, stats.getTotalUsers());
+        assertEquals(8L, stats.getTotalOrders());
+        assertEquals(List.of("totalProducts", "totalUsers"), stats.getStaleFields());
+        assertTrue(stats.getReconciledAt().containsKey("totalOrders"));
+        assertFalse(stats.getReconciledAt().containsKey("totalUsers"));
+        // Échéance reportée sur les requêtes (arrondie à la seconde supérieure)
+        verify(transactionManager, atLeastOnce()).getTransaction(argThat(definition ->
+                definition.isReadOnly() && definition.getTimeout() == 1));
+    }
+}
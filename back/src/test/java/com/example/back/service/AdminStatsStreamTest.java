@@ -0,0 +1,131 @@
+package com.example.back.service;
+
+import com.example.back.dto.AdminStatsDTO;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdminStatsStreamTest {
+
+    @Mock
+    private ProductService productService;
+
+    @InjectMocks
+    private AdminStatsStream adminStatsStream;
+
+    @BeforeEach
+    void setUp() {
+        // Envoi synchrone pour les tests
+        ReflectionTestUtils.setField(adminStatsStream, "sender", (Executor) Runnable::run);
+        // Comme le mapper de Spring Boot : dates ISO-8601
+        ReflectionTestUtils.setField(adminStatsStream, "objectMapper", new Jackson2ObjectMapperBuilder()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build());
+    }
+
+    private AdminStatsDTO stats(long orders, double revenue) {
+        return AdminStatsDTO.builder()
+                .totalProducts(10L)
+                .totalUsers(5L)
+                .totalOrders(orders)
+                .totalRevenue(revenue)
+                .recentOrders(orders)
+                .lowStockProducts(1L)
+                .build();
+    }
+
+    @Test
+    void publish_SkipsComputationWithoutSubscribers() {
+        adminStatsStream.publish();
+
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void publish_ComputesOncePerTickForAllSubscribers() throws IOException {
+        // Given
+        when(productService.getAdminStats()).thenReturn(stats(1, 10.0), stats(2, 30.0));
+        SseEmitter first = mock(SseEmitter.class);
+        SseEmitter second = mock(SseEmitter.class);
+        adminStatsStream.subscribe(first);
+        adminStatsStream.subscribe(second);
+
+        // When
+        adminStatsStream.publish();
+
+        // Then : un calcul à la connexion du premier abonné, un par intervalle ensuite
+        verify(productService, times(2)).getAdminStats();
+        verify(first, times(2)).send(any(SseEmitter.SseEventBuilder.class));
+        verify(second, times(2)).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    void publish_DoesNotResendUnchangedStats() throws IOException {
+        // Given
+        when(productService.getAdminStats()).thenReturn(stats(1, 10.0));
+        SseEmitter emitter = mock(SseEmitter.class);
+        adminStatsStream.subscribe(emitter);
+
+        // When
+        adminStatsStream.publish();
+        adminStatsStream.publish();
+
+        // Then : seul le snapshot initial est envoyé
+        verify(emitter, times(1)).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    void publish_DropsDisconnectedSubscriber() throws IOException {
+        // Given
+        when(productService.getAdminStats()).thenReturn(stats(1, 10.0), stats(2, 20.0));
+        SseEmitter emitter = mock(SseEmitter.class);
+        adminStatsStream.subscribe(emitter);
+        doThrow(new IOException("broken pipe")).when(emitter).send(any(SseEmitter.SseEventBuilder.class));
+
+        // When
+        adminStatsStream.publish();
+
+        // Then
+        assertEquals(0, adminStatsStream.getSubscriberCount());
+        verify(emitter).completeWithError(any(IOException.class));
+    }
+
+    @Test
+    void delta_ContainsOnlyChangedFields() {
+        Map<String, Object> delta = adminStatsStream.delta(stats(1, 10.0), stats(2, 10.0));
+
+        assertEquals(Map.of("totalOrders", 2L, "recentOrders", 2L), delta);
+    }
+
+    @Test
+    void delta_HandlesReconciliationTimestamps() {
+        // Given
+        AdminStatsDTO previous = stats(1, 10.0);
+        previous.setReconciledAt(Map.of("totalOrders", LocalDateTime.of(2024, 1, 1, 12, 0)));
+        AdminStatsDTO next = stats(1, 10.0);
+        next.setReconciledAt(Map.of("totalOrders", LocalDateTime.of(2024, 1, 1, 12, 5)));
+
+        // When
+        Map<String, Object> delta = adminStatsStream.delta(previous, next);
+
+        // Then
+        assertEquals(Map.of("reconciledAt", Map.of("totalOrders", "2024-01-01T12:05:00")), delta);
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.back.service;
+
+import com.example.back.model.DistinctBuyersSketch;
+import com.example.back.repository.ArchivedOrderRepository;
+import com.example.back.repository.DistinctBuyersSketchRepository;
+import com.example.back.repository.OrderRepository;
+import com.example.back.stats.HyperLogLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DistinctBuyersServiceTest {
+
+    @Mock
+    private DistinctBuyersSketchRepository sketchRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private DistinctBuyersService distinctBuyersService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(distinctBuyersService, "memoryDays", 35);
+    }
+
+    @Test
+    void countDistinctBuyers_IgnoresRepeatBuyersAndMergesDays() {
+        // Given : 10 000 acheteurs aujourd'hui (chacun 3 fois), dont la moitié déjà venus hier
+        LocalDateTime now = LocalDateTime.now();
+        for (long userId = 0; userId < 10_000; userId++) {
+            for (int i = 0; i < 3; i++) {
+                distinctBuyersService.recordOrder(userId, now);
+            }
+        }
+        for (long userId = 5_000; userId < 15_000; userId++) {
+            distinctBuyersService.recordOrder(userId, now.minusDays(1));
+        }
+        LocalDate today = now.toLocalDate();
+
+        // When
+        long todayCount = distinctBuyersService.countDistinctBuyers(today, today);
+        long twoDays = distinctBuyersService.countDistinctBuyers(today.minusDays(1), today);
+
+        // Then : dans 3 écarts-types
+        double tolerance = 3 * DistinctBuyersService.RELATIVE_ERROR;
+        assertEquals(10_000, todayCount, 10_000 * tolerance);
+        assertEquals(15_000, twoDays, 15_000 * tolerance);
+        verifyNoInteractions(sketchRepository);
+    }
+
+    @Test
+    void countDistinctBuyers_ReadsOldDaysFromDatabase() {
+        // Given
+        HyperLogLog stored = new HyperLogLog(12);
+        for (long userId = 0; userId < 100; userId++) {
+            stored.add(userId);
+        }
+        LocalDate old = LocalDate.now().minusDays(100);
+        when(sketchRepository.findByDayBetween(old, old))
+                .thenReturn(List.of(new DistinctBuyersSketch(old, stored.toBytes(), LocalDateTime.now())));
+
+        // When
+        long count = distinctBuyersService.countDistinctBuyers(old, old);
+
+        // Then
+        assertEquals(100, count, 3);
+    }
+
+    @Test
+    void flush_MergesWithStoredSketchAndPersists() {
+        // Given
+        LocalDate today = LocalDate.now();
+        HyperLogLog stored = new HyperLogLog(12);
+        stored.add(42L);
+        when(sketchRepository.findByDay(today))
+                .thenReturn(Optional.of(new DistinctBuyersSketch(today, stored.toBytes(), LocalDateTime.now())));
+        distinctBuyersService.recordOrder(1L, LocalDateTime.now());
+
+        // When
+        distinctBuyersService.flush();
+        distinctBuyersService.flush();
+
+        // Then : un seul enregistrement, contenant les deux acheteurs
+        ArgumentCaptor<DistinctBuyersSketch> captor = ArgumentCaptor.forClass(DistinctBuyersSketch.class);
+        verify(sketchRepository, times(1)).save(captor.capture());
+        assertEquals(today, captor.getValue().getDay());
+        assertEquals(2, HyperLogLog.fromBytes(captor.getValue().getRegisters()).estimate());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void load_RebuildsFromOrderHistoryWhenEmpty() {
+        // Given
+        LocalDate day = LocalDate.now().minusDays(3);
+        List<Object[]> archived = new ArrayList<>();
+        archived.add(new Object[]{Date.valueOf(day), 1L});
+        List<Object[]> active = new ArrayList<>();
+        active.add(new Object[]{Date.valueOf(day), 2L});
+        active.add(new Object[]{Date.valueOf(day), 1L});
+        when(sketchRepository.count()).thenReturn(0L);
+        when(archivedOrderRepository.findBuyerDaysSince(any(LocalDateTime.class))).thenReturn(archived);
+        when(orderRepository.findBuyerDaysSince(any(LocalDateTime.class))).thenReturn(active);
+
+        // When
+        distinctBuyersService.load();
+
+        // Then
+        assertEquals(2, distinctBuyersService.countDistinctBuyers(day, day));
+        verify(sketchRepository).save(any(DistinctBuyersSketch.class));
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.back.service;
+
+import com.example.back.dto.LowStockProductResponse;
+import com.example.back.model.Categorie;
+import com.example.back.model.Product;
+import com.example.back.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LowStockIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private LowStockIndex lowStockIndex;
+
+    private Categorie electronics;
+    private Categorie books;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(lowStockIndex, "defaultThreshold", 5);
+        electronics = Categorie.builder().id(1L).name("Électronique").lowStockThreshold(10).build();
+        books = Categorie.builder().id(2L).name("Livres").build();
+    }
+
+    private Product product(long id, Categorie category, int stock) {
+        return Product.builder().id(id).name("Produit " + id).category(category).stockQuantity(stock).build();
+    }
+
+    @Test
+    void productChanged_UsesCategoryThresholdOrDefault() {
+        // When
+        lowStockIndex.productChanged(product(1, electronics, 8)); // < 10
+        lowStockIndex.productChanged(product(2, books, 8));       // >= 5
+        lowStockIndex.productChanged(product(3, books, 2));       // < 5
+
+        // Then
+        assertEquals(2, lowStockIndex.size());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void productChanged_OnlyTracksThresholdCrossings() {
+        // When
+        lowStockIndex.productChanged(product(1, books, 6)); // reste au-dessus
+        lowStockIndex.productChanged(product(1, books, 2)); // passe en dessous
+        lowStockIndex.productChanged(product(1, books, 1)); // reste en dessous
+        assertEquals(1, lowStockIndex.size());
+        lowStockIndex.productChanged(product(1, books, 20)); // réapprovisionné
+
+        // Then
+        assertEquals(0, lowStockIndex.size());
+    }
+
+    @Test
+    void productDeleted_RemovesFromIndex() {
+        lowStockIndex.productChanged(product(1, books, 1));
+
+        lowStockIndex.productDeleted(1L);
+
+        assertEquals(0, lowStockIndex.size());
+    }
+
+    @Test
+    void getLowStockProducts_PagesByAscendingStock() {
+        // Given
+        lowStockIndex.productChanged(product(1, electronics, 7));
+        lowStockIndex.productChanged(product(2, books, 0));
+        lowStockIndex.productChanged(product(3, books, 3));
+
+        // When
+        Page<LowStockProductResponse> first = lowStockIndex.getLowStockProducts(0, 2);
+        Page<LowStockProductResponse> second = lowStockIndex.getLowStockProducts(1, 2);
+
+        // Then
+        assertEquals(3, first.getTotalElements());
+        assertEquals(List.of(2L, 3L), first.getContent().stream().map(LowStockProductResponse::getProductId).toList());
+        assertEquals(List.of(1L), second.getContent().stream().map(LowStockProductResponse::getProductId).toList());
+        assertEquals(10, second.getContent().get(0).getThreshold());
+        assertTrue(lowStockIndex.getLowStockProducts(5, 2).getContent().isEmpty());
+    }
+
+    @Test
+    void rebuild_ReplacesIndexWithDatabaseState() {
+        // Given
+        lowStockIndex.productChanged(product(1, books, 1));
+        when(productRepository.findLowStock(5)).thenReturn(List.of(product(2, books, 3)));
+
+        // When
+        lowStockIndex.rebuild();
+
+        // Then
+        assertEquals(1, lowStockIndex.size());
+        assertEquals(2L, lowStockIndex.getLowStockProducts(0, 10).getContent().get(0).getProductId());
+    }
+
+    @Test
+    void reconcile_RebuildsOnlyWhenTheFingerprintDiffers() {
+        // Given : l'index contient le produit 1 (stock 1)
+        lowStockIndex.productChanged(product(1, books, 1));
+        when(productRepository.lowStockFingerprint(5))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, 1L, 1L}))
+                .thenReturn(List.<Object[]>of(new Object[]{2L, 3L, 4L}));
+        when(productRepository.findLowStock(5)).thenReturn(List.of(product(1, books, 1), product(2, books, 3)));
+
+        // When & Then : identique, aucune lecture des produits
+        lowStockIndex.reconcile();
+        verify(productRepository, never()).findLowStock(anyInt());
+
+        // Écart (autre nœud) : reconstruction
+        lowStockIndex.reconcile();
+        assertEquals(2, lowStockIndex.size());
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.back.service;
+
+import com.example.back.dto.CategoryWeekRevenueResponse;
+import com.example.back.dto.CohortResponse;
+import com.example.back.dto.OrderEventResponse;
+import com.example.back.model.OrderStatus;
+import com.example.back.repository.ArchivedOrderRepository;
+import com.example.back.repository.OrderRepository;
+import com.example.back.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderAnalyticsServiceTest {
+
+    // 2026-01-05 est un lundi
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2026, 1, 5, 10, 0);
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private OrderEventRelay orderEventRelay;
+
+    @InjectMocks
+    private OrderAnalyticsService orderAnalyticsService;
+
+    private Consumer<List<OrderEventResponse>> listener;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReflectionTestUtils.setField(orderAnalyticsService, "parallelism", 4);
+        ReflectionTestUtils.setField(orderAnalyticsService, "maxWeeks", 520);
+        ReflectionTestUtils.setField(orderAnalyticsService, "maxPendingEvents", 1000);
+        ReflectionTestUtils.setField(orderAnalyticsService, "reloadBackoffMs", 0L);
+        orderAnalyticsService.init();
+        ArgumentCaptor<Consumer<List<OrderEventResponse>>> captor = ArgumentCaptor.forClass(Consumer.class);
+        verify(orderEventRelay).addListener(captor.capture());
+        listener = captor.getValue();
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderAnalyticsService.shutdown();
+    }
+
+    @Test
+    void revenueByCategory_GroupsByCategoryAndWeekWithoutQueries() {
+        // Given : produit 1 -> catégorie 10, produit 2 -> catégorie 20 ; une commande archivée
+        when(productRepository.findProductCategories()).thenReturn(List.of(
+                new Object[]{1L, 10L, "Livres"},
+                new Object[]{2L, 20L, "Jeux"}
+        ));
+        when(archivedOrderRepository.findMaxId()).thenReturn(1L);
+        when(archivedOrderRepository.findOrderLinesInRange(0L, 1L)).thenReturn(List.<Object[]>of(
+                line(1L, 100L, MONDAY.minusWeeks(1), "DELIVERED", 20.0, 1L, 2, 10.0)
+        ));
+        when(orderRepository.findMaxId()).thenReturn(3L);
+        when(orderRepository.findOrderLinesInRange(0L, 3L)).thenReturn(List.of(
+                line(2L, 100L, MONDAY, "PENDING", 35.0, 1L, 1, 10.0),
+                line(2L, 100L, MONDAY, "PENDING", 35.0, 2L, 5, 5.0),
+                line(3L, 101L, MONDAY.plusDays(6), "SHIPPED", 30.0, 1L, 3, 10.0)
+        ));
+        orderAnalyticsService.load();
+        clearInvocations(orderRepository, archivedOrderRepository, productRepository);
+
+        // When
+        List<CategoryWeekRevenueResponse> report = orderAnalyticsService.revenueByCategory(
+                MONDAY.toLocalDate().minusWeeks(1), MONDAY.toLocalDate().plusDays(6), null);
+        List<CategoryWeekRevenueResponse> shipped = orderAnalyticsService.revenueByCategory(
+                MONDAY.toLocalDate(), MONDAY.toLocalDate().plusDays(6), OrderStatus.SHIPPED);
+
+        // Then : la commande du dimanche tombe dans la semaine du lundi précédent
+        assertEquals(3, report.size());
+        assertEquals(LocalDate.of(2025, 12, 29), report.get(0).getWeekStart());
+        assertEquals(20.0, report.get(0).getRevenue(), 0.001);
+        CategoryWeekRevenueResponse books = report.get(1);
+        assertEquals(10L, books.getCategoryId());
+        assertEquals("Livres", books.getCategoryName());
+        assertEquals(MONDAY.toLocalDate(), books.getWeekStart());
+        assertEquals(40.0, books.getRevenue(), 0.001);
+        assertEquals(4L, books.getUnits());
+        assertEquals("Jeux", report.get(2).getCategoryName());
+        assertEquals(25.0, report.get(2).getRevenue(), 0.001);
+        assertEquals(1, shipped.size());
+        assertEquals(30.0, shipped.get(0).getRevenue(), 0.001);
+        verifyNoInteractions(orderRepository, archivedOrderRepository, productRepository);
+    }
+
+    @Test
+    void apply_AppendsCreatedOrdersOnceAndTracksStatusChanges() {
+        // Given
+        loadEmpty();
+        when(orderRepository.findOrderLinesByIds(List.of(7L))).thenReturn(List.<Object[]>of(
+                line(7L, 100L, MONDAY, "PENDING", 30.0, 3L, 3, 10.0)
+        ));
+        when(productRepository.findProductCategories(List.of(3L))).thenReturn(List.<Object[]>of(
+                new Object[]{3L, 30L, "Musique"}
+        ));
+
+        // When : création (reçue deux fois) puis expédition
+        listener.accept(List.of(event(1L, 7L, "ORDER_CREATED", "PENDING"), event(2L, 7L, "ORDER_CREATED", "PENDING")));
+        listener.accept(List.of(event(3L, 7L, "STATUS_CHANGED", "SHIPPED")));
+        orderAnalyticsService.apply();
+        listener.accept(List.of(event(1L, 7L, "ORDER_CREATED", "PENDING")));
+        orderAnalyticsService.apply();
+
+        // Then
+        List<CategoryWeekRevenueResponse> shipped = orderAnalyticsService.revenueByCategory(
+                MONDAY.toLocalDate(), MONDAY.toLocalDate(), OrderStatus.SHIPPED);
+        assertEquals(1, shipped.size());
+        assertEquals("Musique", shipped.get(0).getCategoryName());
+        assertEquals(30.0, shipped.get(0).getRevenue(), 0.001);
+        verify(orderRepository, times(1)).findOrderLinesByIds(anyList());
+    }
+
+    @Test
+    void apply_RetriesEventsWhenTheFetchFails() {
+        // Given
+        loadEmpty();
+        when(orderRepository.findOrderLinesByIds(List.of(7L)))
+                .thenThrow(new RuntimeException("connection reset"))
+                .thenReturn(List.<Object[]>of(line(7L, 100L, MONDAY, "PENDING", 10.0, null, 0, 0.0)));
+
+        // When
+        listener.accept(List.of(event(1L, 7L, "ORDER_CREATED", "PENDING")));
+        orderAnalyticsService.apply();
+        orderAnalyticsService.apply();
+
+        // Then
+        List<CohortResponse> cohorts = orderAnalyticsService.cohorts();
+        assertEquals(1, cohorts.size());
+        assertEquals(1L, cohorts.get(0).getOrders());
+    }
+
+    @Test
+    void apply_RetriesTheLoadAfterAStartupFailure() {
+        // Given : la base est indisponible au démarrage
+        when(productRepository.findProductCategories())
+                .thenThrow(new RuntimeException("connection refused"))
+                .thenReturn(List.of());
+        when(archivedOrderRepository.findMaxId()).thenReturn(0L);
+        when(orderRepository.findMaxId()).thenReturn(0L);
+        orderAnalyticsService.load();
+        assertFalse(orderAnalyticsService.isLoaded());
+
+        // When
+        orderAnalyticsService.apply();
+
+        // Then
+        assertTrue(orderAnalyticsService.isLoaded());
+        assertTrue(orderAnalyticsService.cohorts().isEmpty());
+    }
+
+    @Test
+    void listener_ForcesAReloadInsteadOfQueueingWithoutBound() {
+        // Given
+        ReflectionTestUtils.setField(orderAnalyticsService, "maxPendingEvents", 2);
+        loadEmpty();
+
+        // When : plus d'événements en attente que la limite
+        listener.accept(List.of(
+                event(1L, 7L, "ORDER_CREATED", "PENDING"),
+                event(2L, 8L, "ORDER_CREATED", "PENDING"),
+                event(3L, 9L, "ORDER_CREATED", "PENDING")));
+        boolean loadedAfterOverflow = orderAnalyticsService.isLoaded();
+        orderAnalyticsService.apply();
+
+        // Then : rechargement complet, sans lecture commande par commande
+        assertFalse(loadedAfterOverflow);
+        assertTrue(orderAnalyticsService.isLoaded());
+        verify(orderRepository, times(2)).findMaxId();
+        verify(orderRepository, never()).findOrderLinesByIds(anyList());
+    }
+
+    @Test
+    void cohorts_GroupsCustomersByFirstOrderMonthAcrossParallelTasks() {
+        // Given : 40 000 clients en janvier (un sur deux recommande en février), 1 000 en février
+        when(productRepository.findProductCategories()).thenReturn(List.of());
+        when(archivedOrderRepository.findMaxId()).thenReturn(0L);
+        List<Object[]> rows = new ArrayList<>();
+        long orderId = 0;
+        for (long user = 1; user <= 40_000; user++) {
+            rows.add(line(++orderId, user, LocalDateTime.of(2026, 1, 10, 12, 0), "DELIVERED", 10.0, null, 0, 0.0));
+            if (user % 2 == 0) {
+                rows.add(line(++orderId, user, LocalDateTime.of(2026, 2, 10, 12, 0), "PENDING", 5.0, null, 0, 0.0));
+            }
+        }
+        for (long user = 40_001; user <= 41_000; user++) {
+            rows.add(line(++orderId, user, LocalDateTime.of(2026, 2, 20, 12, 0), "PENDING", 1.0, null, 0, 0.0));
+        }
+        when(orderRepository.findMaxId()).thenReturn(orderId);
+        when(orderRepository.findOrderLinesInRange(anyLong(), anyLong())).thenAnswer(invocation -> {
+            long after = invocation.getArgument(0);
+            long upTo = invocation.getArgument(1);
+            return rows.subList((int) after, (int) upTo);
+        });
+        orderAnalyticsService.load();
+
+        // When
+        List<CohortResponse> cohorts = orderAnalyticsService.cohorts();
+
+        // Then
+        assertEquals(2, cohorts.size());
+        CohortResponse january = cohorts.get(0);
+        assertEquals("2026-01", january.getCohortMonth());
+        assertEquals(40_000L, january.getCustomers());
+        assertEquals(60_000L, january.getOrders());
+        assertEquals(20_000L, january.getRepeatCustomers());
+        assertEquals(20_000L, january.getRepeatOrders());
+        assertEquals(500_000.0, january.getRevenue(), 0.001);
+        CohortResponse february = cohorts.get(1);
+        assertEquals("2026-02", february.getCohortMonth());
+        assertEquals(1_000L, february.getCustomers());
+        assertEquals(0L, february.getRepeatCustomers());
+    }
+
+    @Test
+    void reports_AreUnavailableUntilLoaded() {
+        assertThrows(IllegalStateException.class, () -> orderAnalyticsService.cohorts());
+        assertThrows(IllegalArgumentException.class, () -> orderAnalyticsService.revenueByCategory(
+                LocalDate.of(2026, 2, 1), LocalDate.of(2026, 1, 1), null));
+    }
+
+    private void loadEmpty() {
+        when(productRepository.findProductCategories()).thenReturn(List.of());
+        when(archivedOrderRepository.findMaxId()).thenReturn(0L);
+        when(orderRepository.findMaxId()).thenReturn(0L);
+        orderAnalyticsService.load();
+    }
+
+    private Object[] line(long orderId, long userId, LocalDateTime date, String status, double total,
+                          Long productId, int quantity, double unitPrice) {
+        return new Object[]{orderId, userId, Timestamp.valueOf(date), status, total,
+                productId, productId == null ? null : quantity, productId == null ? null : unitPrice};
+    }
+
+    private OrderEventResponse event(long id, long orderId, String type, String status) {
+        return OrderEventResponse.builder()
+                .id(id)
+                .orderId(orderId)
+                .type(type)
+                .status(status)
+                .occurredAt(MONDAY)
+                .build();
+    }
+}
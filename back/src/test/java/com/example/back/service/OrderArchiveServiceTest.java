@@ -0,0 +1,91 @@
+package com.example.back.service;
+
+import com.example.back.model.OrderStatus;
+import com.example.back.repository.ArchivedOrderRepository;
+import com.example.back.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderArchiveServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @InjectMocks
+    private OrderArchiveService orderArchiveService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(orderArchiveService, "horizonDays", 365);
+        ReflectionTestUtils.setField(orderArchiveService, "batchSize", 2);
+    }
+
+    @Test
+    void archiveBatch_CopiesThenDeletesDeliveredOrders() {
+        // Given
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(365);
+        List<Long> ids = Arrays.asList(4L, 9L);
+        when(orderRepository.findIdsByStatusAndOrderDateBefore(eq(OrderStatus.DELIVERED), eq(cutoff), any(Pageable.class)))
+                .thenReturn(ids);
+
+        // When
+        int moved = orderArchiveService.archiveBatch(cutoff);
+
+        // Then
+        assertEquals(2, moved);
+        InOrder inOrder = inOrder(archivedOrderRepository, orderRepository);
+        inOrder.verify(archivedOrderRepository).copyOrders(ids);
+        inOrder.verify(archivedOrderRepository).copyOrderItems(ids);
+        inOrder.verify(orderRepository).deleteItemsByOrderIds(ids);
+        inOrder.verify(orderRepository).deleteByIds(ids);
+        verify(orderRepository).findIdsByStatusAndOrderDateBefore(eq(OrderStatus.DELIVERED), eq(cutoff),
+                argThat(pageable -> pageable.getPageSize() == 2));
+    }
+
+    @Test
+    void archiveBatch_ReturnsZero_WhenNothingToArchive() {
+        // Given
+        when(orderRepository.findIdsByStatusAndOrderDateBefore(any(), any(), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+
+        // When
+        int moved = orderArchiveService.archiveBatch(LocalDateTime.now());
+
+        // Then
+        assertEquals(0, moved);
+        verifyNoInteractions(archivedOrderRepository);
+        verify(orderRepository, never()).deleteByIds(anyList());
+    }
+
+    @Test
+    void cutoff_NeverGoesBelowSevenDays() {
+        // Given
+        ReflectionTestUtils.setField(orderArchiveService, "horizonDays", 1);
+
+        // When
+        LocalDateTime cutoff = orderArchiveService.cutoff();
+
+        // Then
+        assertTrue(cutoff.isBefore(LocalDateTime.now().minusDays(6)));
+    }
+}
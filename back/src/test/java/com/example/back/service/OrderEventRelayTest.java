@@ -0,0 +1,173 @@
+package com.example.back.service;
+
+import com.example.back.dto.OrderEventResponse;
+import com.example.back.model.OrderEvent;
+import com.example.back.model.OrderEventType;
+import com.example.back.model.OrderStatus;
+import com.example.back.repository.OrderEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderEventRelayTest {
+
+    @Mock
+    private OrderEventRepository orderEventRepository;
+
+    @InjectMocks
+    private OrderEventRelay orderEventRelay;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(orderEventRelay, "batchSize", 100);
+        ReflectionTestUtils.setField(orderEventRelay, "replayBufferSize", 10);
+        ReflectionTestUtils.setField(orderEventRelay, "gapGraceMs", 2000L);
+        ReflectionTestUtils.setField(orderEventRelay, "emitterTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(orderEventRelay, "subscriberQueueSize", 100);
+        // Envoi synchrone pour les tests
+        ReflectionTestUtils.setField(orderEventRelay, "sender", (Executor) Runnable::run);
+    }
+
+    @Test
+    void contiguous_StopsBeforeRecentGap() {
+        // Given : l'événement 2 n'est pas encore visible, l'événement 3 vient d'être écrit
+        List<OrderEventResponse> events = Arrays.asList(
+                response(1L, LocalDateTime.now()),
+                response(3L, LocalDateTime.now()));
+
+        // When
+        List<OrderEventResponse> relayed = orderEventRelay.contiguous(0L, events);
+
+        // Then
+        assertEquals(1, relayed.size());
+        assertEquals(1L, relayed.get(0).getId());
+    }
+
+    @Test
+    void contiguous_WaitsForFreshGap_EvenWhenEventsAreOld() {
+        // Given : transition en masse horodatée au début de la requête, validée à l'instant
+        List<OrderEventResponse> events = Arrays.asList(
+                response(1L, LocalDateTime.now().minusSeconds(10)),
+                response(3L, LocalDateTime.now().minusSeconds(10)));
+
+        // When
+        List<OrderEventResponse> relayed = orderEventRelay.contiguous(0L, events);
+
+        // Then : le trou vient d'être vu, on l'attend
+        assertEquals(1, relayed.size());
+        assertEquals(1L, relayed.get(0).getId());
+    }
+
+    @Test
+    void contiguous_SkipsGapSeenLongerThanGrace() {
+        // Given : le trou a été vu une première fois, puis le délai de grâce s'est écoulé (transaction annulée)
+        List<OrderEventResponse> events = Arrays.asList(response(3L, LocalDateTime.now()));
+        assertTrue(orderEventRelay.contiguous(1L, events).isEmpty());
+        ReflectionTestUtils.setField(orderEventRelay, "gapSince", System.currentTimeMillis() - 5000);
+
+        // When
+        List<OrderEventResponse> relayed = orderEventRelay.contiguous(1L, events);
+
+        // Then
+        assertEquals(1, relayed.size());
+        assertEquals(3L, relayed.get(0).getId());
+    }
+
+    @Test
+    void relay_AdvancesPositionAndKeepsReplayBuffer() {
+        // Given
+        when(orderEventRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(Arrays.asList(event(1L), event(2L)));
+
+        // When
+        orderEventRelay.relay();
+
+        // Then
+        assertEquals(2L, ReflectionTestUtils.getField(orderEventRelay, "lastEventId"));
+
+        // Un abonné qui reprend après l'événement 1 est servi depuis le tampon, sans requête
+        orderEventRelay.subscribe(1L);
+        verify(orderEventRepository, never())
+                .findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(anyLong(), anyLong(), any(Pageable.class));
+        assertEquals(1, orderEventRelay.getSubscriberCount());
+    }
+
+    @Test
+    void subscribe_ReplaysEveryMissedEventFromOutboxByPages() throws IOException {
+        // Given : client absent plus longtemps que le tampon mémoire (vide ici), pages de 2
+        ReflectionTestUtils.setField(orderEventRelay, "replayBufferSize", 2);
+        ReflectionTestUtils.setField(orderEventRelay, "lastEventId", 5L);
+        when(orderEventRepository.findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(eq(0L), eq(5L), any(Pageable.class)))
+                .thenReturn(Arrays.asList(event(1L), event(2L)));
+        when(orderEventRepository.findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(eq(2L), eq(5L), any(Pageable.class)))
+                .thenReturn(Arrays.asList(event(3L), event(4L)));
+        when(orderEventRepository.findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(eq(4L), eq(5L), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(event(5L)));
+        SseEmitter emitter = mock(SseEmitter.class);
+
+        // When
+        orderEventRelay.subscribe(emitter, 0L);
+
+        // Then
+        verify(emitter, times(5)).send(any(SseEmitter.SseEventBuilder.class));
+        assertEquals(1, orderEventRelay.getSubscriberCount());
+    }
+
+    @Test
+    void relay_ClosesSubscriberThatFallsBehindWithoutBlocking() {
+        // Given : un abonné dont les envois n'avancent pas
+        ReflectionTestUtils.setField(orderEventRelay, "subscriberQueueSize", 1);
+        ReflectionTestUtils.setField(orderEventRelay, "sender", (Executor) task -> { });
+        SseEmitter emitter = mock(SseEmitter.class);
+        orderEventRelay.subscribe(emitter, null);
+        when(orderEventRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(Arrays.asList(event(1L), event(2L)));
+
+        // When
+        orderEventRelay.relay();
+
+        // Then : le relais avance, l'abonné est fermé et reprendra avec son Last-Event-ID
+        assertEquals(2L, ReflectionTestUtils.getField(orderEventRelay, "lastEventId"));
+        assertEquals(0, orderEventRelay.getSubscriberCount());
+        verify(emitter).complete();
+    }
+
+    private OrderEvent event(Long id) {
+        return OrderEvent.builder()
+                .id(id)
+                .orderId(id)
+                .userId(1L)
+                .type(OrderEventType.ORDER_CREATED)
+                .status(OrderStatus.PENDING)
+                .totalAmount(10.0)
+                .occurredAt(LocalDateTime.now().minusMinutes(1))
+                .build();
+    }
+
+    private OrderEventResponse response(Long id, LocalDateTime occurredAt) {
+        return OrderEventResponse.builder()
+                .id(id)
+                .orderId(id)
+                .type("ORDER_CREATED")
+                .occurredAt(occurredAt)
+                .build();
+    }
+}
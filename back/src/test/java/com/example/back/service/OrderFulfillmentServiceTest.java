@@ -0,0 +1,90 @@
+package com.example.back.service;
+
+import com.example.back.model.OrderStatus;
+import com.example.back.repository.OrderEventRepository;
+import com.example.back.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderFulfillmentServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderEventRepository orderEventRepository;
+
+    @InjectMocks
+    private OrderFulfillmentService orderFulfillmentService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(orderFulfillmentService, "batchSize", 50);
+        ReflectionTestUtils.setField(orderFulfillmentService, "leaseSeconds", 60L);
+    }
+
+    @Test
+    void claimBatch_ReturnsClaimedIds() {
+        // Given
+        when(orderRepository.claimPending(eq("node:1"), any(LocalDateTime.class), any(LocalDateTime.class), eq(50)))
+                .thenReturn(2);
+        when(orderRepository.findIdsByClaimToken("node:1")).thenReturn(Arrays.asList(3L, 5L));
+
+        // When
+        List<Long> ids = orderFulfillmentService.claimBatch("node:1");
+
+        // Then
+        assertEquals(Arrays.asList(3L, 5L), ids);
+        verify(orderRepository).claimPending(eq("node:1"),
+                argThat(expiresAt -> expiresAt.isAfter(LocalDateTime.now().plusSeconds(50))),
+                any(LocalDateTime.class), eq(50));
+    }
+
+    @Test
+    void claimBatch_ReturnsEmpty_WhenNothingPending() {
+        // Given
+        when(orderRepository.claimPending(anyString(), any(), any(), anyInt())).thenReturn(0);
+
+        // When
+        List<Long> ids = orderFulfillmentService.claimBatch("node:1");
+
+        // Then
+        assertTrue(ids.isEmpty());
+        verify(orderRepository, never()).findIdsByClaimToken(anyString());
+    }
+
+    @Test
+    void fulfill_MovesClaimedOrderToProcessing() {
+        // Given
+        when(orderRepository.completeClaim(eq(3L), eq("node:1"), eq(OrderStatus.PENDING),
+                eq(OrderStatus.PROCESSING), any(LocalDateTime.class))).thenReturn(1);
+
+        // When & Then
+        assertTrue(orderFulfillmentService.fulfill(3L, "node:1"));
+        verify(orderEventRepository).appendStatusChanges(eq(List.of(3L)), eq("PROCESSING"), any(LocalDateTime.class));
+    }
+
+    @Test
+    void fulfill_ReturnsFalse_WhenLeaseWasLost() {
+        // Given
+        when(orderRepository.completeClaim(anyLong(), anyString(), any(), any(), any())).thenReturn(0);
+
+        // When & Then
+        assertFalse(orderFulfillmentService.fulfill(3L, "node:1"));
+        verifyNoInteractions(orderEventRepository);
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.back.service;
+
+import com.example.back.dto.OrderDistributionResponse;
+import com.example.back.model.HistogramMetric;
+import com.example.back.model.OrderHistogram;
+import com.example.back.repository.ArchivedOrderRepository;
+import com.example.back.repository.OrderHistogramRepository;
+import com.example.back.repository.OrderRepository;
+import com.example.back.stats.LogLinearHistogram;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderHistogramServiceTest {
+
+    @Mock
+    private OrderHistogramRepository histogramRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private OrderHistogramService orderHistogramService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(orderHistogramService, "memoryDays", 35);
+        ReflectionTestUtils.setField(orderHistogramService, "maxDays", 400);
+        ReflectionTestUtils.setField(orderHistogramService, "flushIntervalMs", 30_000L);
+    }
+
+    @Test
+    void getDistribution_ReturnsQuantilesWithinOnePercent() {
+        // Given : montants de 1,00 € à 1000,00 € sur deux jours
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 1; i <= 1000; i++) {
+            orderHistogramService.recordOrder(i, i % 10 + 1, i % 2 == 0 ? now : now.minusDays(1));
+        }
+        LocalDate today = now.toLocalDate();
+
+        // When
+        OrderDistributionResponse amounts = orderHistogramService.getDistribution(
+                HistogramMetric.ORDER_AMOUNT, today.minusDays(1), today, List.of(0.5, 0.95, 0.99));
+        OrderDistributionResponse items = orderHistogramService.getDistribution(
+                HistogramMetric.ITEMS_PER_ORDER, today.minusDays(1), today, List.of(0.5));
+
+        // Then
+        assertEquals(1000, amounts.getCount());
+        assertEquals(500.0, amounts.getQuantiles().get("0.5"), 5.0);
+        assertEquals(950.0, amounts.getQuantiles().get("0.95"), 9.5);
+        assertEquals(990.0, amounts.getQuantiles().get("0.99"), 9.9);
+        assertEquals(1.0, amounts.getMin(), 0.001);
+        assertEquals(1000.0, amounts.getMax(), 0.001);
+        assertEquals(500.5, amounts.getMean(), 0.001);
+        assertEquals(5.0, items.getQuantiles().get("0.5"), 0.001);
+        verifyNoInteractions(histogramRepository);
+    }
+
+    @Test
+    void getDistribution_MergesOldDaysFromDatabase() {
+        // Given
+        LocalDate old = LocalDate.now().minusDays(100);
+        LogLinearHistogram stored = new LogLinearHistogram();
+        stored.record(2500);
+        when(histogramRepository.findByMetricAndDayBetween(HistogramMetric.ORDER_AMOUNT, old, old))
+                .thenReturn(List.of(new OrderHistogram(1L, old, HistogramMetric.ORDER_AMOUNT, stored.toBytes(), null)));
+
+        // When
+        OrderDistributionResponse response = orderHistogramService.getDistribution(
+                HistogramMetric.ORDER_AMOUNT, old, old, List.of(0.5));
+
+        // Then
+        assertEquals(1, response.getCount());
+        assertEquals(25.0, response.getQuantiles().get("0.5"), 0.001);
+    }
+
+    @Test
+    void getDistribution_RejectsInvalidInput() {
+        LocalDate today = LocalDate.now();
+
+        assertThrows(IllegalArgumentException.class, () -> orderHistogramService.getDistribution(
+                HistogramMetric.ORDER_AMOUNT, today, today.minusDays(1), List.of(0.5)));
+        assertThrows(IllegalArgumentException.class, () -> orderHistogramService.getDistribution(
+                HistogramMetric.ORDER_AMOUNT, today, today, List.of(1.5)));
+        assertThrows(IllegalArgumentException.class, () -> orderHistogramService.getDistribution(
+                HistogramMetric.ORDER_AMOUNT, today.minusDays(1000), today, List.of(0.5)));
+    }
+
+    @Test
+    void flush_AddsOnlyTheDeltaToStoredHistogram() {
+        // Given : la base contient déjà une commande de 10 € (autre nœud)
+        LocalDate today = LocalDate.now();
+        LogLinearHistogram stored = new LogLinearHistogram();
+        stored.record(1000);
+        when(histogramRepository.findByDayAndMetric(today, HistogramMetric.ORDER_AMOUNT))
+                .thenReturn(Optional.of(new OrderHistogram(1L, today, HistogramMetric.ORDER_AMOUNT, stored.toBytes(), null)));
+        when(histogramRepository.findByDayAndMetric(today, HistogramMetric.ITEMS_PER_ORDER))
+                .thenReturn(Optional.empty());
+        orderHistogramService.recordOrder(20.0, 2, LocalDateTime.now());
+
+        // When
+        orderHistogramService.flush();
+        orderHistogramService.flush();
+
+        // Then : deux lignes écrites une seule fois, le total en mémoire inclut l'autre nœud
+        ArgumentCaptor<OrderHistogram> captor = ArgumentCaptor.forClass(OrderHistogram.class);
+        verify(histogramRepository, times(2)).save(captor.capture());
+        OrderHistogram amounts = captor.getAllValues().stream()
+                .filter(row -> row.getMetric() == HistogramMetric.ORDER_AMOUNT)
+                .findFirst().orElseThrow();
+        assertEquals(2, LogLinearHistogram.fromBytes(amounts.getData()).getTotalCount());
+        assertEquals(2, orderHistogramService.getDistribution(
+                HistogramMetric.ORDER_AMOUNT, today, today, List.of(0.5)).getCount());
+    }
+
+    @Test
+    void load_BuildsFromOrderHistoryInBatchesWhenEmpty() {
+        // Given
+        LocalDate day = LocalDate.now().minusDays(2);
+        List<Object[]> archived = new ArrayList<>();
+        archived.add(new Object[]{1L, Date.valueOf(day), 10.0, 1});
+        List<Object[]> active = new ArrayList<>();
+        active.add(new Object[]{2L, Date.valueOf(day), 30.0, 3});
+        when(histogramRepository.count()).thenReturn(0L);
+        when(archivedOrderRepository.findOrderValuesAfter(0L, 5000)).thenReturn(archived);
+        when(orderRepository.findOrderValuesAfter(0L, 5000)).thenReturn(active);
+        when(histogramRepository.findByDayAndMetric(eq(day), any())).thenReturn(Optional.empty());
+
+        // When
+        orderHistogramService.load();
+
+        // Then
+        OrderDistributionResponse response = orderHistogramService.getDistribution(
+                HistogramMetric.ORDER_AMOUNT, day, day, List.of(1.0));
+        assertEquals(2, response.getCount());
+        assertEquals(30.0, response.getQuantiles().get("1.0"), 0.3);
+        verify(histogramRepository, times(2)).save(any(OrderHistogram.class));
+    }
+
+    @Test
+    void flush_RepairsClosedDaysAfterRestart() {
+        // Given : redémarrage sur une table existante
+        LocalDate today = LocalDate.now();
+        LocalDate yesterday = today.minusDays(1);
+        List<Object[]> orders = new ArrayList<>();
+        orders.add(new Object[]{5L, Date.valueOf(yesterday), 10.0, 1});
+        orders.add(new Object[]{6L, Date.valueOf(yesterday), 30.0, 3});
+        when(histogramRepository.count()).thenReturn(4L);
+        when(histogramRepository.findByDayGreaterThanEqual(any())).thenReturn(List.of());
+        when(orderRepository.findOrderValuesBetween(yesterday.atStartOfDay(), today.atStartOfDay(), 0L, 5000))
+                .thenReturn(orders);
+        when(histogramRepository.findByDayAndMetric(eq(yesterday), any())).thenReturn(Optional.empty());
+        orderHistogramService.load();
+
+        // When
+        orderHistogramService.flush();
+        orderHistogramService.flush();
+
+        // Then : la veille est remplacée une fois ; le jour courant attend d'être clos
+        ArgumentCaptor<OrderHistogram> captor = ArgumentCaptor.forClass(OrderHistogram.class);
+        verify(histogramRepository, times(2)).save(captor.capture());
+        captor.getAllValues().forEach(row -> {
+            assertEquals(yesterday, row.getDay());
+            assertEquals(2, LogLinearHistogram.fromBytes(row.getData()).getTotalCount());
+        });
+        verify(orderRepository, never()).findOrderValuesBetween(eq(today.atStartOfDay()), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void histogram_SurvivesSerialization() {
+        LogLinearHistogram histogram = new LogLinearHistogram();
+        for (long v = 1; v < 1_000_000; v *= 3) {
+            histogram.record(v);
+        }
+
+        LogLinearHistogram copy = LogLinearHistogram.fromBytes(histogram.toBytes());
+
+        assertEquals(histogram.getTotalCount(), copy.getTotalCount());
+        assertEquals(histogram.getSum(), copy.getSum());
+        assertEquals(histogram.getMin(), copy.getMin());
+        assertEquals(histogram.valueAtQuantile(0.9), copy.valueAtQuantile(0.9));
+        assertTrue(histogram.toBytes().length < 100);
+    }
+}
@@ -2,9 +2,14 @@ package com.example.back.service;
 
 import com.example.back.dto.OrderRequest;
 import com.example.back.dto.OrderResponse;
+import com.example.back.dto.OrderSummaryResponse;
+import com.example.back.exception.OrderNotFoundException;
 import com.example.back.exception.ProductNotFoundException;
 import com.example.back.model.*;
+import com.example.back.repository.ArchivedOrderRepository;
+import com.example.back.repository.OrderEventRepository;
 import com.example.back.repository.OrderRepository;
+import com.example.back.repository.OrderSummaryView;
 import com.example.back.repository.ProductRepository;
 import com.example.back.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -33,6 +38,30 @@ class OrderServiceTest {
     @Mock
     private OrderRepository orderRepository;
 
+    @Mock
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Mock
+    private OrderEventRepository orderEventRepository;
+
+    @Mock
+    private AdminStatsCounters adminStatsCounters;
+
+    @Mock
+    private SalesRollupService salesRollupService;
+
+    @Mock
+    private TopProductsService topProductsService;
+
+    @Mock
+    private DistinctBuyersService distinctBuyersService;
+
+    @Mock
+    private LowStockIndex lowStockIndex;
+
+    @Mock
+    private OrderHistogramService orderHistogramService;
+
     @InjectMocks
     private OrderService orderService;
 
@@ -341,6 +370,69 @@ class OrderServiceTest {
         ));
     }
 
+    @Test
+    void createOrder_ComputesSummaryColumns() {
+        // Given
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product1));
+        when(productRepository.findById(2L)).thenReturn(Optional.of(product2));
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        OrderResponse response = orderService.createOrder(orderRequest);
+
+        // Then
+        assertEquals(5, response.getItemCount()); // 2 + 3
+        assertEquals(2, response.getDistinctProductCount());
+        verify(orderRepository).save(argThat(savedOrder ->
+                savedOrder.getItemCount() == 5 && savedOrder.getDistinctProductCount() == 2
+        ));
+    }
+
+    @Test
+    void createOrder_UpdatesStatsCounters() {
+        // Given
+        product1.setStockQuantity(6);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product1));
+        when(productRepository.findById(2L)).thenReturn(Optional.of(product2));
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+
+        // When
+        orderService.createOrder(orderRequest);
+
+        // Then
+        verify(lowStockIndex, times(2)).productChanged(any(Product.class));
+        verify(adminStatsCounters).orderCreated(eq(2089.95), any(LocalDateTime.class));
+        verify(salesRollupService).recordOrder(eq(2089.95), any(LocalDateTime.class));
+        verify(topProductsService).recordOrder(anyList(), any(LocalDateTime.class));
+        verify(distinctBuyersService).recordOrder(eq(1L), any(LocalDateTime.class));
+        verify(orderHistogramService).recordOrder(eq(2089.95), eq(5), any(LocalDateTime.class));
+    }
+
+    @Test
+    void createOrder_AppendsCreatedEventToOutbox() {
+        // Given
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product1));
+        when(productRepository.findById(2L)).thenReturn(Optional.of(product2));
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+
+        // When
+        orderService.createOrder(orderRequest);
+
+        // Then
+        verify(orderEventRepository).save(argThat(event ->
+                event.getOrderId().equals(1L) &&
+                        event.getUserId().equals(1L) &&
+                        event.getType() == OrderEventType.ORDER_CREATED &&
+                        event.getStatus() == OrderStatus.PENDING
+        ));
+    }
+
     // ========================================
     // Tests pour getOrdersByUser()
     // ========================================
@@ -348,87 +440,77 @@ class OrderServiceTest {
     @Test
     void getOrdersByUser_Success() {
         // Given
-        Order order2 = Order.builder()
-                .id(2L)
-                .user(user)
-                .orderDate(LocalDateTime.now().minusDays(1))
-                .totalAmount(500.0)
-                .status(OrderStatus.DELIVERED)
-                .items(Collections.singletonList(
-                        OrderItem.builder()
-                                .productId(1L)
-                                .productName("Laptop")
-                                .quantity(1)
-                                .unitPrice(500.0)
-                                .build()
-                ))
-                .build();
-
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(orderRepository.findByUser(user)).thenReturn(Arrays.asList(order, order2));
+        when(orderRepository.findByUserIdOrderByOrderDateDesc(1L)).thenReturn(Arrays.asList(
+                summary(2L, OrderStatus.PENDING, 2089.95, 5, 2),
+                summary(1L, OrderStatus.DELIVERED, 500.0, 1, 1)
+        ));
 
         // When
-        List<OrderResponse> responses = orderService.getOrdersByUser(1L);
+        List<OrderSummaryResponse> responses = orderService.getOrdersByUser(1L);
 
         // Then
         assertNotNull(responses);
         assertEquals(2, responses.size());
-        assertEquals(1L, responses.get(0).getOrderId());
-        assertEquals(2L, responses.get(1).getOrderId());
+        assertEquals(2L, responses.get(0).getOrderId());
+        assertEquals(1L, responses.get(1).getOrderId());
         assertEquals("PENDING", responses.get(0).getStatus());
         assertEquals("DELIVERED", responses.get(1).getStatus());
+        assertEquals(5, responses.get(0).getItemCount());
+        assertEquals(2, responses.get(0).getDistinctProductCount());
 
-        verify(userRepository).findById(1L);
-        verify(orderRepository).findByUser(user);
+        verify(orderRepository).findByUserIdOrderByOrderDateDesc(1L);
+        verify(orderRepository, never()).findByUser(any(User.class));
     }
 
     @Test
-    void getOrdersByUser_ReturnsEmptyList_WhenNoOrders() {
+    void getOrdersByUser_MergesArchivedOrdersByDateDesc() {
         // Given
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(orderRepository.findByUser(user)).thenReturn(Collections.emptyList());
+        OrderSummaryView recent = summary(3L, OrderStatus.PENDING, 100.0, 1, 1, LocalDateTime.now());
+        OrderSummaryView archived = summary(1L, OrderStatus.DELIVERED, 50.0, 2, 1, LocalDateTime.now().minusYears(2));
+        when(orderRepository.findByUserIdOrderByOrderDateDesc(1L)).thenReturn(Collections.singletonList(recent));
+        when(archivedOrderRepository.findByUserIdOrderByOrderDateDesc(1L)).thenReturn(Collections.singletonList(archived));
 
         // When
-        List<OrderResponse> responses = orderService.getOrdersByUser(1L);
+        List<OrderSummaryResponse> responses = orderService.getOrdersByUser(1L);
 
         // Then
-        assertNotNull(responses);
-        assertTrue(responses.isEmpty());
-
-        verify(userRepository).findById(1L);
-        verify(orderRepository).findByUser(user);
+        assertEquals(2, responses.size());
+        assertEquals(3L, responses.get(0).getOrderId());
+        assertEquals(1L, responses.get(1).getOrderId());
+        assertEquals("DELIVERED", responses.get(1).getStatus());
     }
 
     @Test
-    void getOrdersByUser_ThrowsException_WhenUserNotFound() {
+    void getOrdersByUser_ReturnsEmptyList_WhenNoOrders() {
         // Given
-        when(userRepository.findById(999L)).thenReturn(Optional.empty());
+        when(orderRepository.findByUserIdOrderByOrderDateDesc(1L)).thenReturn(Collections.emptyList());
 
-        // When & Then
-        IllegalArgumentException exception = assertThrows(
-                IllegalArgumentException.class,
-                () -> orderService.getOrdersByUser(999L)
-        );
+        // When
+        List<OrderSummaryResponse> responses = orderService.getOrdersByUser(1L);
 
-        assertEquals("User not found", exception.getMessage());
-        verify(userRepository).findById(999L);
-        verify(orderRepository, never()).findByUser(any(User.class));
+        // Then
+        assertNotNull(responses);
+        assertTrue(responses.isEmpty());
+
+        verify(orderRepository).findByUserIdOrderByOrderDateDesc(1L);
     }
 
+    // ========================================
+    // Tests pour getOrderById()
+    // ========================================
+
     @Test
-    void getOrdersByUser_ReturnsCorrectOrderItems() {
+    void getOrderById_ReturnsCorrectOrderItems() {
         // Given
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(orderRepository.findByUser(user)).thenReturn(Collections.singletonList(order));
+        when(orderRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(order));
 
         // When
-        List<OrderResponse> responses = orderService.getOrdersByUser(1L);
+        OrderResponse response = orderService.getOrderById(1L, 1L);
 
         // Then
-        assertNotNull(responses);
-        assertEquals(1, responses.size());
-
-        OrderResponse response = responses.get(0);
+        assertNotNull(response);
+        assertEquals(1L, response.getOrderId());
+        assertEquals(1L, response.getUserId());
         assertEquals(2, response.getItems().size());
 
         OrderResponse.OrderItemResponse item1 = response.getItems().get(0);
@@ -443,4 +525,66 @@ class OrderServiceTest {
         assertEquals(3, item2.getQuantity());
         assertEquals(29.99, item2.getUnitPrice(), 0.01);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getOrderById_FallsBackToArchive() {
+        // Given
+        ArchivedOrder archivedOrder = ArchivedOrder.builder()
+                .id(7L)
+                .userId(1L)
+                .orderDate(LocalDateTime.now().minusYears(2))
+                .totalAmount(59.98)
+                .status(OrderStatus.DELIVERED)
+                .itemCount(2)
+                .distinctProductCount(1)
+                .items(Collections.singletonList(OrderItem.builder()
+                        .productId(2L)
+                        .productName("Mouse")
+                        .quantity(2)
+                        .unitPrice(29.99)
+                        .build()))
+                .build();
+        when(orderRepository.findByIdAndUserId(7L, 1L)).thenReturn(Optional.empty());
+        when(archivedOrderRepository.findByIdAndUserId(7L, 1L)).thenReturn(Optional.of(archivedOrder));
+
+        // When
+        OrderResponse response = orderService.getOrderById(7L, 1L);
+
+        // Then
+        assertEquals(7L, response.getOrderId());
+        assertEquals("DELIVERED", response.getStatus());
+        assertEquals(1, response.getItems().size());
+        assertEquals("Mouse", response.getItems().get(0).getProductName());
+    }
+
+    @Test
+    void getOrderById_ThrowsException_WhenOrderNotOwnedOrMissing() {
+        // Given
+        when(orderRepository.findByIdAndUserId(1L, 2L)).thenReturn(Optional.empty());
+        when(archivedOrderRepository.findByIdAndUserId(1L, 2L)).thenReturn(Optional.empty());
+
+        // When & Then
+        OrderNotFoundException exception = assertThrows(
+                OrderNotFoundException.class,
+                () -> orderService.getOrderById(1L, 2L)
+        );
+
+        assertEquals("Order not found: 1", exception.getMessage());
+    }
+
+    private OrderSummaryView summary(Long id, OrderStatus status, double total, int itemCount, int distinctProducts) {
+        return summary(id, status, total, itemCount, distinctProducts, LocalDateTime.now().minusDays(1).plusHours(id));
+    }
+
+    private OrderSummaryView summary(Long id, OrderStatus status, double total, int itemCount, int distinctProducts,
+                                     LocalDateTime orderDate) {
+        return new OrderSummaryView() {
+            public Long getId() { return id; }
+            public LocalDateTime getOrderDate() { return orderDate; }
+            public OrderStatus getStatus() { return status; }
+            public double getTotalAmount() { return total; }
+            public int getItemCount() { return itemCount; }
+            public int getDistinctProductCount() { return distinctProducts; }
+        };
+    }
+}
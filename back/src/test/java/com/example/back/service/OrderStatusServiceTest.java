@@ -0,0 +1,149 @@
+package com.example.back.service;
+
+import com.example.back.dto.OrderStatusTransitionRequest;
+import com.example.back.dto.OrderStatusTransitionResponse;
+import com.example.back.model.OrderStatus;
+import com.example.back.repository.OrderEventRepository;
+import com.example.back.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderStatusServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderEventRepository orderEventRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private OrderStatusService orderStatusService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(orderStatusService, "chunkSize", 2);
+    }
+
+    @Test
+    void transition_ByIds_UpdatesInChunksAndCountsSkipped() {
+        // Given
+        OrderStatusTransitionRequest request = new OrderStatusTransitionRequest();
+        request.setTargetStatus(OrderStatus.SHIPPED);
+        request.setOrderIds(Arrays.asList(1L, 2L, 3L, 3L));
+
+        when(orderRepository.transitionStatus(eq(Arrays.asList(1L, 2L)), eq(OrderStatus.PROCESSING),
+                eq(OrderStatus.SHIPPED), any(LocalDateTime.class))).thenReturn(2);
+        when(orderRepository.transitionStatus(eq(Collections.singletonList(3L)), eq(OrderStatus.PROCESSING),
+                eq(OrderStatus.SHIPPED), any(LocalDateTime.class))).thenReturn(0);
+
+        // When
+        OrderStatusTransitionResponse response = orderStatusService.transition(request);
+
+        // Then
+        assertEquals("PROCESSING", response.getFromStatus());
+        assertEquals("SHIPPED", response.getTargetStatus());
+        assertEquals(3, response.getMatched());
+        assertEquals(2, response.getUpdated());
+        assertEquals(1, response.getSkipped());
+        assertEquals(2, response.getChunks());
+        verify(transactionManager, times(2)).commit(any());
+
+        // Outbox uniquement pour le lot qui a effectivement changé
+        verify(orderEventRepository).appendStatusChanges(eq(Arrays.asList(1L, 2L)), eq("SHIPPED"), any(LocalDateTime.class));
+        verify(orderEventRepository, never()).appendStatusChanges(eq(Collections.singletonList(3L)), anyString(), any());
+    }
+
+    @Test
+    void transition_ByFilter_LoopsUntilNoMoreOrders() {
+        // Given
+        OrderStatusTransitionRequest request = new OrderStatusTransitionRequest();
+        request.setTargetStatus(OrderStatus.PROCESSING);
+        request.setAll(true);
+
+        List<Long> first = Arrays.asList(10L, 11L);
+        List<Long> second = Collections.singletonList(12L);
+        when(orderRepository.findIdsByStatusAndOrderDateBefore(eq(OrderStatus.PENDING), any(LocalDateTime.class),
+                any(Pageable.class))).thenReturn(first, second, Collections.emptyList());
+        when(orderRepository.transitionStatus(eq(first), any(), any(), any())).thenReturn(2);
+        when(orderRepository.transitionStatus(eq(second), any(), any(), any())).thenReturn(1);
+
+        // When
+        OrderStatusTransitionResponse response = orderStatusService.transition(request);
+
+        // Then
+        assertEquals(3, response.getUpdated());
+        assertEquals(0, response.getSkipped());
+        assertEquals(2, response.getChunks());
+        verify(orderRepository, times(3)).findIdsByStatusAndOrderDateBefore(any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    void transition_ThrowsException_WhenTargetIsPending() {
+        // Given
+        OrderStatusTransitionRequest request = new OrderStatusTransitionRequest();
+        request.setTargetStatus(OrderStatus.PENDING);
+        request.setOrderIds(Collections.singletonList(1L));
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> orderStatusService.transition(request)
+        );
+
+        assertEquals("Orders cannot be moved back to PENDING", exception.getMessage());
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void transition_ThrowsException_WhenOrderIdsIsEmpty() {
+        // Given
+        OrderStatusTransitionRequest request = new OrderStatusTransitionRequest();
+        request.setTargetStatus(OrderStatus.SHIPPED);
+        request.setOrderIds(Collections.emptyList());
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> orderStatusService.transition(request)
+        );
+
+        assertEquals("orderIds must not be empty", exception.getMessage());
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void transition_ThrowsException_WhenNoCriteria() {
+        // Given
+        OrderStatusTransitionRequest request = new OrderStatusTransitionRequest();
+        request.setTargetStatus(OrderStatus.SHIPPED);
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> orderStatusService.transition(request)
+        );
+
+        assertEquals("Either orderIds, placedBefore or all=true is required", exception.getMessage());
+        verifyNoInteractions(orderRepository);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.back.service;
+
+import com.example.back.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PasswordHashingServiceTest {
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @InjectMocks
+    private PasswordHashingService passwordHashingService;
+
+    private final ExecutorService callers = Executors.newFixedThreadPool(4);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(passwordHashingService, "threads", 1);
+        ReflectionTestUtils.setField(passwordHashingService, "queueCapacity", 1);
+        ReflectionTestUtils.setField(passwordHashingService, "timeoutMs", 5000L);
+        passwordHashingService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        passwordHashingService.shutdown();
+    }
+
+    @Test
+    void matches_RunsOnTheHashingPool() {
+        // Given
+        when(passwordEncoder.matches("secret", "hash")).thenAnswer(invocation ->
+                Thread.currentThread().getName().startsWith("password-hashing-"));
+
+        // When & Then
+        assertTrue(passwordHashingService.matches("secret", "hash"));
+    }
+
+    @Test
+    void encode_FailsFastWithRetryAfterWhenQueueIsFull() throws Exception {
+        // Given : un thread occupé et une place de file prise
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "encoded";
+        });
+        List<Future<String>> running = new ArrayList<>();
+        running.add(callers.submit(() -> passwordHashingService.encode("first")));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        running.add(callers.submit(() -> passwordHashingService.encode("queued")));
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(passwordHashingService, "executor");
+        while (executor.getQueue().isEmpty()) {
+            Thread.sleep(5);
+        }
+
+        // When
+        long start = System.nanoTime();
+        ServiceOverloadedException ex = assertThrows(ServiceOverloadedException.class,
+                () -> passwordHashingService.encode("rejected"));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Then : refus immédiat, les demandes admises aboutissent
+        assertTrue(elapsedMs < 1000, "rejection took " + elapsedMs + " ms");
+        assertTrue(ex.getRetryAfterSeconds() >= 1);
+        release.countDown();
+        for (Future<String> future : running) {
+            assertEquals("encoded", future.get(5, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.back.service;
+
+import com.example.back.dto.SalesTimeseriesResponse;
+import com.example.back.model.RollupGranularity;
+import com.example.back.model.SalesRollup;
+import com.example.back.repository.SalesRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SalesRollupServiceTest {
+
+    @Mock
+    private SalesRollupRepository salesRollupRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private SalesRollupService salesRollupService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(salesRollupService, "ringMinutes", 120);
+        ReflectionTestUtils.setField(salesRollupService, "maxPoints", 100);
+        ReflectionTestUtils.setField(salesRollupService, "flushIntervalMs", 10_000L);
+        ReflectionTestUtils.setField(salesRollupService, "startupRepairMinutes", 120);
+        salesRollupService.init();
+    }
+
+    @Test
+    void flush_UpsertsEachGranularityOnce() {
+        // Given
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        salesRollupService.recordOrder(100.0, now);
+        salesRollupService.recordOrder(50.0, now.plusSeconds(30));
+
+        // When
+        salesRollupService.flush();
+        salesRollupService.flush();
+
+        // Then
+        verify(salesRollupRepository).addToBucket("MINUTE", now, 2, 150.0);
+        verify(salesRollupRepository).addToBucket("HOUR", now.truncatedTo(ChronoUnit.HOURS), 2, 150.0);
+        verify(salesRollupRepository).addToBucket("DAY", now.truncatedTo(ChronoUnit.DAYS), 2, 150.0);
+        verifyNoMoreInteractions(salesRollupRepository);
+    }
+
+    @Test
+    void flush_KeepsPendingSalesWhenWriteFails() {
+        // Given
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        salesRollupService.recordOrder(80.0, now);
+        when(salesRollupRepository.addToBucket(anyString(), any(), anyLong(), anyDouble()))
+                .thenThrow(new RuntimeException("db down"))
+                .thenReturn(1);
+
+        // When
+        salesRollupService.flush();
+        salesRollupService.flush();
+
+        // Then
+        verify(salesRollupRepository).addToBucket("DAY", now.truncatedTo(ChronoUnit.DAYS), 1, 80.0);
+    }
+
+    @Test
+    void getTimeseries_FillsGapsAndAddsPendingMinutes() {
+        // Given
+        LocalDateTime hour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime from = hour.minusHours(2);
+        LocalDateTime to = hour.plusHours(1);
+        when(salesRollupRepository.findByGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStart(
+                RollupGranularity.HOUR, from, to))
+                .thenReturn(List.of(SalesRollup.builder()
+                        .granularity(RollupGranularity.HOUR)
+                        .bucketStart(from)
+                        .orderCount(3)
+                        .revenue(300.0)
+                        .build()));
+        salesRollupService.recordOrder(40.0, LocalDateTime.now());
+
+        // When
+        SalesTimeseriesResponse response = salesRollupService.getTimeseries(from, to, RollupGranularity.HOUR);
+
+        // Then
+        assertEquals(3, response.getPoints().size());
+        assertEquals(3, response.getPoints().get(0).getOrderCount());
+        assertEquals(0, response.getPoints().get(1).getOrderCount());
+        assertEquals(1, response.getPoints().get(2).getOrderCount());
+        assertEquals(40.0, response.getPoints().get(2).getRevenue(), 0.001);
+    }
+
+    @Test
+    void getTimeseries_RejectsTooManyPoints() {
+        LocalDateTime from = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> salesRollupService.getTimeseries(from, from.plusDays(1), RollupGranularity.MINUTE));
+        assertThrows(IllegalArgumentException.class,
+                () -> salesRollupService.getTimeseries(from, from, RollupGranularity.HOUR));
+        verifyNoInteractions(salesRollupRepository);
+    }
+
+    @Test
+    void backfill_StopsBeforeToday() {
+        // Given
+        LocalDate today = LocalDate.now();
+
+        // When
+        salesRollupService.backfill(today.minusDays(3), today.plusDays(5));
+
+        // Then
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            verify(salesRollupRepository).deleteRange(granularity,
+                    today.minusDays(3).atStartOfDay(), today.atStartOfDay());
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> salesRollupService.backfill(today, today.plusDays(1)));
+    }
+
+    @Test
+    void shutdown_FlushesPendingMinutes() {
+        // Given
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        salesRollupService.recordOrder(25.0, now);
+
+        // When
+        salesRollupService.shutdown();
+
+        // Then
+        verify(salesRollupRepository).addToBucket("MINUTE", now, 1, 25.0);
+    }
+
+    @Test
+    void flush_RepairsMinutesBeforeStartupOnceSettled() {
+        // Given : redémarrage sur une table existante
+        when(salesRollupRepository.count()).thenReturn(10L);
+        salesRollupService.initialBackfill();
+        LocalDateTime before = (LocalDateTime) ReflectionTestUtils.getField(salesRollupService, "repairBefore");
+
+        // When : trop tôt, puis une fois les minutes de tous les nœuds écrites
+        salesRollupService.flush();
+        ReflectionTestUtils.setField(salesRollupService, "repairBefore", before.minusMinutes(5));
+        salesRollupService.flush();
+        salesRollupService.flush();
+
+        // Then : une seule réparation, non additive
+        LocalDateTime to = before.minusMinutes(5);
+        LocalDateTime from = to.minusMinutes(120);
+        verify(salesRollupRepository, times(1)).deleteRange(RollupGranularity.MINUTE, from, to);
+        verify(salesRollupRepository).rebuildRange("MINUTE", RollupGranularity.MINUTE.sqlFormat(), from, to);
+        verify(salesRollupRepository).recomputeFromMinutes(eq("HOUR"), anyString(),
+                eq(from.truncatedTo(ChronoUnit.HOURS)), eq(to.minusMinutes(1).truncatedTo(ChronoUnit.HOURS).plusHours(1)));
+        verify(salesRollupRepository).recomputeFromMinutes(eq("DAY"), anyString(), any(), any());
+        verify(salesRollupRepository, never()).addToBucket(anyString(), any(), anyLong(), anyDouble());
+    }
+}
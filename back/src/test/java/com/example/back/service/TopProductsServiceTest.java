@@ -0,0 +1,134 @@
+package com.example.back.service;
+
+import com.example.back.dto.TopProductResponse;
+import com.example.back.model.OrderItem;
+import com.example.back.model.Product;
+import com.example.back.model.TopProductsWindow;
+import com.example.back.repository.OrderRepository;
+import com.example.back.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TopProductsServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @InjectMocks
+    private TopProductsService topProductsService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(topProductsService, "capacity", 4);
+        ReflectionTestUtils.setField(topProductsService, "maxLimit", 10);
+        topProductsService.init();
+    }
+
+    private OrderItem item(long productId, int quantity) {
+        return OrderItem.builder().productId(productId).productName("P" + productId).quantity(quantity).build();
+    }
+
+    private Product product(long id) {
+        return Product.builder().id(id).name("Product " + id).build();
+    }
+
+    @Test
+    void getTopProducts_RanksByQuantityWithBoundedMemory() {
+        // Given : 2 et 3 dominent, 20 produits vendus une fois pour un sketch de 4 compteurs
+        LocalDateTime now = LocalDateTime.now();
+        topProductsService.recordOrder(List.of(item(2, 50), item(3, 30)), now);
+        for (long id = 100; id < 120; id++) {
+            topProductsService.recordOrder(List.of(item(id, 1)), now);
+        }
+        when(productRepository.findAllById(anyList()))
+                .thenAnswer(invocation -> ((List<Long>) invocation.getArgument(0)).stream().map(this::product).toList());
+
+        // When
+        List<TopProductResponse> top = topProductsService.getTopProducts(TopProductsWindow.DAY, 2);
+
+        // Then
+        assertEquals(2, top.size());
+        assertEquals(2L, top.get(0).getProductId());
+        assertEquals("Product 2", top.get(0).getProductName());
+        assertTrue(top.get(0).getUnitsSold() >= 50);
+        assertTrue(top.get(0).getUnitsSold() - top.get(0).getMaxOverestimate() <= 50);
+        assertEquals(3L, top.get(1).getProductId());
+    }
+
+    @Test
+    void getTopProducts_ExcludesSalesOutsideTheWindow() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        topProductsService.recordOrder(List.of(item(1, 10)), now.minusHours(3));
+        topProductsService.recordOrder(List.of(item(2, 1)), now);
+        when(productRepository.findAllById(anyList())).thenReturn(new ArrayList<>());
+
+        // When
+        List<TopProductResponse> lastHour = topProductsService.getTopProducts(TopProductsWindow.HOUR, 5);
+        List<TopProductResponse> lastDay = topProductsService.getTopProducts(TopProductsWindow.DAY, 5);
+
+        // Then
+        assertEquals(List.of(2L), lastHour.stream().map(TopProductResponse::getProductId).toList());
+        assertEquals(List.of(1L, 2L), lastDay.stream().map(TopProductResponse::getProductId).toList());
+    }
+
+    @Test
+    void getTopSellers_SkipsDeletedProductsAndKeepsRanking() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        topProductsService.recordOrder(List.of(item(1, 5), item(2, 9), item(3, 7)), now);
+        when(productRepository.findAllById(List.of(2L, 3L, 1L))).thenReturn(List.of(product(1), product(2)));
+
+        // When
+        List<Product> sellers = topProductsService.getTopSellers(TopProductsWindow.WEEK, 3);
+
+        // Then
+        assertEquals(List.of(2L, 1L), sellers.stream().map(Product::getId).toList());
+    }
+
+    @Test
+    void getTopProducts_RejectsInvalidLimit() {
+        assertThrows(IllegalArgumentException.class,
+                () -> topProductsService.getTopProducts(TopProductsWindow.DAY, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> topProductsService.getTopProducts(TopProductsWindow.DAY, 11));
+    }
+
+    @Test
+    void warmUp_LoadsLastWeekFromOrders() {
+        // Given
+        String hour = LocalDateTime.now().minusHours(5).withMinute(0).withSecond(0).withNano(0)
+                .format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+        List<Object[]> rows = Collections.singletonList(new Object[]{7L, hour, 12L});
+        when(orderRepository.sumQuantityByProductAndHourSince(any(LocalDateTime.class))).thenReturn(rows);
+        when(productRepository.findAllById(anyList())).thenReturn(new ArrayList<>());
+
+        // When
+        topProductsService.warmUp();
+
+        // Then
+        List<TopProductResponse> top = topProductsService.getTopProducts(TopProductsWindow.DAY, 1);
+        assertEquals(7L, top.get(0).getProductId());
+        assertEquals(12L, top.get(0).getUnitsSold());
+        assertTrue(topProductsService.getTopProducts(TopProductsWindow.HOUR, 1).isEmpty());
+    }
+}
@@ -6,11 +6,15 @@ import com.example.back.dto.RegisterRequest;
 import com.example.back.dto.UpdateUserRequest;
 import com.example.back.dto.UserResponse;
 import com.example.back.exception.InvalidCredentialsException;
+import com.example.back.exception.ServiceOverloadedException;
 import com.example.back.exception.UserAlreadyExistsException;
 import com.example.back.model.Role;
 import com.example.back.model.User;
 import com.example.back.repository.UserRepository;
+import com.example.back.security.AuthenticatedUserCache;
 import com.example.back.security.JwtUtil;
+import com.example.back.security.TokenRevocationList;
+import com.example.back.security.VerifiedTokenCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -21,7 +25,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -37,11 +41,26 @@ class UserServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @Mock
     private JwtUtil jwtUtil;
 
+    @Mock
+    private AdminStatsCounters adminStatsCounters;
+
+    @Mock
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Mock
+    private TokenRevocationList tokenRevocationList;
+
+    @Mock
+    private AuthenticatedUserCache authenticatedUserCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private UserService userService;
 
@@ -81,7 +100,7 @@ class UserServiceTest {
         // Given
         when(userRepository.findByUsername(registerRequest.getUsername())).thenReturn(Optional.empty());
         when(userRepository.findAll()).thenReturn(Collections.emptyList());
-        when(passwordEncoder.encode(registerRequest.getPassword())).thenReturn("encodedPassword");
+        when(passwordHashingService.encode(registerRequest.getPassword())).thenReturn("encodedPassword");
         when(userRepository.save(any(User.class))).thenReturn(user);
 
         // When
@@ -90,7 +109,7 @@ class UserServiceTest {
         // Then
         verify(userRepository).findByUsername(registerRequest.getUsername());
         verify(userRepository).findAll();
-        verify(passwordEncoder).encode(registerRequest.getPassword());
+        verify(passwordHashingService).encode(registerRequest.getPassword());
         verify(userRepository).save(argThat(savedUser ->
                 savedUser.getUsername().equals(registerRequest.getUsername()) &&
                         savedUser.getEmail().equals(registerRequest.getEmail()) &&
@@ -148,8 +167,8 @@ class UserServiceTest {
     void authenticate_Success() {
         // Given
         when(userRepository.findByUsername(loginRequest.getUsername())).thenReturn(Optional.of(user));
-        when(passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())).thenReturn(true);
-        when(jwtUtil.generateToken(eq("testuser"), anyList())).thenReturn("jwt-token-123");
+        when(passwordHashingService.matches(loginRequest.getPassword(), user.getPassword())).thenReturn(true);
+        when(jwtUtil.generateToken(eq(1L), eq("testuser"), eq(0L), anyList())).thenReturn("jwt-token-123");
 
         // When
         AuthResponse response = userService.authenticate(loginRequest);
@@ -160,8 +179,8 @@ class UserServiceTest {
         assertEquals("jwt-token-123", response.getToken());
 
         verify(userRepository).findByUsername(loginRequest.getUsername());
-        verify(passwordEncoder).matches(loginRequest.getPassword(), user.getPassword());
-        verify(jwtUtil).generateToken(eq("testuser"), argThat(authorities ->
+        verify(passwordHashingService).matches(loginRequest.getPassword(), user.getPassword());
+        verify(jwtUtil).generateToken(eq(1L), eq("testuser"), eq(0L), argThat(authorities ->
                 authorities.stream().anyMatch(auth ->
                         auth instanceof SimpleGrantedAuthority &&
                                 ((SimpleGrantedAuthority) auth).getAuthority().equals("ROLE_USER")
@@ -169,6 +188,42 @@ class UserServiceTest {
         ));
     }
 
+    @Test
+    void authenticate_RehashesOutdatedPasswordHash() {
+        // Given : hachage sans préfixe, antérieur à l'encodeur délégant
+        when(userRepository.findByUsername(loginRequest.getUsername())).thenReturn(Optional.of(user));
+        when(passwordHashingService.matches(loginRequest.getPassword(), "encodedPassword")).thenReturn(true);
+        when(passwordHashingService.needsRehash("encodedPassword")).thenReturn(true);
+        when(passwordHashingService.encode(loginRequest.getPassword())).thenReturn("{bcrypt}newHash");
+        when(jwtUtil.generateToken(anyLong(), anyString(), anyLong(), anyList())).thenReturn("jwt-token-123");
+
+        // When
+        AuthResponse response = userService.authenticate(loginRequest);
+
+        // Then
+        assertEquals("jwt-token-123", response.getToken());
+        verify(userRepository).replacePasswordHash(1L, "encodedPassword", "{bcrypt}newHash");
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void authenticate_SucceedsWhenRehashIsDeferred() {
+        // Given : pool de hachage saturé au moment de la mise à niveau
+        when(userRepository.findByUsername(loginRequest.getUsername())).thenReturn(Optional.of(user));
+        when(passwordHashingService.matches(loginRequest.getPassword(), "encodedPassword")).thenReturn(true);
+        when(passwordHashingService.needsRehash("encodedPassword")).thenReturn(true);
+        when(passwordHashingService.encode(loginRequest.getPassword()))
+                .thenThrow(new ServiceOverloadedException("busy", 1));
+        when(jwtUtil.generateToken(anyLong(), anyString(), anyLong(), anyList())).thenReturn("jwt-token-123");
+
+        // When
+        AuthResponse response = userService.authenticate(loginRequest);
+
+        // Then
+        assertEquals("jwt-token-123", response.getToken());
+        verify(userRepository, never()).replacePasswordHash(anyLong(), anyString(), anyString());
+    }
+
     @Test
     void authenticate_ThrowsException_WhenUsernameNotFound() {
         // Given
@@ -182,15 +237,15 @@ class UserServiceTest {
 
         assertEquals("Invalid username or password", exception.getMessage());
         verify(userRepository).findByUsername(loginRequest.getUsername());
-        verify(passwordEncoder, never()).matches(anyString(), anyString());
-        verify(jwtUtil, never()).generateToken(anyString(), anyList());
+        verify(passwordHashingService, never()).matches(anyString(), anyString());
+        verify(jwtUtil, never()).generateToken(anyLong(), anyString(), anyLong(), anyList());
     }
 
     @Test
     void authenticate_ThrowsException_WhenPasswordIsIncorrect() {
         // Given
         when(userRepository.findByUsername(loginRequest.getUsername())).thenReturn(Optional.of(user));
-        when(passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())).thenReturn(false);
+        when(passwordHashingService.matches(loginRequest.getPassword(), user.getPassword())).thenReturn(false);
 
         // When & Then
         InvalidCredentialsException exception = assertThrows(
@@ -200,8 +255,25 @@ class UserServiceTest {
 
         assertEquals("Invalid username or password", exception.getMessage());
         verify(userRepository).findByUsername(loginRequest.getUsername());
-        verify(passwordEncoder).matches(loginRequest.getPassword(), user.getPassword());
-        verify(jwtUtil, never()).generateToken(anyString(), anyList());
+        verify(passwordHashingService).matches(loginRequest.getPassword(), user.getPassword());
+        verify(jwtUtil, never()).generateToken(anyLong(), anyString(), anyLong(), anyList());
+    }
+
+    @Test
+    void authenticate_ThrowsException_WhenAccountIsDisabled() {
+        // Given
+        user.setEnabled(false);
+        when(userRepository.findByUsername(loginRequest.getUsername())).thenReturn(Optional.of(user));
+        when(passwordHashingService.matches(loginRequest.getPassword(), user.getPassword())).thenReturn(true);
+
+        // When & Then
+        InvalidCredentialsException exception = assertThrows(
+                InvalidCredentialsException.class,
+                () -> userService.authenticate(loginRequest)
+        );
+
+        assertEquals("Account is disabled", exception.getMessage());
+        verify(jwtUtil, never()).generateToken(anyLong(), anyString(), anyLong(), anyList());
     }
 
     // ========================================
@@ -281,9 +353,13 @@ class UserServiceTest {
         verify(userRepository).findById(1L);
         verify(userRepository).save(argThat(savedUser ->
                 !savedUser.isEnabled() &&
+                        savedUser.getAccountVersion() == 1L &&
                         savedUser.getRoles().contains(Role.ADMIN) &&
                         savedUser.getRoles().contains(Role.USER)
         ));
+        verify(verifiedTokenCache).evictSubject("testuser");
+        verify(tokenRevocationList).revokeSubject("testuser");
+        verify(authenticatedUserCache).evict("testuser");
     }
 
     @Test
@@ -6,5 +6,7 @@ export interface Order {
   createdAt: string // Standard dans le monde JS/TS
   totalPrice: number // Cohérent avec "price" dans OrderItem
   status: string
-  items: OrderItem[]
+  itemCount: number // Nombre total d'articles (somme des quantités)
+  distinctProductCount: number
+  items?: OrderItem[] // Chargés uniquement par le détail (GET /orders/{id})
 }
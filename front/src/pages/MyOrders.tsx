@@ -7,8 +7,9 @@ import {
   Package,
   ShoppingBag
 } from "lucide-react"
-import { getMyOrders } from "../services/orderService"
+import { getMyOrders, getOrderById } from "../services/orderService"
 import type { Order } from "../models/Order"
+import type { OrderItem } from "../models/OrderItem"
 import "../style/MyOrders.css"
 
 interface LocationState {
@@ -22,6 +23,8 @@ export default function MyOrders() {
   const [orders, setOrders] = useState<Order[]>([])
   const [loading, setLoading] = useState(true)
   const [error, setError] = useState<string | null>(null)
+  const [orderItems, setOrderItems] = useState<Record<number, OrderItem[]>>({})
+  const [loadingItems, setLoadingItems] = useState<number | null>(null)
   const [successMessage, setSuccessMessage] = useState<string | null>(
     state?.message || null
   )
@@ -62,6 +65,25 @@ export default function MyOrders() {
     }
   }, [successMessage])
 
+  // Charger le détail d'une commande à la demande (la liste ne contient que des résumés)
+  const toggleItems = async (orderId: number) => {
+    if (orderItems[orderId]) {
+      const { [orderId]: _, ...rest } = orderItems
+      setOrderItems(rest)
+      return
+    }
+
+    setLoadingItems(orderId)
+    try {
+      const detail = await getOrderById(orderId)
+      setOrderItems((prev) => ({ ...prev, [orderId]: detail.items ?? [] }))
+    } catch (err) {
+      console.error("Erreur chargement détail commande:", err)
+    } finally {
+      setLoadingItems(null)
+    }
+  }
+
   const formatPrice = (price: number) => {
     return new Intl.NumberFormat("fr-FR", {
       style: "currency",
@@ -159,11 +181,19 @@ export default function MyOrders() {
                 <div className="order-details">
                   <div className="order-items">
                     <h4>
-                      {order.items.length} article
-                      {order.items.length > 1 ? "s" : ""}
+                      {order.itemCount} article
+                      {order.itemCount > 1 ? "s" : ""}
                     </h4>
+                    <button
+                      type="button"
+                      className="btn-toggle-items"
+                      onClick={() => toggleItems(order.id)}
+                      disabled={loadingItems === order.id}
+                    >
+                      {orderItems[order.id] ? "Masquer le détail" : "Voir le détail"}
+                    </button>
                     <ul>
-                      {order.items.map((item, index) => (
+                      {(orderItems[order.id] ?? []).map((item, index) => (
                         <li key={`${order.id}-${item.productId}-${index}`}>
                           <span className="item-quantity">
                             {item.quantity}x
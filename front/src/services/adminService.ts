@@ -10,6 +10,11 @@ export interface AdminStats {
   totalRevenue: number
   recentOrders?: number
   lowStockProducts?: number
+  distinctBuyersToday?: number
+  distinctBuyersLast7Days?: number
+  distinctBuyersRelativeError?: number
+  reconciledAt?: Record<string, string>
+  staleFields?: string[]
 }
 
 export interface ProductRequest {
@@ -40,10 +40,16 @@ export const login = async (
 }
 
 /**
- * Déconnexion
+ * Déconnexion : le token est révoqué côté serveur (sans attendre la réponse) puis oublié
  */
 export const logout = (): void => {
+  const token = localStorage.getItem("token")
   localStorage.removeItem("token")
+  if (token) {
+    api
+      .post("/auth/logout", null, { headers: { Authorization: `Bearer ${token}` } })
+      .catch(() => undefined)
+  }
 }
 
 /**
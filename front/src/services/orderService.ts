@@ -1,5 +1,6 @@
 import api from "../api/axios"
 import type { Order } from "../models/Order"
+import type { OrderItem } from "../models/OrderItem"
 import type { CreateOrderRequest } from "../models/CreateOrderRequest"
 
 const BASE_URL = "/orders"
@@ -15,22 +16,40 @@ export const createOrder = async (
   }
 }
 
+const toOrderItem = (apiItem: any): OrderItem => ({
+  productId: apiItem.productId,
+  productName: apiItem.productName,
+  quantity: apiItem.quantity,
+  price: apiItem.unitPrice,
+})
+
 export const getMyOrders = async (): Promise<Order[]> => {
-  // Utilisez "api" au lieu de "axios"
-  const response = await api.get("/orders/my-orders") // ou '/api/orders' selon votre backend
+  // La liste ne contient que des résumés : les items sont chargés via getOrderById
+  const response = await api.get("/orders/my-orders")
 
   // 🎯 Normalisation des données
   return response.data.map((apiOrder: any) => ({
     id: apiOrder.orderId,
-    userId: apiOrder.userId,
     createdAt: apiOrder.orderDate,
     totalPrice: apiOrder.totalAmount,
     status: apiOrder.status,
-    items: apiOrder.items.map((apiItem: any) => ({
-      productId: apiItem.productId,
-      productName: apiItem.productName,
-      quantity: apiItem.quantity,
-      price: apiItem.unitPrice,
-    })),
+    itemCount: apiOrder.itemCount,
+    distinctProductCount: apiOrder.distinctProductCount,
   }))
 }
+
+export const getOrderById = async (id: number): Promise<Order> => {
+  const response = await api.get(`${BASE_URL}/${id}`)
+  const apiOrder = response.data
+
+  return {
+    id: apiOrder.orderId,
+    userId: apiOrder.userId,
+    createdAt: apiOrder.orderDate,
+    totalPrice: apiOrder.totalAmount,
+    status: apiOrder.status,
+    itemCount: apiOrder.itemCount,
+    distinctProductCount: apiOrder.distinctProductCount,
+    items: apiOrder.items.map(toOrderItem),
+  }
+}